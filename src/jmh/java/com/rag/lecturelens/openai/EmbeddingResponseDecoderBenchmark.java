@@ -0,0 +1,70 @@
+package com.rag.lecturelens.openai;
+
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.core.JsonParser;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /embeddings 응답 디코딩: 기존 방식(String → JsonNode 트리 → asDouble) vs 스트리밍 디코더
+ * 할당량 비교는 GC 프로파일러로: ./gradlew jmh -Pjmh.includes=EmbeddingResponseDecoderBenchmark
+ * (build.gradle 의 jmh 블록에 profilers = ['gc'] 추가)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class EmbeddingResponseDecoderBenchmark {
+
+    private static final int DIMENSIONS = 1536;
+
+    @Param({"1", "64"})
+    private int inputs;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private byte[] response;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        StringBuilder sb = new StringBuilder("{\"object\":\"list\",\"data\":[");
+        for (int i = 0; i < inputs; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"object\":\"embedding\",\"index\":").append(i).append(",\"embedding\":[");
+            for (int d = 0; d < DIMENSIONS; d++) {
+                if (d > 0) sb.append(',');
+                sb.append((float) (random.nextDouble() * 0.2 - 0.1));
+            }
+            sb.append("]}");
+        }
+        sb.append("],\"model\":\"text-embedding-3-small\",\"usage\":{\"prompt_tokens\":8,\"total_tokens\":8}}");
+        response = sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public float[][] tree() {
+        String body = new String(response, StandardCharsets.UTF_8);
+        JsonNode data = objectMapper.readTree(body).path("data");
+        float[][] vectors = new float[inputs][];
+        for (JsonNode item : data) {
+            JsonNode vectorNode = item.path("embedding");
+            float[] embedding = new float[vectorNode.size()];
+            for (int i = 0; i < vectorNode.size(); i++) {
+                embedding[i] = (float) vectorNode.get(i).asDouble();
+            }
+            vectors[item.path("index").asInt()] = embedding;
+        }
+        return vectors;
+    }
+
+    @Benchmark
+    public float[][] streaming() {
+        try (JsonParser parser = objectMapper.createParser(new ByteArrayInputStream(response))) {
+            return EmbeddingResponseDecoder.decode(parser, inputs, DIMENSIONS);
+        }
+    }
+}
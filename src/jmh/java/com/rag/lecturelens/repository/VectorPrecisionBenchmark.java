@@ -0,0 +1,236 @@
+package com.rag.lecturelens.repository;
+
+import com.pgvector.PGvector;
+import com.rag.lecturelens.domain.VectorPrecision;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 정밀도별 벡터 검색 지연시간 + recall@k (실제 Postgres + pgvector 필요)
+ * - 접속 정보: 환경변수 BENCH_JDBC_URL / BENCH_JDBC_USER / BENCH_JDBC_PASSWORD
+ * - 실행: ./gradlew jmh -Pjmh.includes=VectorPrecisionBenchmark
+ * - 지연시간은 search, recall@k 는 recall 벤치마크의 보조 카운터(recallAtK) → 둘 다 precision 별 JMH 결과에 같이 나옴
+ * - 데이터: bench_vector_chunk 테이블에 군집 형태의 정규화된 랜덤 벡터 (rows 가 바뀌면 다시 채움)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class VectorPrecisionBenchmark {
+
+    private static final int DIMENSIONS = 1536;
+    private static final int CLUSTERS = 64;
+    private static final int QUERIES = 50;
+    private static final int K = 10;
+
+    @Param({"FULL", "HALFVEC", "BINARY"})
+    private VectorPrecision precision;
+
+    @Param({"4"})
+    private int candidateMultiplier;
+
+    @Param({"20000"})
+    private int rows;
+
+    private Connection connection;
+    private PreparedStatement search;
+    private List<float[]> queries;
+    private List<Set<Long>> truth;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = System.getenv("BENCH_JDBC_URL");
+        if (url == null) {
+            throw new IllegalStateException("BENCH_JDBC_URL 환경변수가 필요함 (예: jdbc:postgresql://localhost:5432/lecturelens)");
+        }
+        connection = DriverManager.getConnection(url, System.getenv("BENCH_JDBC_USER"), System.getenv("BENCH_JDBC_PASSWORD"));
+        try (Statement st = connection.createStatement()) {
+            st.execute("create extension if not exists vector");
+        }
+        PGvector.addVectorType(connection);
+
+        SplittableRandom random = new SplittableRandom(7);
+        float[][] centroids = new float[CLUSTERS][];
+        for (int c = 0; c < CLUSTERS; c++) {
+            centroids[c] = normalize(gaussian(random, 1.0f));
+        }
+        seed(centroids, random);
+
+        int candidates = precision == VectorPrecision.FULL ? K : K * candidateMultiplier;
+        try (Statement st = connection.createStatement()) {
+            st.execute("create index if not exists bench_vector_chunk_" + precision.name().toLowerCase() + "_idx"
+                    + " on bench_vector_chunk using hnsw ("
+                    + precision.columnExpression(DIMENSIONS, 0) + " " + precision.operatorClass() + ")");
+            st.execute("analyze bench_vector_chunk");
+            st.execute("set hnsw.ef_search = " + Math.max(40, candidates));
+        }
+
+        SplittableRandom queryRandom = new SplittableRandom(11);
+        queries = new ArrayList<>();
+        truth = new ArrayList<>();
+        for (int q = 0; q < QUERIES; q++) {
+            float[] query = sample(centroids, queryRandom);
+            queries.add(query);
+            truth.add(exactTopK(query));
+        }
+
+        String sql = precision == VectorPrecision.FULL
+                ? "select id from bench_vector_chunk order by " + precision.orderBy("?", DIMENSIONS, 0) + " limit ?"
+                : "select id from (select id, embedding from bench_vector_chunk order by "
+                  + precision.orderBy("?", DIMENSIONS, 0) + " limit ?) c"
+                  + " order by c.embedding <-> cast(? as vector) limit ?";
+        search = connection.prepareStatement(sql);
+    }
+
+    @Benchmark
+    public List<Long> search() throws SQLException {
+        float[] query = queries.get(next++ % queries.size());
+        return run(query);
+    }
+
+    /**
+     * 질의 전체의 recall@k (정확 검색 top-k 중 찾은 비율) → RecallCounters.recallAtK
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Threads(1)
+    public double recall(RecallCounters counters) throws SQLException {
+        double total = 0;
+        for (int q = 0; q < queries.size(); q++) {
+            Set<Long> expected = truth.get(q);
+            total += run(queries.get(q)).stream().filter(expected::contains).count() / (double) expected.size();
+        }
+        double recall = total / queries.size();
+        counters.record(recall);
+        return recall;
+    }
+
+    /**
+     * EVENTS 카운터는 측정 iteration 들의 합으로 집계됨
+     * → iteration 마다 recall / 측정 iteration 수 를 남겨서 합계가 recall 이 되게 함
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RecallCounters {
+
+        public double recallAtK;
+        private int measurementIterations;
+
+        @Setup(Level.Iteration)
+        public void reset(BenchmarkParams params) {
+            recallAtK = 0;
+            measurementIterations = Math.max(params.getMeasurement().getCount(), 1);
+        }
+
+        void record(double recall) {
+            recallAtK = recall / measurementIterations;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        search.close();
+        connection.close();
+    }
+
+    /* ----- 내부 유틸 ----- */
+
+    private List<Long> run(float[] query) throws SQLException {
+        String literal = new PGvector(query).getValue();
+        int i = 1;
+        search.setString(i++, literal);
+        if (precision == VectorPrecision.FULL) {
+            search.setInt(i, K);
+        } else {
+            search.setInt(i++, K * candidateMultiplier);
+            search.setString(i++, literal);
+            search.setInt(i, K);
+        }
+        List<Long> ids = new ArrayList<>(K);
+        try (ResultSet rs = search.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    private Set<Long> exactTopK(float[] query) throws SQLException {
+        Set<Long> ids = new HashSet<>();
+        try (PreparedStatement ps = connection.prepareStatement(
+                "select id from bench_vector_chunk order by (embedding <-> ?) + 0 limit ?")) {
+            ps.setObject(1, new PGvector(query));
+            ps.setInt(2, K);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private void seed(float[][] centroids, SplittableRandom random) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("create table if not exists bench_vector_chunk (id bigserial primary key, embedding vector(" + DIMENSIONS + ") not null)");
+            try (ResultSet rs = st.executeQuery("select count(*) from bench_vector_chunk")) {
+                rs.next();
+                if (rs.getLong(1) == rows) {
+                    return;
+                }
+            }
+            st.execute("truncate bench_vector_chunk restart identity");
+        }
+
+        connection.setAutoCommit(false);
+        try (PreparedStatement ps = connection.prepareStatement("insert into bench_vector_chunk (embedding) values (?)")) {
+            for (int r = 0; r < rows; r++) {
+                ps.setObject(1, new PGvector(sample(centroids, random)));
+                ps.addBatch();
+                if (r % 1000 == 999) {
+                    ps.executeBatch();
+                }
+            }
+            ps.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static float[] sample(float[][] centroids, SplittableRandom random) {
+        float[] centroid = centroids[random.nextInt(centroids.length)];
+        float[] noise = gaussian(random, 0.03f);
+        for (int d = 0; d < DIMENSIONS; d++) {
+            noise[d] += centroid[d];
+        }
+        return normalize(noise);
+    }
+
+    private static float[] gaussian(SplittableRandom random, float scale) {
+        float[] v = new float[DIMENSIONS];
+        for (int d = 0; d < DIMENSIONS; d++) {
+            // Box-Muller
+            double u1 = 1.0 - random.nextDouble();
+            double u2 = random.nextDouble();
+            v[d] = (float) (Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2) * scale);
+        }
+        return v;
+    }
+
+    private static float[] normalize(float[] v) {
+        double norm = 0;
+        for (float x : v) {
+            norm += x * x;
+        }
+        float inv = (float) (1 / Math.sqrt(norm));
+        for (int d = 0; d < v.length; d++) {
+            v[d] *= inv;
+        }
+        return v;
+    }
+}
@@ -0,0 +1,184 @@
+package com.rag.lecturelens.vector;
+
+import com.pgvector.PGvector;
+import com.rag.lecturelens.domain.ChunkSource;
+import com.rag.lecturelens.dto.RetrievedChunk;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 강의 하나 범위의 벡터 검색: in-JVM LectureVectorIndex vs DB 검색(searchTopN 과 같은 질의 + 임베딩 파싱)
+ * - 실행: ./gradlew jmh -Pjmh.includes=LectureVectorIndexBenchmark
+ * - memory* / dot* 는 DB 없이 실행, database 는 BENCH_JDBC_URL / BENCH_JDBC_USER / BENCH_JDBC_PASSWORD 필요
+ * - dotSimd / dotScalar: 강의 전체 행에 대한 내적 커널만 (dotSimd 는 SIMD 커널을 직접 호출 → jmh 설정의 --add-modules jdk.incubator.vector 필요)
+ * - memory 는 실제 검색 경로 그대로 (VectorKernels 가 모듈 유무로 커널 선택)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class LectureVectorIndexBenchmark {
+
+    private static final int DIMENSIONS = 1536;
+    private static final int QUERIES = 50;
+    private static final int K = 20;
+
+    // 강의 하나의 청크 수 (슬라이드 / 음성 절반씩)
+    @Param({"300", "2000"})
+    private int chunks;
+
+    private List<RetrievedChunk> rows;
+    private LectureVectorIndex index;
+    private float[] matrix;
+    private float[][] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(7);
+        rows = new ArrayList<>(chunks);
+        matrix = new float[chunks * DIMENSIONS];
+        for (int r = 0; r < chunks; r++) {
+            float[] embedding = randomUnit(random);
+            System.arraycopy(embedding, 0, matrix, r * DIMENSIONS, DIMENSIONS);
+            ChunkSource source = r % 2 == 0 ? ChunkSource.SLIDE : ChunkSource.AUDIO;
+            rows.add(new RetrievedChunk(source, (long) r + 1, 1L, "chunk " + r,
+                    source == ChunkSource.SLIDE ? r / 2 + 1 : null, null, null, embedding, 0));
+        }
+        index = LectureVectorIndex.build("bench", DIMENSIONS, rows);
+
+        queries = new float[QUERIES][];
+        for (int q = 0; q < QUERIES; q++) {
+            queries[q] = randomUnit(random);
+        }
+    }
+
+    @Benchmark
+    public List<RetrievedChunk> memory() {
+        return index.search(ChunkSource.SLIDE, nextQuery(), K);
+    }
+
+    @Benchmark
+    public void dotSimd(Blackhole bh) {
+        float[] query = nextQuery();
+        for (int r = 0; r < chunks; r++) {
+            bh.consume(SimdVectorKernels.dot(query, matrix, r * DIMENSIONS));
+        }
+    }
+
+    @Benchmark
+    public void dotScalar(Blackhole bh) {
+        float[] query = nextQuery();
+        for (int r = 0; r < chunks; r++) {
+            bh.consume(VectorKernels.dotScalar(query, matrix, r * DIMENSIONS));
+        }
+    }
+
+    @Benchmark
+    public List<float[]> database(Database db) throws SQLException {
+        return db.search(nextQuery());
+    }
+
+    /**
+     * searchTopN 과 같은 형태: lecture_id 필터 + L2 정렬, 결과 행의 embedding 텍스트를 float[] 로 파싱
+     */
+    @State(Scope.Benchmark)
+    public static class Database {
+
+        private Connection connection;
+        private PreparedStatement search;
+
+        @Setup(Level.Trial)
+        public void setUp(LectureVectorIndexBenchmark bench) throws SQLException {
+            String url = System.getenv("BENCH_JDBC_URL");
+            if (url == null) {
+                throw new IllegalStateException("BENCH_JDBC_URL 환경변수가 필요함 (예: jdbc:postgresql://localhost:5432/lecturelens)");
+            }
+            connection = DriverManager.getConnection(url, System.getenv("BENCH_JDBC_USER"), System.getenv("BENCH_JDBC_PASSWORD"));
+            try (Statement st = connection.createStatement()) {
+                st.execute("create extension if not exists vector");
+            }
+            PGvector.addVectorType(connection);
+            seed(bench.rows);
+            search = connection.prepareStatement("select id, text, embedding from bench_lecture_chunk"
+                    + " where lecture_id = 1 and source = 'SLIDE'"
+                    + " order by embedding <-> cast(? as vector) limit ?");
+        }
+
+        List<float[]> search(float[] query) throws SQLException {
+            search.setString(1, new PGvector(query).getValue());
+            search.setInt(2, K);
+            List<float[]> result = new ArrayList<>(K);
+            try (ResultSet rs = search.executeQuery()) {
+                while (rs.next()) {
+                    result.add(new PGvector(rs.getString(3)).toArray());
+                }
+            }
+            return result;
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            search.close();
+            connection.close();
+        }
+
+        private void seed(List<RetrievedChunk> rows) throws SQLException {
+            try (Statement st = connection.createStatement()) {
+                st.execute("create table if not exists bench_lecture_chunk (id bigint primary key, lecture_id bigint not null,"
+                        + " source varchar(10) not null, text text, embedding vector(" + DIMENSIONS + ") not null)");
+                try (ResultSet rs = st.executeQuery("select count(*) from bench_lecture_chunk")) {
+                    rs.next();
+                    if (rs.getLong(1) == rows.size()) {
+                        return;
+                    }
+                }
+                st.execute("truncate bench_lecture_chunk");
+            }
+
+            connection.setAutoCommit(false);
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "insert into bench_lecture_chunk (id, lecture_id, source, text, embedding) values (?, 1, ?, ?, ?)")) {
+                for (RetrievedChunk row : rows) {
+                    ps.setLong(1, row.id());
+                    ps.setString(2, row.source().name());
+                    ps.setString(3, row.text());
+                    ps.setObject(4, new PGvector(row.embedding()));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                connection.commit();
+            } finally {
+                connection.setAutoCommit(true);
+            }
+            try (Statement st = connection.createStatement()) {
+                st.execute("analyze bench_lecture_chunk");
+            }
+        }
+    }
+
+    /* ----- 내부 유틸 ----- */
+
+    private float[] nextQuery() {
+        return queries[next++ % queries.length];
+    }
+
+    private static float[] randomUnit(SplittableRandom random) {
+        float[] v = new float[DIMENSIONS];
+        double norm = 0;
+        for (int d = 0; d < DIMENSIONS; d++) {
+            v[d] = (float) (random.nextDouble() * 2 - 1);
+            norm += v[d] * v[d];
+        }
+        float inv = (float) (1 / Math.sqrt(norm));
+        for (int d = 0; d < DIMENSIONS; d++) {
+            v[d] *= inv;
+        }
+        return v;
+    }
+}
@@ -0,0 +1,32 @@
+package com.rag.lecturelens.config;
+
+import com.rag.lecturelens.domain.WorkloadType;
+import com.rag.lecturelens.executor.PipelineExecutors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+
+import java.util.concurrent.Executor;
+
+/**
+ * @Async 기본 실행기를 BACKGROUND 레인으로 교체
+ * - 기본 실행기(무제한 큐) 대신 유한한 허용량을 사용
+ * - 허용량이 가득 차면 조용히 버리지 않고 TaskRejectedException → 호출한 쪽이 결정
+ * - 강의 처리 작업은 @Async 를 쓰지 않고 JOB 레인에 직접 제출 (가득 차면 PENDING 으로 남기는 정책은 그쪽에만)
+ */
+@Configuration
+@RequiredArgsConstructor
+public class AsyncConfig implements AsyncConfigurer {
+
+    private final PipelineExecutors pipelineExecutors;
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return task -> {
+            if (!pipelineExecutors.lane(WorkloadType.BACKGROUND).trySubmit(task)) {
+                throw new TaskRejectedException("BACKGROUND 레인 가득 참 → @Async 작업 거부");
+            }
+        };
+    }
+}
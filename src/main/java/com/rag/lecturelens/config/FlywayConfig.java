@@ -0,0 +1,31 @@
+package com.rag.lecturelens.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.flyway.autoconfigure.FlywayConfigurationCustomizer;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Flyway (src/main/resources/db/migration) 가 스키마를 소유
+ * - V0_x: 테이블 생성 (기본 스키마 + 이후 추가된 엔티티 테이블마다 하나), V1 이후: 컬럼 / 인덱스 변경
+ * - 이미 운영 중인 DB 는 스키마 히스토리가 없으므로 버전 0 으로 baseline 후 적용
+ * - V1~V4 를 먼저 적용한 DB 에도 V0_x 가 들어가도록 outOfOrder (모두 if not exists 라 기존 테이블은 그대로)
+ * - Hibernate ddl-auto 는 끔 (설정 파일 값과 관계없이 none) → 새 테이블은 반드시 마이그레이션으로
+ */
+@Configuration
+public class FlywayConfig {
+
+    @Bean
+    public FlywayConfigurationCustomizer flywayBaselineCustomizer() {
+        return configuration -> configuration
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .outOfOrder(true);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer schemaOwnedByFlyway() {
+        return properties -> properties.put(AvailableSettings.HBM2DDL_AUTO, "none");
+    }
+}
@@ -8,13 +8,16 @@ import com.rag.lecturelens.service.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
-import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -27,6 +30,9 @@ public class LectureController {
 
     private final LectureService lectureService;
     private final UserService userService;
+    private final LectureAskService lectureAskService;
+
+    private static final int DOWNLOAD_BUFFER_SIZE = 64 * 1024;
     /**
      * 강의 업로드 (문서 + 음성/영상)
      * - document: pdf / ppt / pptx / doc / docx
@@ -41,7 +47,10 @@ public class LectureController {
             @RequestPart("document") MultipartFile[] documentFiles,
             @RequestPart("audio") MultipartFile[] audioFiles,
             Authentication authentication // ✅ JWT 인증 정보
-    ) throws IOException {
+    ) {
+
+        // 0) 확장자 검증은 사용량 차감/업로드 전에 먼저 (잘못된 파일이면 바로 400)
+        lectureService.validateUploadFiles(documentFiles, audioFiles);
 
         // 1) 오늘 사용량 1회 차감
         AppUser user = userService.consumeUsage(userId);
@@ -49,34 +58,14 @@ public class LectureController {
         // 2) Lecture "껍데기" 먼저 생성 (status = PROCESSING)
         Lecture lecture = lectureService.createInitialLecture(user, title, description);
 
-        List<UploadFileData> docData = new ArrayList<>();
-        for (MultipartFile f : documentFiles) {
-            docData.add(new UploadFileData(
-                    f.getOriginalFilename(),
-                    f.getContentType(),
-                    f.getBytes()
-            ));
-        }
-
-        List<UploadFileData> audioData = new ArrayList<>();
-        for (MultipartFile f : audioFiles) {
-            audioData.add(new UploadFileData(
-                    f.getOriginalFilename(),
-                    f.getContentType(),
-                    f.getBytes()
-            ));
-        }
+        // 3) 원본은 요청 스트림에서 바로 S3로 업로드 (byte[]로 힙에 올리지 않음)
+        lecture = lectureService.storeOriginalFiles(lecture.getId(), userId, documentFiles, audioFiles);
 
-        // 3) 비동기 처리 시작 (lectureId 넘기기)
-        lectureService.processLectureAsync(
-                lecture.getId(),
-                userId,
-                docData,
-                audioData
-        );
+        // 4) 비동기 처리 시작 (lectureId만 넘기기, S3 key 는 lecture_job 에 기록됨)
+        lectureService.processLectureAsync(lecture.getId());
 
 
-        // 4) 프론트로 응답: 강의 id + title + 남은 사용횟수 + 초기 status
+        // 5) 프론트로 응답: 강의 id + title + 남은 사용횟수 + 초기 status
         LectureUploadResponse response = new LectureUploadResponse(
                 lecture.getId(),
                 lecture.getTitle(),
@@ -88,24 +77,69 @@ public class LectureController {
     }
 
 
+    /**
+     * 요약 PDF 다운로드 (스트리밍)
+     * - S3 → 응답 스트림으로 고정 크기 버퍼만 써서 흘려보냄
+     * - Range 요청이면 206 + Content-Range (이어받기/부분 조회)
+     */
     @GetMapping("/download")
-    public ResponseEntity<byte[]> downloadSummary(
+    public ResponseEntity<StreamingResponseBody> downloadSummary(
             @RequestParam("userId") String userId,
             @RequestParam("lectureId") Long lectureId,
-            @RequestParam("title") String title
+            @RequestParam("title") String title,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range
     ) {
 
-        DownloadFile downloadFile = lectureService.downloadS3File(userId,lectureId,title);
+        DownloadFile downloadFile = lectureService.downloadS3File(userId, lectureId, title, range);
 
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_PDF); // 결과물이 PDF라면
+        headers.setContentType(MediaType.parseMediaType(downloadFile.getContentType()));
         headers.setContentDisposition(
                 ContentDisposition.attachment()
                         .filename(downloadFile.getFileName(), StandardCharsets.UTF_8)
                         .build()
         );
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.setContentLength(downloadFile.getContentLength());
+        if (downloadFile.isPartial()) {
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + downloadFile.getRangeStart() + "-"
+                    + downloadFile.getRangeEnd() + "/" + downloadFile.getTotalLength());
+        }
+
+        StreamingResponseBody body = out -> {
+            try (InputStream in = downloadFile.getBody()) {
+                byte[] buffer = new byte[DOWNLOAD_BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+                out.flush();
+            }
+        };
+
+        HttpStatus status = downloadFile.isPartial() ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK;
+        return new ResponseEntity<>(body, headers, status);
+    }
 
-        return new ResponseEntity<>(downloadFile.getFileBytes(), headers, HttpStatus.OK);
+    /**
+     * 요약 PDF presigned URL (짧게 유효) - 클라이언트가 S3에서 직접 받음
+     * - redirect=true 면 302 로 바로 S3로 보냄
+     */
+    @GetMapping("/download/url")
+    public ResponseEntity<DownloadUrlResponse> downloadSummaryUrl(
+            @RequestParam("userId") String userId,
+            @RequestParam("lectureId") Long lectureId,
+            @RequestParam("title") String title,
+            @RequestParam(value = "redirect", defaultValue = "false") boolean redirect
+    ) {
+        DownloadUrlResponse response = lectureService.createDownloadUrl(userId, lectureId, title);
+
+        if (redirect) {
+            return ResponseEntity.status(HttpStatus.FOUND)
+                    .location(URI.create(response.url()))
+                    .build();
+        }
+        return ResponseEntity.ok(response);
     }
 
     @DeleteMapping ("/delete")
@@ -127,6 +161,26 @@ public class LectureController {
 
         return new ResponseEntity<>(lectureDeleteResponse, headers, HttpStatus.OK);
     }
+    /**
+     * 실패한 강의 재시도 (이미 끝난 단계는 건너뛰고 이어서 처리)
+     */
+    @PostMapping("/{lectureId}/retry")
+    public ResponseEntity<LectureStatusResponse> retryLecture(
+            @PathVariable Long lectureId,
+            Authentication authentication
+    ) {
+        String userId = authentication.getName();
+
+        Lecture lecture = lectureService.retryLecture(lectureId, userId);
+        lectureService.processLectureAsync(lectureId);
+
+        return ResponseEntity.ok(new LectureStatusResponse(
+                lecture.getId(),
+                lecture.getTitle(),
+                lecture.getStatus()
+        ));
+    }
+
     @GetMapping("/{lectureId}/status")
     public ResponseEntity<LectureStatusResponse> getLectureStatus(
             @PathVariable Long lectureId,
@@ -145,6 +199,21 @@ public class LectureController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * 강의 질의응답 (SSE)
+     * - event: sources (근거 청크) → token (답변 조각) ... → done
+     */
+    @PostMapping(value = "/{lectureId}/ask", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> ask(
+            @PathVariable Long lectureId,
+            @RequestBody AskRequest request,
+            Authentication authentication
+    ) {
+        String userId = authentication.getName();
+
+        return lectureAskService.ask(lectureId, userId, request.question());
+    }
+
     @GetMapping("/status")
     public ResponseEntity<List<LectureStatusResponse>> getLectureStatuses(
             @RequestParam List<Long> ids,
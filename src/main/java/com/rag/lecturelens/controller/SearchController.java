@@ -0,0 +1,35 @@
+package com.rag.lecturelens.controller;
+
+import com.rag.lecturelens.dto.LibrarySearchResult;
+import com.rag.lecturelens.service.LibrarySearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+
+@RestController
+@Slf4j
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final LibrarySearchService librarySearchService;
+
+    /**
+     * 내 모든 강의에서 검색 (슬라이드 번호 / 음성 구간 포함, 관련도 순)
+     */
+    @GetMapping
+    public ResponseEntity<List<LibrarySearchResult>> search(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            Authentication authentication
+    ) {
+        String userId = authentication.getName();
+
+        return ResponseEntity.ok(librarySearchService.search(userId, query, limit));
+    }
+}
@@ -0,0 +1,9 @@
+package com.rag.lecturelens.domain;
+
+/**
+ * 검색 대상 청크 종류
+ */
+public enum ChunkSource {
+    SLIDE,  // lecture_chunk (PDF 페이지)
+    AUDIO   // audio_chunk (STT 구간)
+}
@@ -0,0 +1,8 @@
+package com.rag.lecturelens.domain;
+
+public enum JobStatus {
+    PENDING,
+    RUNNING,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,14 @@
+package com.rag.lecturelens.domain;
+
+/**
+ * 강의 처리 파이프라인 단계 (선언 순서 = 실행 순서)
+ */
+public enum PipelineStage {
+    UPLOAD,        // 원본 S3 업로드 (업로드 요청에서 완료)
+    CONVERT,       // 처리용 파일 준비 (ConvertService: 현재는 원본 복사)
+    PDF_CHUNK,     // PDF 텍스트 추출 + 임베딩 → lecture_chunk
+    TRANSCRIBE,    // 오디오 STT → transcript S3 저장
+    AUDIO_CHUNK,   // transcript 분할 + 임베딩 → audio_chunk
+    SUMMARIZE,     // LLM 요약 → summary S3 저장
+    RENDER         // 요약 PDF 생성 + S3 업로드
+}
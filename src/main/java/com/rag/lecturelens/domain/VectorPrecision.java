@@ -0,0 +1,58 @@
+package com.rag.lecturelens.domain;
+
+/**
+ * 후보 검색에 쓰는 벡터 정밀도 (압축 / 차원 축소 후보는 원본 float32 로 재정렬)
+ * - 테이블에는 원본 vector 만 저장하고, 압축 표현은 expression 인덱스에만 둔다
+ *   → 버퍼 캐시를 차지하는 ANN 인덱스가 halfvec 은 1/2, binary 는 1/32 크기
+ */
+public enum VectorPrecision {
+    FULL,       // float32 (vector) - 재정렬 없음 (앞 차원만 쓰는 1차 검색이면 재정렬)
+    HALFVEC,    // float16 (halfvec)
+    BINARY;     // 차원당 1bit (binary_quantize, 해밍 거리) - 후보를 넉넉히 뽑아야 함
+
+    /**
+     * 인덱스 / 후보 정렬에 쓰는 컬럼 식 (인덱스 식과 글자 그대로 같아야 인덱스를 탐)
+     * - embedding 컬럼은 차원 고정이 없으므로(vector) 항상 차원을 붙여서 캐스팅
+     * - prefix 가 0 < prefix < dimensions 이면 앞 prefix 차원만 잘라 L2 정규화 (Matryoshka 1차 검색, pgvector 0.7+)
+     */
+    public String columnExpression(int dimensions, int prefix) {
+        return expression("embedding", dimensions, prefix);
+    }
+
+    public String queryExpression(String param, int dimensions, int prefix) {
+        return expression("cast(" + param + " as vector)", dimensions, prefix);
+    }
+
+    public String distanceOperator() {
+        return this == BINARY ? "<~>" : "<->";
+    }
+
+    public String operatorClass() {
+        return switch (this) {
+            case FULL -> "vector_l2_ops";
+            case HALFVEC -> "halfvec_l2_ops";
+            case BINARY -> "bit_hamming_ops";
+        };
+    }
+
+    public String orderBy(String param, int dimensions, int prefix) {
+        return columnExpression(dimensions, prefix) + " " + distanceOperator() + " " + queryExpression(param, dimensions, prefix);
+    }
+
+    public static boolean isTruncated(int dimensions, int prefix) {
+        return prefix > 0 && prefix < dimensions;
+    }
+
+    private String expression(String vector, int dimensions, int prefix) {
+        int dims = dimensions;
+        if (isTruncated(dimensions, prefix)) {
+            vector = "l2_normalize(subvector(" + vector + ", 1, " + prefix + "))";
+            dims = prefix;
+        }
+        return switch (this) {
+            case FULL -> "(" + vector + "::vector(" + dims + "))";
+            case HALFVEC -> "(" + vector + "::halfvec(" + dims + "))";
+            case BINARY -> "(binary_quantize(" + vector + ")::bit(" + dims + "))";
+        };
+    }
+}
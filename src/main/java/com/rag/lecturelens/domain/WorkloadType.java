@@ -0,0 +1,19 @@
+package com.rag.lecturelens.domain;
+
+/**
+ * 파이프라인 실행 레인 (레인마다 별도 스레드/허용량 예산)
+ */
+public enum WorkloadType {
+    JOB,        // 강의 처리 작업 자체 (LectureService.processLectureAsync)
+    BACKGROUND, // 그 밖의 @Async 작업 (기동 후 인덱스 보장 등)
+    BRANCH,     // 강의 안의 병렬 분기 (PDF 분기 / 오디오 분기) - 하위 레인 결과를 기다리기만 함
+    STORAGE,    // S3 업로드/다운로드/복사
+    STORAGE_PART, // S3 멀티파트 업로드의 파트 전송 (STORAGE 작업 안에서 호출)
+    CONVERT,    // 문서/오디오 변환, PDF 텍스트 추출 (CPU)
+    STT,        // Whisper STT 요청 (오래 블로킹)
+    EMBEDDING,  // 임베딩 요청
+    LLM,        // 요약 chat completion
+    RETRIEVAL,  // 청크 검색 (벡터 / 텍스트 검색을 동시에 실행)
+    ASK,        // 강의 질의응답 스트리밍 (사용자가 기다리는 요청 → 요약 LLM 레인과 분리)
+    RENDER      // 요약 PDF 렌더링 (CPU)
+}
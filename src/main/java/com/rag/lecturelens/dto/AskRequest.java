@@ -0,0 +1,5 @@
+package com.rag.lecturelens.dto;
+
+public record AskRequest(
+        String question
+) {}
@@ -0,0 +1,19 @@
+package com.rag.lecturelens.dto;
+
+import com.rag.lecturelens.domain.ChunkSource;
+
+/**
+ * 질의응답 근거 청크 (SSE "sources" 이벤트)
+ */
+public record AskSource(
+        ChunkSource source,
+        Long chunkId,
+        Integer slideNo,
+        Integer startSec,
+        Integer endSec
+) {
+
+    public static AskSource of(RetrievedChunk c) {
+        return new AskSource(c.source(), c.id(), c.slideNo(), c.startSec(), c.endSec());
+    }
+}
@@ -5,10 +5,26 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
+import java.io.InputStream;
+
+/**
+ * 스트리밍 다운로드 1건
+ * - body 는 S3 응답 스트림 (호출 측에서 다 읽고 닫아야 함)
+ * - partial 이면 [rangeStart, rangeEnd] 구간만 들어있음 (206)
+ */
 @Data
 @AllArgsConstructor
 @Builder
 public class DownloadFile {
     String fileName;
-    byte[] fileBytes;
+    String contentType;
+    long totalLength;
+    long rangeStart;
+    long rangeEnd;
+    boolean partial;
+    InputStream body;
+
+    public long getContentLength() {
+        return rangeEnd - rangeStart + 1;
+    }
 }
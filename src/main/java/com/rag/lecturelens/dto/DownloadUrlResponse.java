@@ -0,0 +1,9 @@
+package com.rag.lecturelens.dto;
+
+import java.time.OffsetDateTime;
+
+public record DownloadUrlResponse(
+        String fileName,
+        String url,
+        OffsetDateTime expiresAt
+) {}
@@ -0,0 +1,19 @@
+package com.rag.lecturelens.dto;
+
+import com.rag.lecturelens.domain.ChunkSource;
+
+/**
+ * 사용자 전체 강의 검색 결과 1건
+ * - slideNo 는 SLIDE, startSec / endSec 는 AUDIO 에만 있음 (슬라이드 청크도 매칭된 구간이 있으면 채워짐)
+ */
+public record LibrarySearchResult(
+        Long lectureId,
+        String lectureTitle,
+        ChunkSource source,
+        Long chunkId,
+        Integer slideNo,
+        Integer startSec,
+        Integer endSec,
+        String text,
+        double score
+) {}
@@ -0,0 +1,42 @@
+package com.rag.lecturelens.dto;
+
+import com.rag.lecturelens.domain.ChunkSource;
+import com.rag.lecturelens.entity.AudioChunk;
+import com.rag.lecturelens.entity.LectureChunk;
+
+/**
+ * 검색 결과 청크 1개 (슬라이드 / 음성 공통)
+ * - slideNo 는 SLIDE, startSec / endSec 는 AUDIO 에만 있음
+ * - score: 검색 방식별 점수 (하이브리드 검색이면 RRF 점수, 클수록 관련도 높음)
+ */
+public record RetrievedChunk(
+        ChunkSource source,
+        Long id,
+        Long lectureId,
+        String text,
+        Integer slideNo,
+        Integer startSec,
+        Integer endSec,
+        float[] embedding,
+        double score
+) {
+
+    public static RetrievedChunk of(LectureChunk c) {
+        return new RetrievedChunk(ChunkSource.SLIDE, c.getId(), c.getLecture().getId(), c.getText(),
+                c.getSlideNo(), c.getStartSec(), c.getEndSec(), c.getEmbedding(), 0);
+    }
+
+    public static RetrievedChunk of(AudioChunk c) {
+        return new RetrievedChunk(ChunkSource.AUDIO, c.getId(), c.getLecture().getId(), c.getText(),
+                null, c.getStartSec(), c.getEndSec(), c.getEmbedding(), 0);
+    }
+
+    public RetrievedChunk withScore(double score) {
+        return new RetrievedChunk(source, id, lectureId, text, slideNo, startSec, endSec, embedding, score);
+    }
+
+    /** 소스 간에 겹치지 않는 key (예: SLIDE:12) */
+    public String key() {
+        return source + ":" + id;
+    }
+}
@@ -0,0 +1,10 @@
+package com.rag.lecturelens.dto;
+
+/**
+ * S3에 올라간 업로드 파일 1개 (key + 업로드 중 계산한 SHA-256)
+ */
+public record StoredObject(
+        String key,
+        String contentHash,
+        long size
+) {}
@@ -0,0 +1,69 @@
+package com.rag.lecturelens.dto;
+
+import com.rag.lecturelens.domain.VectorPrecision;
+
+import java.time.Duration;
+
+/**
+ * 청크 벡터 검색 옵션
+ * - lectureId / userId      : 필터 (null 이면 조건 없음)
+ * - efSearch / probes       : 이번 호출에만 적용할 HNSW ef_search / IVFFlat probes (null 이면 설정 기본값)
+ * - exact                   : 인덱스를 타지 않는 정확 검색 (recall 측정용)
+ * - precision               : 후보 검색 정밀도 (null 이면 app.vector.precision)
+ * - candidateMultiplier     : 재정렬이 필요한 검색일 때 topN × 배수만큼 후보를 뽑아 원본 벡터로 재정렬 (null 이면 설정 기본값)
+ * - firstPassDimensions     : 앞 N 차원만으로 1차 후보 검색 후 전체 차원으로 재정렬 (null 이면 설정 기본값, 0 = 사용 안 함)
+ * - timeout                 : 이번 검색의 statement_timeout (null 이면 DB 설정 그대로)
+ */
+public record VectorSearchOptions(
+        Long lectureId,
+        String userId,
+        int topN,
+        Integer efSearch,
+        Integer probes,
+        boolean exact,
+        VectorPrecision precision,
+        Integer candidateMultiplier,
+        Integer firstPassDimensions,
+        Duration timeout
+) {
+
+    public static VectorSearchOptions ofLecture(Long lectureId, int topN) {
+        return new VectorSearchOptions(lectureId, null, topN, null, null, false, null, null, null, null);
+    }
+
+    public static VectorSearchOptions ofUser(String userId, int topN) {
+        return new VectorSearchOptions(null, userId, topN, null, null, false, null, null, null, null);
+    }
+
+    public static VectorSearchOptions global(int topN) {
+        return new VectorSearchOptions(null, null, topN, null, null, false, null, null, null, null);
+    }
+
+    public VectorSearchOptions withEfSearch(int efSearch) {
+        return new VectorSearchOptions(lectureId, userId, topN, efSearch, probes, exact, precision, candidateMultiplier, firstPassDimensions, timeout);
+    }
+
+    public VectorSearchOptions withProbes(int probes) {
+        return new VectorSearchOptions(lectureId, userId, topN, efSearch, probes, exact, precision, candidateMultiplier, firstPassDimensions, timeout);
+    }
+
+    public VectorSearchOptions withPrecision(VectorPrecision precision) {
+        return new VectorSearchOptions(lectureId, userId, topN, efSearch, probes, exact, precision, candidateMultiplier, firstPassDimensions, timeout);
+    }
+
+    public VectorSearchOptions withCandidateMultiplier(int candidateMultiplier) {
+        return new VectorSearchOptions(lectureId, userId, topN, efSearch, probes, exact, precision, candidateMultiplier, firstPassDimensions, timeout);
+    }
+
+    public VectorSearchOptions withFirstPassDimensions(int firstPassDimensions) {
+        return new VectorSearchOptions(lectureId, userId, topN, efSearch, probes, exact, precision, candidateMultiplier, firstPassDimensions, timeout);
+    }
+
+    public VectorSearchOptions withTimeout(Duration timeout) {
+        return new VectorSearchOptions(lectureId, userId, topN, efSearch, probes, exact, precision, candidateMultiplier, firstPassDimensions, timeout);
+    }
+
+    public VectorSearchOptions asExact() {
+        return new VectorSearchOptions(lectureId, userId, topN, efSearch, probes, true, precision, candidateMultiplier, firstPassDimensions, timeout);
+    }
+}
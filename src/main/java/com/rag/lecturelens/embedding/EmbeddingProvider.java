@@ -0,0 +1,24 @@
+package com.rag.lecturelens.embedding;
+
+import java.util.List;
+
+/**
+ * 임베딩 모델 SPI (app.embedding.provider 로 하나만 활성화)
+ * - openai : OpenAI /embeddings (기본)
+ * - local  : JVM 안에서 ONNX 문장 임베딩 모델 실행 (오프라인 / CI)
+ *
+ * 캐시 / 중복 제거 / 입력 정규화는 EmbeddingService 가 하고, provider 는 받은 텍스트를 그대로 벡터로 바꾼다.
+ */
+public interface EmbeddingProvider {
+
+    /** 캐시 key 와 저장 메타데이터에 쓰는 모델 식별자 */
+    String modelId();
+
+    /** 출력 벡터 차원 */
+    int dimensions();
+
+    /**
+     * 텍스트 목록 → 벡터 목록 (입력 순서 그대로). 배치 분할 / 동시 실행은 provider 가 알아서
+     */
+    List<float[]> embed(List<String> texts);
+}
@@ -0,0 +1,201 @@
+package com.rag.lecturelens.embedding;
+
+import ai.djl.huggingface.tokenizers.Encoding;
+import ai.djl.huggingface.tokenizers.HuggingFaceTokenizer;
+import ai.onnxruntime.*;
+import com.rag.lecturelens.domain.WorkloadType;
+import com.rag.lecturelens.executor.PipelineExecutors;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.Callable;
+
+/**
+ * JVM 안에서 도는 문장 임베딩 provider (ONNX Runtime, CPU)
+ * - 오프라인 / CI 에서 외부 호출 없이 파이프라인을 돌리기 위함
+ * - 모델: sentence-transformers 계열 ONNX export (예: all-MiniLM-L6-v2 → 384차원)
+ *   app.embedding.local.model-path (model.onnx), app.embedding.local.tokenizer-path (tokenizer.json)
+ * - batch-size 단위로 패딩해서 한 번에 추론, 배치들은 EMBEDDING 레인에서 병렬 실행
+ * - 출력: attention mask 기준 mean pooling + L2 정규화 (이미 pooling 된 2차원 출력이면 그대로)
+ * - app.embedding.dimensions 가 모델 출력보다 작으면 앞쪽 차원만 남기고 다시 정규화 (Matryoshka 학습 모델용)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.embedding.provider", havingValue = "local")
+public class LocalOnnxEmbeddingProvider implements EmbeddingProvider {
+
+    private final PipelineExecutors pipelineExecutors;
+
+    @Value("${app.embedding.local.model-id:all-MiniLM-L6-v2}")
+    private String modelId;
+
+    @Value("${app.embedding.local.model-path}")
+    private Path modelPath;
+
+    @Value("${app.embedding.local.tokenizer-path}")
+    private Path tokenizerPath;
+
+    @Value("${app.embedding.local.batch-size:32}")
+    private int batchSize;
+
+    @Value("${app.embedding.local.max-length:256}")
+    private int maxLength;
+
+    /** 세션 1건의 intra-op 스레드 수 (배치는 여러 개가 동시에 돌므로 작게) */
+    @Value("${app.embedding.local.intra-op-threads:2}")
+    private int intraOpThreads;
+
+    /** 0 = 모델 출력 차원 그대로 */
+    @Value("${app.embedding.dimensions:0}")
+    private int targetDimensions;
+
+    private OrtEnvironment environment;
+    private OrtSession session;
+    private HuggingFaceTokenizer tokenizer;
+    private int hiddenSize;
+    private int dimensions;
+
+    @PostConstruct
+    void load() throws OrtException, IOException {
+        environment = OrtEnvironment.getEnvironment();
+        try (OrtSession.SessionOptions options = new OrtSession.SessionOptions()) {
+            options.setIntraOpNumThreads(intraOpThreads);
+            options.setOptimizationLevel(OrtSession.SessionOptions.OptLevel.ALL_OPT);
+            session = environment.createSession(modelPath.toString(), options);
+        }
+        tokenizer = HuggingFaceTokenizer.newInstance(tokenizerPath, Map.of(
+                "padding", "true",
+                "truncation", "true",
+                "maxLength", String.valueOf(maxLength)
+        ));
+
+        // 출력 shape 의 마지막 축 = hidden size
+        NodeInfo output = session.getOutputInfo().values().iterator().next();
+        long[] shape = ((TensorInfo) output.getInfo()).getShape();
+        hiddenSize = (int) shape[shape.length - 1];
+        if (targetDimensions > hiddenSize) {
+            throw new IllegalStateException("app.embedding.dimensions 가 모델 출력보다 큼: " + targetDimensions + " > " + hiddenSize);
+        }
+        dimensions = targetDimensions > 0 ? targetDimensions : hiddenSize;
+
+        log.info("🧠 로컬 임베딩 모델 로드: model={}, dims={} (hidden={}), inputs={}",
+                modelId, dimensions, hiddenSize, session.getInputNames());
+    }
+
+    @PreDestroy
+    void close() throws OrtException {
+        if (session != null) {
+            session.close();
+        }
+        if (tokenizer != null) {
+            tokenizer.close();
+        }
+    }
+
+    @Override
+    public String modelId() {
+        return modelId;
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    @Override
+    public List<float[]> embed(List<String> texts) {
+        List<Callable<List<float[]>>> batches = new ArrayList<>();
+        for (int from = 0; from < texts.size(); from += batchSize) {
+            List<String> batch = texts.subList(from, Math.min(from + batchSize, texts.size()));
+            batches.add(() -> infer(batch));
+        }
+
+        List<float[]> result = new ArrayList<>(texts.size());
+        pipelineExecutors.invokeAll(WorkloadType.EMBEDDING, batches).forEach(result::addAll);
+        return result;
+    }
+
+    /* ----- 내부 유틸 ----- */
+
+    private List<float[]> infer(List<String> batch) throws OrtException {
+        Encoding[] encodings = tokenizer.batchEncode(batch);
+        int rows = encodings.length;
+        int length = encodings[0].getIds().length;   // padding=true → 배치 안에서 길이 동일
+
+        long[][] ids = new long[rows][];
+        long[][] mask = new long[rows][];
+        long[][] types = new long[rows][];
+        for (int r = 0; r < rows; r++) {
+            ids[r] = encodings[r].getIds();
+            mask[r] = encodings[r].getAttentionMask();
+            types[r] = encodings[r].getTypeIds();
+        }
+
+        Map<String, OnnxTensor> inputs = new HashMap<>();
+        try {
+            inputs.put("input_ids", OnnxTensor.createTensor(environment, ids));
+            inputs.put("attention_mask", OnnxTensor.createTensor(environment, mask));
+            if (session.getInputNames().contains("token_type_ids")) {
+                inputs.put("token_type_ids", OnnxTensor.createTensor(environment, types));
+            }
+
+            try (OrtSession.Result output = session.run(inputs)) {
+                Object value = output.get(0).getValue();
+                List<float[]> vectors = new ArrayList<>(rows);
+                for (int r = 0; r < rows; r++) {
+                    float[] vector = value instanceof float[][][] tokens
+                            ? meanPool(tokens[r], mask[r], length)
+                            : ((float[][]) value)[r].clone();
+                    vectors.add(normalize(vector.length > dimensions ? Arrays.copyOf(vector, dimensions) : vector));
+                }
+                return vectors;
+            }
+        } finally {
+            inputs.values().forEach(OnnxTensor::close);
+        }
+    }
+
+    private float[] meanPool(float[][] tokens, long[] mask, int length) {
+        float[] pooled = new float[hiddenSize];
+        int count = 0;
+        for (int t = 0; t < length; t++) {
+            if (mask[t] == 0) {
+                continue;
+            }
+            float[] token = tokens[t];
+            for (int d = 0; d < hiddenSize; d++) {
+                pooled[d] += token[d];
+            }
+            count++;
+        }
+        if (count > 0) {
+            for (int d = 0; d < hiddenSize; d++) {
+                pooled[d] /= count;
+            }
+        }
+        return pooled;
+    }
+
+    private float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        if (norm > 0) {
+            float inv = (float) (1.0 / Math.sqrt(norm));
+            for (int d = 0; d < vector.length; d++) {
+                vector[d] *= inv;
+            }
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,165 @@
+package com.rag.lecturelens.embedding;
+
+import com.rag.lecturelens.domain.WorkloadType;
+import com.rag.lecturelens.executor.PipelineExecutors;
+import com.rag.lecturelens.openai.EmbeddingResponseDecoder;
+import com.rag.lecturelens.openai.OpenAiApiException;
+import com.rag.lecturelens.openai.OpenAiClient;
+import com.rag.lecturelens.openai.OpenAiCost;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JsonParser;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * OpenAI /embeddings provider
+ * - 토큰 수 / 개수 기준으로 배치를 나눠 요청 1건에 여러 입력을 담는다
+ * - 배치는 EMBEDDING 레인에서 최대 max-in-flight 개까지 동시에 전송
+ * - app.embedding.dimensions 로 출력 차원을 줄일 수 있음 (API dimensions 파라미터, 1 ~ 1536)
+ *   text-embedding-3 계열은 Matryoshka 학습이라 잘라낸 앞쪽 차원만으로도 의미가 유지됨
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.embedding.provider", havingValue = "openai", matchIfMissing = true)
+public class OpenAiEmbeddingProvider implements EmbeddingProvider {
+
+    private static final String MODEL = "text-embedding-3-small";
+    private static final int MAX_DIMENSIONS = 1536;
+
+    @Value("${app.embedding.dimensions:1536}")
+    private int dimensions;
+
+    /** 요청 1건에 넣을 입력 토큰 합 상한 (API 한도 300k 보다 넉넉히 작게) */
+    @Value("${app.embedding.batch.max-tokens:50000}")
+    private int maxTokensPerBatch;
+
+    /** 요청 1건에 넣을 입력 개수 상한 (API 한도 2048) */
+    @Value("${app.embedding.batch.max-inputs:256}")
+    private int maxInputsPerBatch;
+
+    /** embed 1회 호출이 동시에 보내는 배치 요청 수 */
+    @Value("${app.embedding.batch.max-in-flight:4}")
+    private int maxBatchesInFlight;
+
+    private final PipelineExecutors pipelineExecutors;
+    private final OpenAiClient openAiClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @PostConstruct
+    void validate() {
+        if (dimensions < 1 || dimensions > MAX_DIMENSIONS) {
+            throw new IllegalStateException("app.embedding.dimensions 범위 밖: " + dimensions + " (1 ~ " + MAX_DIMENSIONS + ")");
+        }
+    }
+
+    @Override
+    public String modelId() {
+        return MODEL;
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    @Override
+    public List<float[]> embed(List<String> texts) {
+        List<int[]> batches = splitBatches(texts);   // {from, to}
+        float[][] result = new float[texts.size()][];
+
+        Semaphore inFlight = new Semaphore(maxBatchesInFlight);
+        List<Future<float[][]>> futures = new ArrayList<>();
+        try {
+            for (int[] batch : batches) {
+                inFlight.acquire();
+                List<String> inputs = texts.subList(batch[0], batch[1]);
+                futures.add(pipelineExecutors.submit(WorkloadType.EMBEDDING, () -> {
+                    try {
+                        return requestEmbeddings(inputs);
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+
+            for (int b = 0; b < batches.size(); b++) {
+                float[][] vectors = futures.get(b).get();
+                System.arraycopy(vectors, 0, result, batches.get(b)[0], vectors.length);
+            }
+
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("임베딩 대기 중 인터럽트", e);
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new RuntimeException("Embedding 생성 오류", e.getCause());
+        }
+
+        log.debug("임베딩 요청: inputs={}, batches={}", texts.size(), batches.size());
+        return Arrays.asList(result);
+    }
+
+    /**
+     * 입력을 [from, to) 구간 배치로 나눔 (토큰 수는 대략 글자수/4 로 추정)
+     */
+    private List<int[]> splitBatches(List<String> texts) {
+        List<int[]> batches = new ArrayList<>();
+        int from = 0;
+        int tokens = 0;
+        for (int i = 0; i < texts.size(); i++) {
+            int estimated = estimateTokens(texts.get(i));
+            boolean full = i > from && (tokens + estimated > maxTokensPerBatch || i - from >= maxInputsPerBatch);
+            if (full) {
+                batches.add(new int[]{from, i});
+                from = i;
+                tokens = 0;
+            }
+            tokens += estimated;
+        }
+        batches.add(new int[]{from, texts.size()});
+        return batches;
+    }
+
+    private int estimateTokens(String text) {
+        return text == null ? 1 : Math.max(1, text.length() / 4);
+    }
+
+    private float[][] requestEmbeddings(List<String> inputs) {
+        try {
+            String body = """
+            {
+              "model": "%s",
+              "dimensions": %d,
+              "input": %s
+            }
+            """.formatted(MODEL, dimensions, objectMapper.writeValueAsString(inputs));
+
+            // 응답을 String / JsonNode 로 만들지 않고 스트림에서 float[] 로 바로 디코딩
+            int tokens = inputs.stream().mapToInt(this::estimateTokens).sum();
+            return openAiClient.postJson("/embeddings", OpenAiCost.of(MODEL, tokens), body, in -> {
+                try (JsonParser parser = objectMapper.createParser(in)) {
+                    return EmbeddingResponseDecoder.decode(parser, inputs.size(), dimensions());
+                }
+            });
+
+        } catch (OpenAiApiException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Embedding 생성 오류", e);
+        }
+    }
+}
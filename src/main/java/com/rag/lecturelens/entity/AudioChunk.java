@@ -1,7 +1,9 @@
 package com.rag.lecturelens.entity;
 
+import com.rag.lecturelens.entity.type.PgVectorType;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Type;
 
 @Entity
 @Table(name = "audio_chunk")
@@ -39,11 +41,21 @@ public class AudioChunk {
     @Column(name = "user_id")
     private String userId;
 
+    /** 원본 오디오 내용 해시 (ContentArtifact) - 같은 녹음이 다시 올라오면 이 청크를 복사해서 재사용 */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     /**
-     * (선택) 임베딩 벡터
-     * 지금은 JPA 매핑에서 제외(@Transient)해서 pgvector 에러 방지
-     * 나중에 정말 벡터 DB까지 쓸 때 다시 매핑하면 됨
+     * 임베딩 벡터 (DB: vector, 차원 고정 없음 / PgVectorType 으로 float[] 바인딩)
      */
-    @Column(name = "embedding", columnDefinition = "text")
-    private String embedding;
+    @Type(PgVectorType.class)
+    @Column(name = "embedding", columnDefinition = "vector")
+    private float[] embedding;
+
+    /** 임베딩을 만든 모델 / 차원 - 검색은 현재 설정과 같은 행끼리만 비교 */
+    @Column(name = "embedding_model", length = 100)
+    private String embeddingModel;
+
+    @Column(name = "embedding_dims")
+    private Integer embeddingDims;
 }
@@ -0,0 +1,69 @@
+package com.rag.lecturelens.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * 업로드 파일 내용(SHA-256) 기준 산출물 레지스트리
+ * - 같은 바이트가 다시 올라오면 원본 객체 / 변환 결과 / transcript / 청크를 재사용
+ * - refCount: 이 파일을 참조하는 강의 수 (0 이 되면 공유 객체까지 삭제)
+ */
+@Entity
+@Table(name = "content_artifact")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContentArtifact {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "content_hash", nullable = false, unique = true, length = 64)
+    private String contentHash;
+
+    /** 원본 S3 key (처음 올라온 강의의 key 를 공유) */
+    @Column(name = "object_key", nullable = false, columnDefinition = "text")
+    private String objectKey;
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
+    /** 변환 결과 S3 key (pdf / mp4) */
+    @Column(name = "converted_key", columnDefinition = "text")
+    private String convertedKey;
+
+    /** STT 결과 S3 key (오디오 파일만) */
+    @Column(name = "transcript_key", columnDefinition = "text")
+    private String transcriptKey;
+
+    /** 이 파일의 청크(+임베딩)를 가지고 있는 강의 → 새 강의에는 행 복사 */
+    @Column(name = "chunk_lecture_id")
+    private Long chunkLectureId;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    @PrePersist
+    public void onCreate() {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        this.createdAt = now;
+        this.updatedAt = now;
+    }
+
+    @PreUpdate
+    public void onUpdate() {
+        this.updatedAt = OffsetDateTime.now(ZoneOffset.UTC);
+    }
+}
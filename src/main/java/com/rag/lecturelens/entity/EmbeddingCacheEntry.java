@@ -0,0 +1,43 @@
+package com.rag.lecturelens.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * 임베딩 캐시 (2차, Postgres)
+ * - cache_key = sha256(model | dimensions | 정규화된 텍스트)
+ * - vector 는 float32 little-endian 바이트
+ */
+@Entity
+@Table(name = "embedding_cache")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmbeddingCacheEntry {
+
+    @Id
+    @Column(name = "cache_key", length = 64)
+    private String cacheKey;
+
+    @Column(nullable = false, length = 100)
+    private String model;
+
+    @Column(nullable = false)
+    private int dimensions;
+
+    @Column(nullable = false, columnDefinition = "bytea")
+    private byte[] vector;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    @PrePersist
+    public void onCreate() {
+        this.createdAt = OffsetDateTime.now(ZoneOffset.UTC);
+    }
+}
@@ -1,7 +1,10 @@
 package com.rag.lecturelens.entity;
 
+import com.rag.lecturelens.entity.type.PgVectorType;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Type;
+
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 
@@ -39,13 +42,19 @@ public class LectureChunk {
     private Float importanceScore;
 
     /**
-     * 벡터 타입 매핑 (DB: vector(1536))
-     * - JPA에선 일단 String으로 들고 있고
-     * - insert/update는 NativeQuery 또는 JdbcTemplate로 처리해도 됨.
-     *   예: '[0.1, 0.2, ...]' 형태의 문자열을 vector로 캐스팅.
+     * 벡터 타입 매핑 (DB: vector, 차원 고정 없음 → app.embedding.dimensions 를 따름)
+     * - PgVectorType 으로 float[] 를 그대로 바인딩 (바이너리 전송)
      */
-    @Column(name = "embedding", columnDefinition = "text")
-    private String embedding;
+    @Type(PgVectorType.class)
+    @Column(name = "embedding", columnDefinition = "vector")
+    private float[] embedding;
+
+    /** 임베딩을 만든 모델 / 차원 - 검색은 현재 설정과 같은 행끼리만 비교 */
+    @Column(name = "embedding_model", length = 100)
+    private String embeddingModel;
+
+    @Column(name = "embedding_dims")
+    private Integer embeddingDims;
 
     @Column(name = "created_at", nullable = false)
     private OffsetDateTime createdAt;
@@ -53,6 +62,10 @@ public class LectureChunk {
     @Column(name = "user_id")
     private String userId;
 
+    /** 원본 파일 내용 해시 (ContentArtifact) - 같은 파일이 다시 올라오면 이 청크를 복사해서 재사용 */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @PrePersist
     public void onCreate() {
         this.createdAt = OffsetDateTime.now(ZoneOffset.UTC);
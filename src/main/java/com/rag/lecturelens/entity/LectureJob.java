@@ -0,0 +1,69 @@
+package com.rag.lecturelens.entity;
+
+import com.rag.lecturelens.domain.JobStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * 강의 1건의 처리 작업 (재시작/재시도 시 이 레코드 기준으로 이어서 처리)
+ */
+@Entity
+@Table(name = "lecture_job")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LectureJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "lecture_id", nullable = false, unique = true)
+    private Long lectureId;
+
+    @Column(name = "user_id", nullable = false, length = 100)
+    private String userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private JobStatus status;
+
+    /** 실행 시도 횟수 (claim 될 때마다 +1) */
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", columnDefinition = "text")
+    private String lastError;
+
+    /** 실행 중인 인스턴스 (RUNNING 일 때만 의미 있음) */
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+
+    /** 이 시각까지 갱신이 없으면 주인을 잃은 작업으로 보고 복구 */
+    @Column(name = "lease_until")
+    private OffsetDateTime leaseUntil;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    @PrePersist
+    public void onCreate() {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        this.createdAt = now;
+        this.updatedAt = now;
+        if (this.status == null) this.status = JobStatus.PENDING;
+    }
+
+    @PreUpdate
+    public void onUpdate() {
+        this.updatedAt = OffsetDateTime.now(ZoneOffset.UTC);
+    }
+}
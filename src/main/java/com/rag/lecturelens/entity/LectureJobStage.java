@@ -0,0 +1,55 @@
+package com.rag.lecturelens.entity;
+
+import com.rag.lecturelens.domain.JobStatus;
+import com.rag.lecturelens.domain.PipelineStage;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+/**
+ * 작업의 단계별 체크포인트
+ * - output: 단계 결과물 (S3 key, chunk id, transcript key 등)
+ * - DONE 인 단계는 재실행 시 건너뛰고 output 만 재사용
+ */
+@Entity
+@Table(
+        name = "lecture_job_stage",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"job_id", "stage"})
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LectureJobStage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "job_id", nullable = false)
+    private LectureJob job;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private PipelineStage stage;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private JobStatus status;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "output", columnDefinition = "jsonb")
+    private Map<String, Object> output;
+
+    @Column(name = "started_at")
+    private OffsetDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private OffsetDateTime finishedAt;
+}
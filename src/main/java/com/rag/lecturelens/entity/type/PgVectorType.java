@@ -0,0 +1,111 @@
+package com.rag.lecturelens.entity.type;
+
+import com.pgvector.PGvector;
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.usertype.UserType;
+import org.postgresql.core.BaseConnection;
+import org.postgresql.core.Oid;
+import org.postgresql.util.PGobject;
+
+import java.io.Serializable;
+import java.sql.*;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * float[] ↔ pgvector vector 컬럼 매핑
+ * - 파라미터는 PGvector 객체로 바인딩 (문자열 리터럴 / ::vector 캐스팅 없음)
+ * - 커넥션마다 한 번 vector 타입을 드라이버에 등록 + 바이너리 송수신 OID 로 추가
+ *   → float4 배열이 그대로 오가고 소수점 텍스트 변환이 없음
+ */
+public class PgVectorType implements UserType<float[]> {
+
+    // 등록을 마친 물리 커넥션 (풀에서 버려지면 같이 사라지도록 weak)
+    private static final Set<BaseConnection> REGISTERED =
+            Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    @Override
+    public int getSqlType() {
+        return Types.OTHER;
+    }
+
+    @Override
+    public Class<float[]> returnedClass() {
+        return float[].class;
+    }
+
+    @Override
+    public boolean equals(float[] x, float[] y) {
+        return Arrays.equals(x, y);
+    }
+
+    @Override
+    public int hashCode(float[] x) {
+        return Arrays.hashCode(x);
+    }
+
+    @Override
+    public float[] nullSafeGet(ResultSet rs, int position, WrapperOptions options) throws SQLException {
+        Object value = rs.getObject(position);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof PGvector vector) {
+            return vector.toArray();
+        }
+        // 아직 타입 등록 전인 커넥션 → 텍스트 표현으로 받은 경우
+        register(rs.getStatement().getConnection());
+        PGvector vector = new PGvector();
+        vector.setValue(value instanceof PGobject pg ? pg.getValue() : value.toString());
+        return vector.toArray();
+    }
+
+    @Override
+    public void nullSafeSet(PreparedStatement st, float[] value, int position, WrapperOptions options) throws SQLException {
+        if (value == null) {
+            st.setNull(position, Types.OTHER);
+            return;
+        }
+        register(st.getConnection());
+        st.setObject(position, new PGvector(value));
+    }
+
+    @Override
+    public float[] deepCopy(float[] value) {
+        return value == null ? null : value.clone();
+    }
+
+    @Override
+    public boolean isMutable() {
+        return true;
+    }
+
+    @Override
+    public Serializable disassemble(float[] value) {
+        return deepCopy(value);
+    }
+
+    @Override
+    public float[] assemble(Serializable cached, Object owner) {
+        return deepCopy((float[]) cached);
+    }
+
+    /**
+     * vector 타입 등록 + 바이너리 전송 활성화 (물리 커넥션당 1회)
+     */
+    public static void register(Connection connection) throws SQLException {
+        BaseConnection pg = connection.unwrap(BaseConnection.class);
+        if (REGISTERED.contains(pg)) {
+            return;
+        }
+        pg.addDataType("vector", PGvector.class);
+        int oid = pg.getTypeInfo().getPGType("vector");
+        if (oid != Oid.UNSPECIFIED) {
+            pg.getQueryExecutor().addBinarySendOid(oid);
+            pg.getQueryExecutor().addBinaryReceiveOid(oid);
+        }
+        REGISTERED.add(pg);
+    }
+}
@@ -1,5 +1,6 @@
 package com.rag.lecturelens.exceptionHandler;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -22,6 +23,13 @@ public class GlobalExceptionHandler {
                 ));
     }
 
+    @ExceptionHandler(RangeNotSatisfiableException.class)
+    public ResponseEntity<String> handleRangeNotSatisfiable(RangeNotSatisfiableException e) {
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .header(HttpHeaders.CONTENT_RANGE, "bytes */" + e.getTotalLength())
+                .body(e.getMessage());
+    }
+
     @ExceptionHandler(UsageLimitExceededException.class)
     public ResponseEntity<String> handleUsageLimit(UsageLimitExceededException e) {
         return ResponseEntity.status(429).body(e.getMessage());
@@ -0,0 +1,15 @@
+package com.rag.lecturelens.exceptionHandler;
+
+public class RangeNotSatisfiableException extends RuntimeException {
+
+    private final long totalLength;
+
+    public RangeNotSatisfiableException(String message, long totalLength) {
+        super(message);
+        this.totalLength = totalLength;
+    }
+
+    public long getTotalLength() {
+        return totalLength;
+    }
+}
@@ -0,0 +1,169 @@
+package com.rag.lecturelens.executor;
+
+import com.rag.lecturelens.domain.WorkloadType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * 단계별 실행 레인 모음
+ * - 설정: app.executor.{lane}.threads / app.executor.{lane}.queue-capacity
+ * - app.executor.virtual-threads=true 이면 모든 레인(강의 작업 포함)을 가상 스레드로 실행
+ *   (threads = 동시 실행 수, threads + queue-capacity = 허용량으로 platform 모드와 같은 의미)
+ * - 메트릭: lecturelens.executor.active / queued / waiting (tag: stage)
+ */
+@Slf4j
+@Component
+public class PipelineExecutors {
+
+    // 레인별 기본값 {threads, queueCapacity}
+    private static final Map<WorkloadType, int[]> DEFAULTS = Map.ofEntries(
+            Map.entry(WorkloadType.JOB,          new int[]{4, 16}),
+            Map.entry(WorkloadType.BACKGROUND,   new int[]{2, 8}),
+            Map.entry(WorkloadType.BRANCH,       new int[]{8, 32}),
+            Map.entry(WorkloadType.STORAGE,      new int[]{8, 32}),
+            Map.entry(WorkloadType.STORAGE_PART, new int[]{8, 16}),
+            Map.entry(WorkloadType.CONVERT,      new int[]{2, 8}),
+            Map.entry(WorkloadType.STT,          new int[]{4, 8}),
+            Map.entry(WorkloadType.EMBEDDING,    new int[]{8, 32}),
+            Map.entry(WorkloadType.LLM,          new int[]{4, 8}),
+            Map.entry(WorkloadType.RETRIEVAL,    new int[]{8, 32}),
+            Map.entry(WorkloadType.ASK,          new int[]{16, 32}),
+            Map.entry(WorkloadType.RENDER,       new int[]{2, 4})
+    );
+
+    private final Map<WorkloadType, StageExecutor> lanes = new EnumMap<>(WorkloadType.class);
+
+    private final boolean virtualThreads;
+
+    public PipelineExecutors(Environment env, MeterRegistry meterRegistry) {
+        this.virtualThreads = env.getProperty("app.executor.virtual-threads", Boolean.class, false);
+
+        for (WorkloadType type : WorkloadType.values()) {
+            String prefix = "app.executor." + type.name().toLowerCase() + ".";
+            int threads = env.getProperty(prefix + "threads", Integer.class, DEFAULTS.get(type)[0]);
+            int queueCapacity = env.getProperty(prefix + "queue-capacity", Integer.class, DEFAULTS.get(type)[1]);
+
+            StageExecutor lane = new StageExecutor(type, threads, queueCapacity, virtualThreads);
+            lanes.put(type, lane);
+            registerMetrics(lane, meterRegistry);
+
+            log.info("⚙ 실행 레인 초기화: stage={}, threads={}, queueCapacity={}, virtual={}",
+                    type, threads, queueCapacity, virtualThreads);
+        }
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public StageExecutor lane(WorkloadType type) {
+        return lanes.get(type);
+    }
+
+    /**
+     * 해당 레인에서 실행하고 결과까지 기다림
+     */
+    public <T> T call(WorkloadType type, Callable<T> task) {
+        return lanes.get(type).call(task);
+    }
+
+    public void run(WorkloadType type, Runnable task) {
+        lanes.get(type).call(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public <T> Future<T> submit(WorkloadType type, Callable<T> task) {
+        return lanes.get(type).submit(task);
+    }
+
+    /**
+     * 여러 작업을 같은 레인에서 동시에 실행하고 모두 끝날 때까지 기다림
+     * - 결과는 입력 순서대로 반환
+     * - 끝나는 순서대로 확인해서 하나라도 실패하면 나머지는 바로 취소(interrupt)하고 그 예외를 던짐
+     */
+    public <T> List<T> invokeAll(WorkloadType type, List<? extends Callable<T>> tasks) {
+        int n = tasks.size();
+        if (n == 0) {
+            return List.of();
+        }
+        if (n == 1) {
+            return List.of(call(type, tasks.get(0)));
+        }
+
+        StageExecutor lane = lanes.get(type);
+        BlockingQueue<Integer> completed = new LinkedBlockingQueue<>();
+        List<Future<T>> futures = new ArrayList<>(n);
+        try {
+            for (int i = 0; i < n; i++) {
+                int index = i;
+                Callable<T> task = tasks.get(i);
+                futures.add(lane.submit(() -> {
+                    try {
+                        return task.call();
+                    } finally {
+                        completed.add(index);
+                    }
+                }));
+            }
+
+            List<T> results = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                results.add(null);
+            }
+            for (int done = 0; done < n; done++) {
+                int index = completed.take();
+                results.set(index, futures.get(index).get());
+            }
+            return results;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(type + " 작업 대기 중 인터럽트", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IllegalStateException(type + " 작업 실패", cause);
+        } finally {
+            // 이미 끝난 작업에는 영향 없음
+            futures.forEach(f -> f.cancel(true));
+        }
+    }
+
+    private void registerMetrics(StageExecutor lane, MeterRegistry registry) {
+        String stage = lane.getType().name().toLowerCase();
+        Gauge.builder("lecturelens.executor.active", lane, StageExecutor::getActiveCount)
+                .tag("stage", stage)
+                .description("레인에서 실행 중인 작업 수")
+                .register(registry);
+        Gauge.builder("lecturelens.executor.queued", lane, StageExecutor::getQueueDepth)
+                .tag("stage", stage)
+                .description("레인 큐에서 대기 중인 작업 수")
+                .register(registry);
+        Gauge.builder("lecturelens.executor.waiting", lane, StageExecutor::getWaitingSubmitters)
+                .tag("stage", stage)
+                .description("허용량이 없어 제출을 기다리는 호출 스레드 수")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lanes.values().forEach(StageExecutor::shutdown);
+    }
+}
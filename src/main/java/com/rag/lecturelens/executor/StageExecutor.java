@@ -0,0 +1,173 @@
+package com.rag.lecturelens.executor;
+
+import com.rag.lecturelens.domain.WorkloadType;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 레인 하나 = 스레드 풀 + 허용량(permit) 세마포어
+ * - platform 모드: 고정 크기 스레드 풀 + 유한 큐, 허용량 = threads + queueCapacity
+ * - virtual 모드: 작업마다 가상 스레드, 허용량 = threads + queueCapacity 로 platform 과 같음
+ *   동시 실행은 threads 개까지 (나머지는 가상 스레드가 실행 슬롯을 기다림 = 큐) → OpenAI / S3 동시 요청 수도 platform 과 같음
+ * - submit: 허용량이 없으면 호출 스레드가 기다린다 → 앞 단계로 backpressure 전달
+ * - trySubmit: 허용량이 없으면 바로 false (큐에 쌓지 않음)
+ * ⚠️ 같은 레인 안에서 같은 레인을 다시 호출하면 허용량이 바닥날 때 교착될 수 있으니 금지
+ */
+public class StageExecutor {
+
+    private final WorkloadType type;
+    private final ExecutorService executor;
+    private final ThreadPoolExecutor platformPool;  // virtual 모드면 null
+    private final Semaphore permits;
+    private final Semaphore running;                // virtual 모드의 실행 슬롯 (platform 모드면 null, 풀 크기가 대신함)
+    private final int maxInFlight;
+    private final AtomicInteger active = new AtomicInteger();
+
+    public StageExecutor(WorkloadType type, int threads, int queueCapacity, boolean virtual) {
+        this.type = type;
+        this.maxInFlight = threads + queueCapacity;
+        this.permits = new Semaphore(maxInFlight, true);
+
+        String prefix = "lane-" + type.name().toLowerCase() + "-";
+
+        if (virtual) {
+            // 블로킹 I/O 대기 중에는 캐리어 스레드를 놓아주므로 풀/큐 없이 허용량만으로 제한
+            this.platformPool = null;
+            this.running = new Semaphore(threads, true);
+            this.executor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name(prefix, 1).factory()
+            );
+            return;
+        }
+
+        this.running = null;
+        AtomicInteger seq = new AtomicInteger();
+        this.platformPool = new ThreadPoolExecutor(
+                threads,
+                threads,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, prefix + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.executor = platformPool;
+    }
+
+    /**
+     * 허용량이 생길 때까지 기다렸다가 제출
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(type + " 레인 대기 중 인터럽트", e);
+        }
+        return dispatch(task);
+    }
+
+    /**
+     * 허용량이 없으면 제출하지 않고 false
+     */
+    public boolean trySubmit(Runnable task) {
+        if (!permits.tryAcquire()) {
+            return false;
+        }
+        dispatch(() -> {
+            task.run();
+            return null;
+        });
+        return true;
+    }
+
+    /**
+     * 제출 후 결과까지 기다림 (호출 스레드 입장에서는 동기 호출)
+     */
+    public <T> T call(Callable<T> task) {
+        Future<T> future = submit(task);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(type + " 작업 대기 중 인터럽트", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IllegalStateException(type + " 작업 실패", cause);
+        }
+    }
+
+    private <T> Future<T> dispatch(Callable<T> task) {
+        FutureTask<T> future = new FutureTask<>(() -> {
+            if (running != null) {
+                running.acquire();      // 취소되면 인터럽트로 대기에서 빠짐
+            }
+            active.incrementAndGet();
+            try {
+                return task.call();
+            } finally {
+                active.decrementAndGet();
+                if (running != null) {
+                    running.release();
+                }
+            }
+        }) {
+            @Override
+            protected void done() {
+                // 정상 종료 / 예외 / 취소 모두 여기로 한 번만 들어옴
+                permits.release();
+            }
+        };
+
+        try {
+            executor.execute(future);
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+        return future;
+    }
+
+    /* ----- 모니터링 ----- */
+
+    public WorkloadType getType() {
+        return type;
+    }
+
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    public int getQueueDepth() {
+        // virtual 모드는 실행 슬롯을 기다리는 가상 스레드 수
+        return platformPool == null ? running.getQueueLength() : platformPool.getQueue().size();
+    }
+
+    /** 허용량이 없어 submit 에서 기다리는 호출 스레드 수 (backpressure 가 걸린 정도) */
+    public int getWaitingSubmitters() {
+        return permits.getQueueLength();
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
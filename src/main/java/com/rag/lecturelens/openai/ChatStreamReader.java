@@ -0,0 +1,70 @@
+package com.rag.lecturelens.openai;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * "stream": true 인 /chat/completions 응답(SSE) 리더
+ * - "data: {...}" 줄마다 choices[0].delta.content 를 onDelta 로 바로 넘기고, 끝나면 전체 텍스트 반환
+ * - "data: [DONE]" 에서 종료
+ * - 조각을 하나라도 넘긴 뒤의 연결 오류는 UncheckedIOException → OpenAiClient 가 재시도하지 않음 (재시도하면 앞부분이 중복됨)
+ * - cancelled 가 true 가 되면 CancellationException 으로 중단 (스트림을 닫으면 연결도 끊김)
+ */
+public final class ChatStreamReader implements OpenAiClient.BodyReader<String> {
+
+    private static final String DATA_PREFIX = "data:";
+
+    private final ObjectMapper objectMapper;
+    private final Consumer<String> onDelta;
+    private final BooleanSupplier cancelled;
+
+    public ChatStreamReader(ObjectMapper objectMapper, Consumer<String> onDelta, BooleanSupplier cancelled) {
+        this.objectMapper = objectMapper;
+        this.onDelta = onDelta;
+        this.cancelled = cancelled;
+    }
+
+    @Override
+    public String read(InputStream body) throws IOException {
+        StringBuilder text = new StringBuilder();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (cancelled.getAsBoolean()) {
+                    throw new CancellationException("chat 스트림 취소");
+                }
+                if (!line.startsWith(DATA_PREFIX)) {
+                    continue;   // 빈 줄 / 주석(:) / event: 등
+                }
+                String data = line.substring(DATA_PREFIX.length()).trim();
+                if ("[DONE]".equals(data)) {
+                    break;
+                }
+                JsonNode choice = objectMapper.readTree(data).path("choices").path(0);
+                JsonNode content = choice.path("delta").path("content");
+                String delta = content.isMissingNode() || content.isNull() ? "" : content.asText();
+                if (!delta.isEmpty()) {
+                    text.append(delta);
+                    onDelta.accept(delta);
+                }
+            }
+        } catch (IOException e) {
+            if (text.isEmpty()) {
+                throw e;
+            }
+            throw new UncheckedIOException("chat 스트림 중간에 연결 끊김", e);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,88 @@
+package com.rag.lecturelens.openai;
+
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+
+import java.util.Arrays;
+
+/**
+ * /embeddings 응답 스트리밍 디코더
+ * - JsonNode 트리를 만들지 않고 토큰 단위로 읽어서 data[i].embedding 을 float[] 에 바로 채움
+ * - 벡터 배열은 dimensions 크기로 미리 잡고, 모자라면 늘림 (보통 한 번도 늘지 않음)
+ * - data[].index 가 입력 위치 (embedding 보다 뒤에 와도 됨)
+ */
+public final class EmbeddingResponseDecoder {
+
+    private EmbeddingResponseDecoder() {
+    }
+
+    /**
+     * @param parser     응답 body 위의 파서 (닫는 건 호출 측)
+     * @param count      요청한 입력 수
+     * @param dimensions 예상 차원 수 (버퍼 크기 힌트)
+     */
+    public static float[][] decode(JsonParser parser, int count, int dimensions) {
+        float[][] vectors = new float[count][];
+
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IllegalStateException("embedding 응답이 JSON 객체가 아님");
+        }
+        while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("data".equals(name) && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    readItem(parser, vectors, dimensions);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            if (vectors[i] == null) {
+                throw new IllegalStateException("embedding 응답에 index=" + i + " 가 없음");
+            }
+        }
+        return vectors;
+    }
+
+    // { "object": "embedding", "index": n, "embedding": [ ... ] }
+    private static void readItem(JsonParser parser, float[][] vectors, int dimensions) {
+        int index = -1;
+        float[] embedding = null;
+
+        while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("index".equals(name)) {
+                index = parser.getIntValue();
+            } else if ("embedding".equals(name) && value == JsonToken.START_ARRAY) {
+                embedding = readVector(parser, dimensions);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (index < 0 || index >= vectors.length || embedding == null) {
+            throw new IllegalStateException("잘못된 embedding 항목: index=" + index);
+        }
+        vectors[index] = embedding;
+    }
+
+    private static float[] readVector(JsonParser parser, int dimensions) {
+        float[] buffer = new float[Math.max(dimensions, 1)];
+        int size = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.VALUE_NUMBER_FLOAT && token != JsonToken.VALUE_NUMBER_INT) {
+                throw new IllegalStateException("embedding 값이 숫자가 아님: " + token);
+            }
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            buffer[size++] = parser.getFloatValue();
+        }
+        return size == buffer.length ? buffer : Arrays.copyOf(buffer, size);
+    }
+}
@@ -0,0 +1,42 @@
+package com.rag.lecturelens.openai;
+
+import java.time.Duration;
+
+/**
+ * OpenAI API 가 2xx 가 아닌 응답을 준 경우 (상태 코드 / 응답 body 그대로 보존)
+ */
+public class OpenAiApiException extends RuntimeException {
+
+    private final int statusCode;
+    private final String responseBody;
+    private final Duration retryAfter;
+
+    public OpenAiApiException(String endpoint, int statusCode, String responseBody) {
+        this(endpoint, statusCode, responseBody, null);
+    }
+
+    public OpenAiApiException(String endpoint, int statusCode, String responseBody, Duration retryAfter) {
+        super("OpenAI API Error [" + endpoint + "] status=" + statusCode + ": " + responseBody);
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+        this.retryAfter = retryAfter;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    /** 응답의 Retry-After (없으면 null) */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /** 잠시 후 다시 보내면 성공할 수 있는 응답 (429 / 5xx) */
+    public boolean isRetryable() {
+        return statusCode == 429 || statusCode == 408 || statusCode >= 500;
+    }
+}
@@ -0,0 +1,313 @@
+package com.rag.lecturelens.openai;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 모든 OpenAI 호출이 공유하는 예산 관리자
+ * - 모델별 토큰 버킷 2개: 분당 요청 수(RPM), 분당 토큰 수(TPM)
+ *   app.openai.limits.{model}.rpm / .tpm (0 = 제한 없음)
+ * - 429 의 Retry-After 는 해당 모델 버킷 전체를 그 시간 동안 멈춤 → 다른 스레드도 같이 기다림
+ * - 재시도: app.openai.retry.max-attempts, 지수 백오프 + full jitter (Retry-After 가 더 길면 그쪽)
+ * - 서킷 브레이커(엔드포인트별): 연속 실패 failure-threshold 회 → open-duration 동안 즉시 거절
+ *   → 호출 측은 OpenAiUnavailableException 을 받고 작업을 PENDING 으로 돌린다
+ */
+@Slf4j
+@Component
+public class OpenAiBudgetManager {
+
+    // 모델별 기본 한도 {rpm, tpm}
+    private static final Map<String, long[]> DEFAULT_LIMITS = Map.of(
+            "text-embedding-3-small", new long[]{3_000, 1_000_000},
+            "gpt-4.1",                new long[]{500, 30_000},
+            "gpt-4.1-mini",           new long[]{500, 200_000},
+            "gpt-4o-mini-transcribe", new long[]{500, 0}
+    );
+    private static final long[] FALLBACK_LIMIT = {500, 0};
+
+    private final Environment env;
+    private final MeterRegistry meterRegistry;
+
+    private final int maxAttempts;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    private final int failureThreshold;
+    private final Duration openDuration;
+
+    private final Map<String, TokenBucket> requestBuckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> tokenBuckets = new ConcurrentHashMap<>();
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public OpenAiBudgetManager(Environment env, MeterRegistry meterRegistry) {
+        this.env = env;
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = env.getProperty("app.openai.retry.max-attempts", Integer.class, 5);
+        this.baseBackoff = env.getProperty("app.openai.retry.base-backoff", Duration.class, Duration.ofMillis(500));
+        this.maxBackoff = env.getProperty("app.openai.retry.max-backoff", Duration.class, Duration.ofSeconds(30));
+        this.failureThreshold = env.getProperty("app.openai.circuit.failure-threshold", Integer.class, 5);
+        this.openDuration = env.getProperty("app.openai.circuit.open-duration", Duration.class, Duration.ofSeconds(60));
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * 요청 전: 서킷 확인 + RPM/TPM 예산 확보 (모자라면 찰 때까지 대기)
+     */
+    public void acquire(String endpoint, OpenAiCost cost) {
+        if (!breaker(endpoint).allowRequest()) {
+            throw new OpenAiUnavailableException("OpenAI 서킷 오픈: " + endpoint);
+        }
+
+        long start = System.nanoTime();
+        requestBucket(cost.model()).take(1);
+        if (cost.tokens() > 0) {
+            tokenBucket(cost.model()).take(cost.tokens());
+        }
+        long waited = System.nanoTime() - start;
+        if (waited > TimeUnit.MILLISECONDS.toNanos(1)) {
+            Timer.builder("lecturelens.openai.throttle.wait")
+                    .tag("model", cost.model())
+                    .description("RPM/TPM 예산을 기다린 시간")
+                    .register(meterRegistry)
+                    .record(waited, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void onSuccess(String endpoint) {
+        breaker(endpoint).recordSuccess();
+    }
+
+    /** 서비스 장애로 볼 수 있는 실패 (5xx / 연결 오류 / 타임아웃). 4xx / 429 는 서버가 살아 있으므로 onSuccess */
+    public void onFailure(String endpoint) {
+        breaker(endpoint).recordFailure();
+    }
+
+    /**
+     * 429 + Retry-After → 그 모델 예산을 그동안 아무도 못 쓰게 멈춤
+     */
+    public void pause(OpenAiCost cost, Duration retryAfter) {
+        if (retryAfter == null || retryAfter.isZero() || retryAfter.isNegative()) {
+            return;
+        }
+        long until = System.nanoTime() + retryAfter.toNanos();
+        requestBucket(cost.model()).blockUntil(until);
+        tokenBucket(cost.model()).blockUntil(until);
+    }
+
+    /**
+     * 재시도 전 대기: min(max-backoff, base × 2^(attempt-1)) 안에서 랜덤 (Retry-After 가 더 길면 그만큼)
+     */
+    public void backoff(String endpoint, int attempt, Duration retryAfter, String reason) {
+        Counter.builder("lecturelens.openai.retries")
+                .tag("endpoint", endpoint)
+                .tag("reason", reason)
+                .description("OpenAI 요청 재시도 수")
+                .register(meterRegistry)
+                .increment();
+
+        long ceiling = Math.min(maxBackoff.toMillis(), baseBackoff.toMillis() << Math.min(attempt - 1, 20));
+        long sleep = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        if (retryAfter != null) {
+            sleep = Math.max(sleep, retryAfter.toMillis());
+        }
+        log.warn("OpenAI 재시도 대기: endpoint={}, attempt={}/{}, reason={}, sleep={}ms",
+                endpoint, attempt, maxAttempts, reason, sleep);
+        try {
+            Thread.sleep(sleep);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("OpenAI 재시도 대기 중 인터럽트", e);
+        }
+    }
+
+    public boolean isOpen(String endpoint) {
+        return breaker(endpoint).state() == CircuitState.OPEN;
+    }
+
+    /* ----- 내부 유틸 ----- */
+
+    private TokenBucket requestBucket(String model) {
+        return requestBuckets.computeIfAbsent(model, m -> new TokenBucket(limit(m, "rpm", 0)));
+    }
+
+    private TokenBucket tokenBucket(String model) {
+        return tokenBuckets.computeIfAbsent(model, m -> new TokenBucket(limit(m, "tpm", 1)));
+    }
+
+    private long limit(String model, String name, int index) {
+        long fallback = DEFAULT_LIMITS.getOrDefault(model, FALLBACK_LIMIT)[index];
+        return env.getProperty("app.openai.limits." + model + "." + name, Long.class, fallback);
+    }
+
+    private CircuitBreaker breaker(String endpoint) {
+        return breakers.computeIfAbsent(endpoint, e -> {
+            CircuitBreaker breaker = new CircuitBreaker(e);
+            Gauge.builder("lecturelens.openai.circuit.open", breaker, b -> b.state() == CircuitState.OPEN ? 1 : 0)
+                    .tag("endpoint", e)
+                    .description("서킷 브레이커 열림 여부 (1 = 요청 거절 중)")
+                    .register(meterRegistry);
+            return breaker;
+        });
+    }
+
+    /**
+     * 분당 한도 토큰 버킷 (용량 = 분당 한도, 연속적으로 채워짐)
+     * - 대기는 lock 밖에서 (가상 스레드 pinning 방지를 위해 synchronized 대신 ReentrantLock)
+     */
+    private static final class TokenBucket {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final double capacity;
+        private final double refillPerNano;
+        private double available;
+        private long lastRefill;
+        private long blockedUntil;
+
+        TokenBucket(long perMinute) {
+            this.capacity = perMinute;
+            this.refillPerNano = perMinute / (double) TimeUnit.MINUTES.toNanos(1);
+            this.available = perMinute;
+            this.lastRefill = System.nanoTime();
+        }
+
+        void take(long amount) {
+            double needed = Math.min(amount, capacity);
+            while (true) {
+                long waitNanos;
+                lock.lock();
+                try {
+                    long now = System.nanoTime();
+                    available = Math.min(capacity, available + (now - lastRefill) * refillPerNano);
+                    lastRefill = now;
+                    if (now < blockedUntil) {
+                        waitNanos = blockedUntil - now;
+                    } else if (capacity <= 0) {
+                        return;     // 제한 없음 (Retry-After 로 멈춘 경우만 대기)
+                    } else if (available >= needed) {
+                        available -= needed;
+                        return;
+                    } else {
+                        waitNanos = (long) Math.ceil((needed - available) / refillPerNano);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                try {
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("OpenAI 예산 대기 중 인터럽트", e);
+                }
+            }
+        }
+
+        void blockUntil(long nanoTime) {
+            lock.lock();
+            try {
+                blockedUntil = Math.max(blockedUntil, nanoTime);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private enum CircuitState { CLOSED, OPEN, HALF_OPEN }
+
+    /**
+     * CLOSED → (연속 실패 threshold) → OPEN → (open-duration 경과) → HALF_OPEN: 시험 요청 1건
+     * → 성공하면 CLOSED, 실패하면 다시 OPEN
+     */
+    private final class CircuitBreaker {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final String endpoint;
+        private CircuitState state = CircuitState.CLOSED;
+        private int consecutiveFailures;
+        private long openedAt;
+        private boolean trialInFlight;
+
+        CircuitBreaker(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        boolean allowRequest() {
+            lock.lock();
+            try {
+                long now = System.nanoTime();
+                boolean elapsed = now - openedAt >= openDuration.toNanos();
+                if (state == CircuitState.OPEN && elapsed) {
+                    state = CircuitState.HALF_OPEN;
+                    trialInFlight = false;
+                }
+                return switch (state) {
+                    case CLOSED -> true;
+                    case OPEN -> false;
+                    case HALF_OPEN -> {
+                        // 시험 요청이 결과 없이 사라진 경우(인터럽트 등)를 위해 open-duration 이 지나면 다시 허용
+                        if (trialInFlight && !elapsed) yield false;
+                        trialInFlight = true;
+                        openedAt = now;
+                        yield true;
+                    }
+                };
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void recordSuccess() {
+            lock.lock();
+            try {
+                if (state != CircuitState.CLOSED) {
+                    log.info("🟢 OpenAI 서킷 닫힘: {}", endpoint);
+                }
+                state = CircuitState.CLOSED;
+                consecutiveFailures = 0;
+                trialInFlight = false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void recordFailure() {
+            lock.lock();
+            try {
+                consecutiveFailures++;
+                if (state == CircuitState.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+                    if (state != CircuitState.OPEN) {
+                        log.warn("🔴 OpenAI 서킷 열림: {} (연속 실패 {}회, {} 동안 요청 거절)",
+                                endpoint, consecutiveFailures, openDuration);
+                    }
+                    state = CircuitState.OPEN;
+                    openedAt = System.nanoTime();
+                    trialInFlight = false;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        CircuitState state() {
+            lock.lock();
+            try {
+                return state;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -2,39 +2,237 @@ package com.rag.lecturelens.openai;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.WebClient;
-import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * OpenAI 공용 전송 계층 (모든 OpenAI 호출은 여기를 거친다)
+ * - JDK HttpClient 하나를 공유 → 연결 재사용, HTTP/2 가능하면 한 연결에 다중화
+ * - 타임아웃: app.openai.connect-timeout / app.openai.read-timeout (엔드포인트별로 덮어쓰기 가능)
+ * - 엔드포인트별 동시 요청 제한: app.openai.endpoints.{chat|chat-ask|embeddings|audio}.max-concurrency
+ *   (chat-ask: 질의응답 전용 키 → 요약 작업이 chat 동시 요청 / 서킷을 다 써도 질의응답은 따로)
+ * - 모델별 RPM/TPM 예산, 재시도, 서킷 브레이커: OpenAiBudgetManager
+ */
 @Slf4j
 @Component
 public class OpenAiClient {
 
-    private final ObjectMapper objectMapper;
-    private final WebClient webClient;
+    private static final String BASE_URL = "https://api.openai.com/v1";
+
+    // 엔드포인트별 기본값 {maxConcurrency, readTimeoutSeconds}
+    private static final Map<String, long[]> DEFAULTS = Map.of(
+            "chat",       new long[]{8, 120},
+            "chat-ask",   new long[]{4, 60},
+            "embeddings", new long[]{16, 60},
+            "audio",      new long[]{4, 600}
+    );
+
+    private final String apiKey;
+    private final Environment env;
+    private final HttpClient httpClient;
+    private final OpenAiBudgetManager budgetManager;
+
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+    private final Map<String, Duration> readTimeouts = new ConcurrentHashMap<>();
 
     public OpenAiClient(
-            ObjectMapper objectMapper,
+            Environment env,
+            OpenAiBudgetManager budgetManager,
             @Value("${openai.api.key}") String apiKey
     ) {
-        this.objectMapper = objectMapper;
-        this.webClient = WebClient.builder()
-                .baseUrl("https://api.openai.com/v1")
-                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
-                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+        this.env = env;
+        this.budgetManager = budgetManager;
+        this.apiKey = apiKey;
+        Duration connectTimeout = env.getProperty("app.openai.connect-timeout", Duration.class, Duration.ofSeconds(5));
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)     // 서버가 지원하지 않으면 HTTP/1.1 로 자동 협상
+                .connectTimeout(connectTimeout)
                 .build();
 
-        log.info("🔑 OpenAI WebClient 초기화 완료. key prefix={}", apiKey.substring(0, 8));
+        log.info("🔑 OpenAI HttpClient 초기화 완료. key prefix={}, connectTimeout={}",
+                apiKey.substring(0, 8), connectTimeout);
+    }
+
+    /**
+     * JSON POST → 응답 body (2xx 가 아니면 OpenAiApiException)
+     */
+    public String postJson(String path, OpenAiCost cost, String jsonBody) {
+        return postJson(path, cost, jsonBody, OpenAiClient::readString);
+    }
+
+    /**
+     * JSON POST → 응답 스트림을 reader 로 바로 읽음 (String 으로 모으지 않음, 큰 응답용)
+     */
+    public <T> T postJson(String path, OpenAiCost cost, String jsonBody, BodyReader<T> reader) {
+        return postJson(path, endpointOf(path), cost, jsonBody, reader);
+    }
+
+    /**
+     * endpoint: 동시 요청 제한 / 서킷 / 타임아웃을 경로와 따로 잡을 키 (예: "chat-ask")
+     */
+    public <T> T postJson(String path, String endpoint, OpenAiCost cost, String jsonBody, BodyReader<T> reader) {
+        return execute(path, endpoint, cost, MediaType.APPLICATION_JSON_VALUE,
+                () -> HttpRequest.BodyPublishers.ofString(jsonBody, StandardCharsets.UTF_8), reader);
+    }
+
+    /**
+     * 임의 body POST (multipart 등) → 응답 body (2xx 가 아니면 OpenAiApiException)
+     * - 재시도마다 body 를 새로 만들 수 있도록 Supplier 로 받음 (스트림 body 는 한 번만 읽을 수 있음)
+     */
+    public String post(String path, OpenAiCost cost, String contentType, Supplier<HttpRequest.BodyPublisher> body) {
+        return execute(path, endpointOf(path), cost, contentType, body, OpenAiClient::readString);
+    }
+
+    /**
+     * 응답 body 읽기 (스트림은 OpenAiClient 가 닫음)
+     */
+    @FunctionalInterface
+    public interface BodyReader<T> {
+        T read(InputStream body) throws IOException;
+    }
+
+    /* ----- 내부 유틸 ----- */
+
+    /**
+     * 예산 확보 → 전송 → 실패 분류 / 재시도
+     * - 429: Retry-After 만큼 모델 예산 정지 후 재시도
+     * - 5xx / 연결 오류 / 타임아웃: 서킷 실패로 기록 후 재시도
+     * - 재시도를 다 쓰면 OpenAiUnavailableException (작업은 실패가 아니라 보류)
+     */
+    private <T> T execute(String path,
+                          String endpoint,
+                          OpenAiCost cost,
+                          String contentType,
+                          Supplier<HttpRequest.BodyPublisher> body,
+                          BodyReader<T> reader) {
+        int maxAttempts = budgetManager.getMaxAttempts();
+
+        for (int attempt = 1; ; attempt++) {
+            budgetManager.acquire(endpoint, cost);
+
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(BASE_URL + path))
+                    .timeout(readTimeout(endpoint))
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
+                    .header(HttpHeaders.CONTENT_TYPE, contentType)
+                    .POST(body.get())
+                    .build();
+
+            RuntimeException failure;
+            Duration retryAfter = null;
+            String reason;
+            try {
+                T result = send(endpoint, request, reader);
+                budgetManager.onSuccess(endpoint);
+                return result;
+
+            } catch (OpenAiApiException e) {
+                if (e.getStatusCode() >= 500) {
+                    budgetManager.onFailure(endpoint);
+                } else {
+                    budgetManager.onSuccess(endpoint);
+                }
+                if (!e.isRetryable()) {
+                    throw e;
+                }
+                if (e.getStatusCode() == 429) {
+                    budgetManager.pause(cost, e.getRetryAfter());
+                }
+                failure = e;
+                retryAfter = e.getRetryAfter();
+                reason = String.valueOf(e.getStatusCode());
+
+            } catch (IOException e) {
+                budgetManager.onFailure(endpoint);
+                failure = new RuntimeException("OpenAI 요청 실패: " + request.uri(), e);
+                reason = e instanceof HttpTimeoutException ? "timeout" : "io";
+            }
+
+            if (attempt >= maxAttempts) {
+                throw new OpenAiUnavailableException(
+                        "OpenAI 재시도 소진: " + endpoint + " (" + attempt + "회, 마지막 " + reason + ")", failure);
+            }
+            budgetManager.backoff(endpoint, attempt, retryAfter, reason);
+        }
+    }
+
+    // 응답 body 를 다 읽을 때까지 permit 유지 (스트림으로 읽는 동안도 동시 요청 수에 포함)
+    private <T> T send(String endpoint, HttpRequest request, BodyReader<T> reader) throws IOException {
+        Semaphore semaphore = permits.computeIfAbsent(endpoint, e -> new Semaphore(maxConcurrency(e), true));
+        try {
+            semaphore.acquire();
+            try {
+                HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                try (InputStream body = response.body()) {
+                    if (response.statusCode() / 100 != 2) {
+                        throw new OpenAiApiException(endpoint, response.statusCode(), readString(body),
+                                retryAfter(response.headers()));
+                    }
+                    return reader.read(body);
+                }
+            } finally {
+                semaphore.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("OpenAI 요청 대기 중 인터럽트: " + endpoint, e);
+        }
+    }
+
+    // retry-after-ms (OpenAI) → retry-after (초) 순
+    private static Duration retryAfter(java.net.http.HttpHeaders headers) {
+        try {
+            Optional<String> millis = headers.firstValue("retry-after-ms");
+            if (millis.isPresent()) {
+                return Duration.ofMillis((long) Double.parseDouble(millis.get()));
+            }
+            return headers.firstValue("retry-after")
+                    .map(seconds -> Duration.ofMillis((long) (Double.parseDouble(seconds) * 1000)))
+                    .orElse(null);
+        } catch (NumberFormatException e) {
+            return null;    // HTTP-date 형식 등은 무시하고 백오프로 처리
+        }
+    }
+
+    private static String readString(InputStream body) throws IOException {
+        return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    // "/chat/completions" → "chat", "/embeddings" → "embeddings", "/audio/transcriptions" → "audio"
+    private String endpointOf(String path) {
+        String trimmed = path.startsWith("/") ? path.substring(1) : path;
+        int slash = trimmed.indexOf('/');
+        return slash < 0 ? trimmed : trimmed.substring(0, slash);
+    }
+
+    private int maxConcurrency(String endpoint) {
+        long fallback = DEFAULTS.containsKey(endpoint) ? DEFAULTS.get(endpoint)[0] : 8;
+        return env.getProperty("app.openai.endpoints." + endpoint + ".max-concurrency", Integer.class, (int) fallback);
     }
 
-    public String postJson(String path, String jsonBody) {
-        return webClient.post()
-                .uri(path)
-                .bodyValue(jsonBody)
-                .retrieve()
-                .bodyToMono(String.class)
-                .block(); // 동기 사용
+    // 엔드포인트 설정 → 공통 설정(app.openai.read-timeout) → 기본값 순
+    private Duration readTimeout(String endpoint) {
+        return readTimeouts.computeIfAbsent(endpoint, e -> {
+            Duration builtIn = Duration.ofSeconds(DEFAULTS.containsKey(e) ? DEFAULTS.get(e)[1] : 120);
+            Duration common = env.getProperty("app.openai.read-timeout", Duration.class, builtIn);
+            return env.getProperty("app.openai.endpoints." + e + ".read-timeout", Duration.class, common);
+        });
     }
 }
@@ -0,0 +1,20 @@
+package com.rag.lecturelens.openai;
+
+/**
+ * 요청 1건이 쓰는 예산 (모델별 RPM / TPM 버킷에서 차감)
+ * - tokens 는 추정치 (입력 글자수 / 4 + 최대 출력 토큰), 토큰 과금이 없는 요청은 0
+ */
+public record OpenAiCost(String model, int tokens) {
+
+    public static OpenAiCost of(String model, int tokens) {
+        return new OpenAiCost(model, Math.max(tokens, 0));
+    }
+
+    public static OpenAiCost requestOnly(String model) {
+        return new OpenAiCost(model, 0);
+    }
+
+    public static int estimateTokens(String text) {
+        return text == null ? 1 : Math.max(1, text.length() / 4);
+    }
+}
@@ -0,0 +1,26 @@
+package com.rag.lecturelens.openai;
+
+/**
+ * OpenAI 를 지금은 쓸 수 없음 (서킷 오픈 / 재시도 소진)
+ * - 작업을 실패 처리하지 말고 PENDING 으로 돌려서 나중에 이어서 실행하라는 신호
+ */
+public class OpenAiUnavailableException extends RuntimeException {
+
+    public OpenAiUnavailableException(String message) {
+        super(message);
+    }
+
+    public OpenAiUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    /** 예외 체인 어딘가에 OpenAiUnavailableException 이 있는지 (서비스에서 RuntimeException 으로 감싸는 경우) */
+    public static boolean isCauseOf(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof OpenAiUnavailableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -2,10 +2,13 @@ package com.rag.lecturelens.repository;
 
 import com.rag.lecturelens.entity.AudioChunk;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
-public interface AudioChunkRepository extends JpaRepository<AudioChunk, Long> {
+public interface AudioChunkRepository extends JpaRepository<AudioChunk, Long>, AudioChunkRepositoryCustom {
 
     // 중요도 높은 순으로 상위 30개
     List<AudioChunk> findTop30ByLectureIdOrderByImportanceScoreDesc(Long lectureId);
@@ -17,4 +20,31 @@ public interface AudioChunkRepository extends JpaRepository<AudioChunk, Long> {
 
     List<AudioChunk> findByLecture_Id(Long lectureId);
 
+    // 같은 내용(파일 해시)의 청크 - 중복 업로드 재사용용
+    List<AudioChunk> findByLecture_IdAndContentHash(Long lectureId, String contentHash);
+
+    Optional<AudioChunk> findFirstByContentHashAndLecture_IdNot(String contentHash, Long lectureId);
+
+    // 임의의 청크 1개 id (recall 측정 샘플용, PK 인덱스로 바로 찾음) - 현재 임베딩 모델 / 차원 행만
+    @Query(value = """
+        select id from audio_chunk
+        where embedding is not null
+          and embedding_model = :model
+          and embedding_dims = :dims
+          and id >= (select floor(random() * (max(id) - min(id) + 1)) + min(id) from audio_chunk)
+        order by id
+        limit 1
+        """, nativeQuery = true)
+    Optional<Long> findRandomIdWithEmbedding(@Param("model") String model, @Param("dims") int dims);
+
+    // 현재 임베딩 모델 / 차원이 아닌(또는 임베딩이 없는) 청크 id - 재임베딩 backfill 용
+    @Query(value = """
+        select id from audio_chunk
+        where (embedding_model is distinct from :model or embedding_dims is distinct from :dims)
+          and text is not null and btrim(text) <> ''
+        order by id
+        limit :limit
+        """, nativeQuery = true)
+    List<Long> findIdsOutsideEmbeddingSpace(@Param("model") String model, @Param("dims") int dims, @Param("limit") int limit);
+
 }
@@ -0,0 +1,25 @@
+package com.rag.lecturelens.repository;
+
+import com.rag.lecturelens.dto.VectorSearchOptions;
+import com.rag.lecturelens.entity.AudioChunk;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+
+public interface AudioChunkRepositoryCustom {
+
+    /**
+     * 벡터 유사도 기반 Top N 검색 (강의 / 사용자 필터, 호출별 ef_search / probes)
+     */
+    @Transactional(readOnly = true)
+    List<AudioChunk> searchTopN(float[] queryVec, VectorSearchOptions options);
+
+    /**
+     * 키워드 기반 Top N 검색 (pattern = "용어1|용어2|...", 대소문자 무시 부분 일치)
+     * - lectureId / userId 필터 (null 이면 조건 없음)
+     */
+    @Transactional(readOnly = true)
+    List<AudioChunk> searchLexical(Long lectureId, String userId, String pattern, int limit, Duration timeout);
+
+}
@@ -0,0 +1,25 @@
+package com.rag.lecturelens.repository;
+
+import com.rag.lecturelens.dto.VectorSearchOptions;
+import com.rag.lecturelens.entity.AudioChunk;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class AudioChunkRepositoryImpl implements AudioChunkRepositoryCustom {
+
+    private final VectorSearchSupport vectorSearchSupport;
+    private final LexicalSearchSupport lexicalSearchSupport;
+
+    @Override
+    public List<AudioChunk> searchTopN(float[] queryVec, VectorSearchOptions options) {
+        return vectorSearchSupport.search(AudioChunk.class, "audio_chunk", queryVec, options);
+    }
+
+    @Override
+    public List<AudioChunk> searchLexical(Long lectureId, String userId, String pattern, int limit, Duration timeout) {
+        return lexicalSearchSupport.search(AudioChunk.class, "audio_chunk", lectureId, userId, pattern, limit, timeout);
+    }
+}
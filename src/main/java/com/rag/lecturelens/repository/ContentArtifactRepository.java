@@ -0,0 +1,78 @@
+package com.rag.lecturelens.repository;
+
+import com.rag.lecturelens.entity.ContentArtifact;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+
+@Repository
+public interface ContentArtifactRepository extends JpaRepository<ContentArtifact, Long> {
+
+    Optional<ContentArtifact> findByContentHash(String contentHash);
+
+    Optional<ContentArtifact> findByObjectKey(String objectKey);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from ContentArtifact a where a.objectKey = :objectKey")
+    Optional<ContentArtifact> findForUpdateByObjectKey(@Param("objectKey") String objectKey);
+
+    /**
+     * 처음 보는 내용이면 등록, 이미 있으면 참조 수 +1 (동시 업로드에도 한 행만 생기도록 upsert)
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query(value = """
+        insert into content_artifact (content_hash, object_key, size_bytes, ref_count, created_at, updated_at)
+        values (:contentHash, :objectKey, :sizeBytes, 1, :now, :now)
+        on conflict (content_hash)
+        do update set ref_count = content_artifact.ref_count + 1,
+                      updated_at = :now
+        """, nativeQuery = true)
+    int upsertReference(@Param("contentHash") String contentHash,
+                        @Param("objectKey") String objectKey,
+                        @Param("sizeBytes") long sizeBytes,
+                        @Param("now") OffsetDateTime now);
+
+    /* ----- 산출물 기록: 먼저 기록한 쪽이 이김 (동시에 같은 파일을 처리해도 덮어쓰지 않음) ----- */
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        update ContentArtifact a
+           set a.convertedKey = :convertedKey, a.updatedAt = :now
+         where a.objectKey = :objectKey and a.convertedKey is null
+        """)
+    int recordConvertedKey(@Param("objectKey") String objectKey,
+                           @Param("convertedKey") String convertedKey,
+                           @Param("now") OffsetDateTime now);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        update ContentArtifact a
+           set a.transcriptKey = :transcriptKey, a.updatedAt = :now
+         where a.objectKey = :objectKey and a.transcriptKey is null
+        """)
+    int recordTranscriptKey(@Param("objectKey") String objectKey,
+                            @Param("transcriptKey") String transcriptKey,
+                            @Param("now") OffsetDateTime now);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        update ContentArtifact a
+           set a.chunkLectureId = :lectureId, a.updatedAt = :now
+         where a.objectKey = :objectKey and a.chunkLectureId is null
+        """)
+    int recordChunkLecture(@Param("objectKey") String objectKey,
+                           @Param("lectureId") Long lectureId,
+                           @Param("now") OffsetDateTime now);
+}
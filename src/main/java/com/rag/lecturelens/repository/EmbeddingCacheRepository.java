@@ -0,0 +1,31 @@
+package com.rag.lecturelens.repository;
+
+import com.rag.lecturelens.entity.EmbeddingCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+
+@Repository
+public interface EmbeddingCacheRepository extends JpaRepository<EmbeddingCacheEntry, String> {
+
+    /**
+     * 이미 있으면 무시 (같은 텍스트를 동시에 임베딩해도 충돌 없이 한 행만 남음)
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+        insert into embedding_cache (cache_key, model, dimensions, vector, created_at)
+        values (:cacheKey, :model, :dimensions, :vector, :now)
+        on conflict (cache_key) do nothing
+        """, nativeQuery = true)
+    int insertIfAbsent(@Param("cacheKey") String cacheKey,
+                       @Param("model") String model,
+                       @Param("dimensions") int dimensions,
+                       @Param("vector") byte[] vector,
+                       @Param("now") OffsetDateTime now);
+}
@@ -9,8 +9,9 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 @Repository
-public interface LectureChunkRepository extends JpaRepository<LectureChunk, Long> {
+public interface LectureChunkRepository extends JpaRepository<LectureChunk, Long>, LectureChunkRepositoryCustom {
 
     void deleteByLecture(Lecture lecture);
 /*
@@ -30,19 +31,8 @@ public interface LectureChunkRepository extends JpaRepository<LectureChunk, Long
 
     //List<LectureChunk> findByLectureIdOrderByImportanceScoreDesc(Long lectureId);
 
-    // ✅ 벡터 유사도 기반 Top N 검색
-    @Query(value = """
-        select *
-        from lecture_chunk
-        where lecture_id = :lectureId
-        order by (embedding::vector) <-> cast(:queryVec as vector)
-        limit :topN
-        """, nativeQuery = true)
-    List<LectureChunk> searchTopN(
-            @Param("lectureId") Long lectureId,
-            @Param("queryVec") String queryVec,
-            @Param("topN") int topN
-    );
+    // ✅ 벡터 유사도 기반 Top N 검색 → LectureChunkRepositoryCustom.searchTopN (인덱스 사용 + 필터)
+
     // 중요도 순으로 상위 N개 가져오기
     List<LectureChunk> findTop20ByLectureIdOrderByImportanceScoreDesc(Long lectureId);
 
@@ -53,4 +43,31 @@ public interface LectureChunkRepository extends JpaRepository<LectureChunk, Long
     // 특정 Lecture ID에 해당하는 모든 청크 조회
     List<LectureChunk> findByLecture_Id(Long lectureId);
 
+    // 같은 내용(파일 해시)의 청크 - 중복 업로드 재사용용
+    List<LectureChunk> findByLecture_IdAndContentHash(Long lectureId, String contentHash);
+
+    Optional<LectureChunk> findFirstByContentHashAndLecture_IdNot(String contentHash, Long lectureId);
+
+    // 임의의 청크 1개 id (recall 측정 샘플용, PK 인덱스로 바로 찾음) - 현재 임베딩 모델 / 차원 행만
+    @Query(value = """
+        select id from lecture_chunk
+        where embedding is not null
+          and embedding_model = :model
+          and embedding_dims = :dims
+          and id >= (select floor(random() * (max(id) - min(id) + 1)) + min(id) from lecture_chunk)
+        order by id
+        limit 1
+        """, nativeQuery = true)
+    Optional<Long> findRandomIdWithEmbedding(@Param("model") String model, @Param("dims") int dims);
+
+    // 현재 임베딩 모델 / 차원이 아닌(또는 임베딩이 없는) 청크 id - 재임베딩 backfill 용
+    @Query(value = """
+        select id from lecture_chunk
+        where (embedding_model is distinct from :model or embedding_dims is distinct from :dims)
+          and text is not null and btrim(text) <> ''
+        order by id
+        limit :limit
+        """, nativeQuery = true)
+    List<Long> findIdsOutsideEmbeddingSpace(@Param("model") String model, @Param("dims") int dims, @Param("limit") int limit);
+
 }
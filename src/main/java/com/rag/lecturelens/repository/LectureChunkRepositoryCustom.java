@@ -1,8 +1,11 @@
 package com.rag.lecturelens.repository;
 
+import com.rag.lecturelens.dto.VectorSearchOptions;
 import com.rag.lecturelens.entity.LectureChunk;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.util.List;
 @Repository
 public interface LectureChunkRepositoryCustom {
@@ -12,4 +15,28 @@ public interface LectureChunkRepositoryCustom {
      */
     List<LectureChunk> findTopChunksByLectureId(Long lectureId, int limit);
 
+    /**
+     * 벡터 유사도 기반 Top N 검색 (강의 / 사용자 필터, 호출별 ef_search / probes)
+     */
+    @Transactional(readOnly = true)
+    List<LectureChunk> searchTopN(float[] queryVec, VectorSearchOptions options);
+
+    /**
+     * 키워드 기반 Top N 검색 (pattern = "용어1|용어2|...", 대소문자 무시 부분 일치)
+     * - lectureId / userId 필터 (null 이면 조건 없음)
+     */
+    @Transactional(readOnly = true)
+    List<LectureChunk> searchLexical(Long lectureId, String userId, String pattern, int limit, Duration timeout);
+
+    default List<LectureChunk> searchTopN(Long lectureId, float[] queryVec, int topN) {
+        return searchTopN(queryVec, VectorSearchOptions.ofLecture(lectureId, topN));
+    }
+
+    /**
+     * 압축 정밀도(halfvec / binary) 검색 시 topN × candidateMultiplier 후보를 원본 벡터로 재정렬
+     */
+    default List<LectureChunk> searchTopN(Long lectureId, float[] queryVec, int topN, int candidateMultiplier) {
+        return searchTopN(queryVec, VectorSearchOptions.ofLecture(lectureId, topN).withCandidateMultiplier(candidateMultiplier));
+    }
+
 }
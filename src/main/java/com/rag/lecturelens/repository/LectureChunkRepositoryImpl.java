@@ -2,16 +2,20 @@ package com.rag.lecturelens.repository;
 
 
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.rag.lecturelens.dto.VectorSearchOptions;
 import com.rag.lecturelens.entity.LectureChunk;
 import com.rag.lecturelens.entity.QLectureChunk;
 import lombok.RequiredArgsConstructor;
 
+import java.time.Duration;
 import java.util.List;
 
 @RequiredArgsConstructor
 public class LectureChunkRepositoryImpl implements LectureChunkRepositoryCustom {
 
     private final JPAQueryFactory queryFactory;
+    private final VectorSearchSupport vectorSearchSupport;
+    private final LexicalSearchSupport lexicalSearchSupport;
     private final QLectureChunk chunk = QLectureChunk.lectureChunk;
 
     @Override
@@ -23,4 +27,14 @@ public class LectureChunkRepositoryImpl implements LectureChunkRepositoryCustom
                 .limit(limit)
                 .fetch();
     }
+
+    @Override
+    public List<LectureChunk> searchTopN(float[] queryVec, VectorSearchOptions options) {
+        return vectorSearchSupport.search(LectureChunk.class, "lecture_chunk", queryVec, options);
+    }
+
+    @Override
+    public List<LectureChunk> searchLexical(Long lectureId, String userId, String pattern, int limit, Duration timeout) {
+        return lexicalSearchSupport.search(LectureChunk.class, "lecture_chunk", lectureId, userId, pattern, limit, timeout);
+    }
 }
@@ -0,0 +1,78 @@
+package com.rag.lecturelens.repository;
+
+import com.rag.lecturelens.domain.JobStatus;
+import com.rag.lecturelens.entity.LectureJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LectureJobRepository extends JpaRepository<LectureJob, Long> {
+
+    Optional<LectureJob> findByLectureId(Long lectureId);
+
+    List<LectureJob> findByStatusOrderByIdAsc(JobStatus status);
+
+    /**
+     * PENDING 작업을 RUNNING 으로 선점 (동시에 두 번 실행되지 않도록 조건부 update) + lease 획득
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        update LectureJob j
+           set j.status = com.rag.lecturelens.domain.JobStatus.RUNNING,
+               j.attempts = j.attempts + 1,
+               j.leaseOwner = :owner,
+               j.leaseUntil = :leaseUntil,
+               j.updatedAt = :now
+         where j.lectureId = :lectureId
+           and j.status = com.rag.lecturelens.domain.JobStatus.PENDING
+        """)
+    int claim(@Param("lectureId") Long lectureId,
+              @Param("owner") String owner,
+              @Param("leaseUntil") OffsetDateTime leaseUntil,
+              @Param("now") OffsetDateTime now);
+
+    /**
+     * heartbeat: 내가 가진 RUNNING 작업의 lease 연장 (0 이면 이미 끝났거나 다른 인스턴스에 넘어감)
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        update LectureJob j
+           set j.leaseUntil = :leaseUntil,
+               j.updatedAt = :now
+         where j.lectureId = :lectureId
+           and j.status = com.rag.lecturelens.domain.JobStatus.RUNNING
+           and j.leaseOwner = :owner
+        """)
+    int renewLease(@Param("lectureId") Long lectureId,
+                   @Param("owner") String owner,
+                   @Param("leaseUntil") OffsetDateTime leaseUntil,
+                   @Param("now") OffsetDateTime now);
+
+    /**
+     * lease 가 만료된 RUNNING 작업 (파드 재시작 등으로 주인을 잃은 작업) → PENDING
+     * - lease 컬럼이 생기기 전에 선점된 작업은 updated_at 기준
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        update LectureJob j
+           set j.status = com.rag.lecturelens.domain.JobStatus.PENDING,
+               j.leaseOwner = null,
+               j.leaseUntil = null,
+               j.updatedAt = :now
+         where j.status = com.rag.lecturelens.domain.JobStatus.RUNNING
+           and (j.leaseUntil < :now
+                or (j.leaseUntil is null and j.updatedAt < :legacyStaleBefore))
+        """)
+    int releaseExpired(@Param("now") OffsetDateTime now, @Param("legacyStaleBefore") OffsetDateTime legacyStaleBefore);
+
+    void deleteByLectureId(Long lectureId);
+}
@@ -0,0 +1,19 @@
+package com.rag.lecturelens.repository;
+
+import com.rag.lecturelens.domain.PipelineStage;
+import com.rag.lecturelens.entity.LectureJobStage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LectureJobStageRepository extends JpaRepository<LectureJobStage, Long> {
+
+    Optional<LectureJobStage> findByJob_IdAndStage(Long jobId, PipelineStage stage);
+
+    List<LectureJobStage> findByJob_Id(Long jobId);
+
+    void deleteByJob_Id(Long jobId);
+}
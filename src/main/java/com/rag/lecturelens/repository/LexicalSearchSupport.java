@@ -0,0 +1,58 @@
+package com.rag.lecturelens.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * lecture_chunk / audio_chunk 공통 텍스트(키워드) 검색 SQL
+ * - 한국어는 공백 단위 tsvector 로는 조사 때문에 잘 안 맞음 → 정규식 부분 일치 (pg_trgm GIN 인덱스가 받쳐줌)
+ * - 점수: 매칭된 글자 수 / sqrt(청크 길이) (긴 청크가 무조건 이기지 않도록)
+ * - pattern 은 호출 측에서 글자 / 숫자만으로 만든 "a|b|c" 형태 (정규식 메타문자 없음)
+ */
+@Component
+@RequiredArgsConstructor
+class LexicalSearchSupport {
+
+    private final EntityManager em;
+
+    <T> List<T> search(Class<T> entityType, String table, Long lectureId, String userId,
+                       String pattern, int limit, Duration timeout) {
+        if (timeout != null) {
+            em.createNativeQuery("select set_config('statement_timeout', :value, true)")
+                    .setParameter("value", String.valueOf(Math.max(timeout.toMillis(), 1)))
+                    .getSingleResult();
+        }
+
+        StringBuilder where = new StringBuilder(" where text ~* :pattern");
+        if (lectureId != null) {
+            where.append(" and lecture_id = :lectureId");
+        }
+        if (userId != null) {
+            where.append(" and user_id = :userId");
+        }
+
+        String sql = "select * from " + table + where
+                + " order by (length(text) - length(regexp_replace(text, :pattern, '', 'gi')))"
+                + " / sqrt(length(text) + 1.0) desc, id"
+                + " limit :limit";
+
+        Query query = em.createNativeQuery(sql, entityType)
+                .setParameter("pattern", pattern)
+                .setParameter("limit", limit);
+        if (lectureId != null) {
+            query.setParameter("lectureId", lectureId);
+        }
+        if (userId != null) {
+            query.setParameter("userId", userId);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<T> result = query.getResultList();
+        return result;
+    }
+}
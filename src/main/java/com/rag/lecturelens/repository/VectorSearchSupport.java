@@ -0,0 +1,166 @@
+package com.rag.lecturelens.repository;
+
+import com.rag.lecturelens.domain.VectorPrecision;
+import com.rag.lecturelens.dto.VectorSearchOptions;
+import com.rag.lecturelens.embedding.EmbeddingProvider;
+import com.rag.lecturelens.entity.type.PgVectorType;
+import com.rag.lecturelens.util.EmbeddingUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.CustomType;
+import org.hibernate.type.spi.TypeConfiguration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * lecture_chunk / audio_chunk 공통 벡터 검색 SQL
+ * - 정렬식이 인덱스 식과 같아서 HNSW / IVFFlat 인덱스를 탈 수 있음
+ * - ef_search / probes 는 set_config(..., true) = SET LOCAL → 현재 트랜잭션에만 적용
+ * - 압축 정밀도(halfvec / binary): 인덱스로 topN × 배수 후보만 뽑고, 바깥 쿼리에서 원본 vector 로 재정렬
+ * - first-pass-dimensions: 앞 N 차원(Matryoshka)으로 후보를 뽑고 전체 차원으로 재정렬 (위와 같은 2단계)
+ * - 질의 벡터는 PgVectorType 으로 바인딩 (PGvector, 바이너리 전송) → 질의 / 검색 다리마다 ~20KB 소수점 텍스트를 만들고 파싱하지 않음
+ * - 현재 임베딩 설정(모델 + 차원)과 같은 행만 검색 → 다른 모델 / 차원 벡터와 섞어서 비교하지 않음
+ * - lecture_id / user_id 필터 검색: HNSW 는 ef_search 개 후보를 뽑은 뒤에 필터를 적용하므로 topN 보다 적게 나올 수 있음
+ *   → 기본값으로 iterative scan(relaxed_order, pgvector 0.8+)을 켜서 모자라면 인덱스를 더 훑게 하고, 바깥 쿼리에서 거리순 재정렬
+ *   → pgvector 0.8 미만이면 app.vector.search.iterative-scan=off, 대신 필터 검색의 ef_search 를 filtered-ef-search 로 올림
+ */
+@Component
+@RequiredArgsConstructor
+class VectorSearchSupport {
+
+    private final EntityManager em;
+    private final EmbeddingProvider embeddingProvider;
+
+    @Value("${app.vector.search.ef-search:100}")
+    private int defaultEfSearch;
+
+    @Value("${app.vector.search.probes:10}")
+    private int defaultProbes;
+
+    // off | relaxed_order | strict_order (HNSW 만, IVFFlat 은 relaxed_order 만 지원)
+    @Value("${app.vector.search.iterative-scan:relaxed_order}")
+    private String iterativeScan;
+
+    // iterative scan 을 못 쓸 때 필터 검색의 ef_search 하한 (필터로 걸러질 후보까지 미리 뽑음)
+    @Value("${app.vector.search.filtered-ef-search:400}")
+    private int filteredEfSearch;
+
+    @Value("${app.vector.precision:FULL}")
+    private VectorPrecision defaultPrecision;
+
+    @Value("${app.vector.search.candidate-multiplier:4}")
+    private int defaultCandidateMultiplier;
+
+    @Value("${app.vector.search.first-pass-dimensions:0}")
+    private int defaultFirstPassDimensions;
+
+    // float[] → PGvector 파라미터 타입 (엔티티 embedding 컬럼과 같은 매핑)
+    private CustomType<float[]> vectorType;
+
+    <T> List<T> search(Class<T> entityType, String table, float[] queryVec, VectorSearchOptions options) {
+        String model = embeddingProvider.modelId();
+        int dimensions = embeddingProvider.dimensions();
+        if (queryVec.length != dimensions) {
+            throw new IllegalArgumentException("질의 벡터 차원이 임베딩 설정과 다름: " + queryVec.length + " != " + dimensions);
+        }
+
+        VectorPrecision precision = options.exact() ? VectorPrecision.FULL
+                : options.precision() != null ? options.precision() : defaultPrecision;
+        int prefix = options.exact() ? 0
+                : options.firstPassDimensions() != null ? options.firstPassDimensions() : defaultFirstPassDimensions;
+        boolean rerank = precision != VectorPrecision.FULL || VectorPrecision.isTruncated(dimensions, prefix);
+        int multiplier = options.candidateMultiplier() != null ? options.candidateMultiplier() : defaultCandidateMultiplier;
+        int candidates = rerank ? options.topN() * Math.max(multiplier, 1) : options.topN();
+
+        boolean filtered = options.lectureId() != null || options.userId() != null;
+        String scanMode = iterativeScanMode();
+        boolean iterative = filtered && !options.exact() && !"off".equals(scanMode);
+
+        // 인덱스가 돌려주는 후보 수 상한 = ef_search → 최소한 후보 수 이상 (iterative scan 없는 필터 검색은 더 크게)
+        int efFloor = filtered && !iterative ? Math.max(defaultEfSearch, filteredEfSearch) : defaultEfSearch;
+        setLocal("hnsw.ef_search", options.efSearch() != null ? options.efSearch() : Math.max(efFloor, candidates));
+        setLocal("ivfflat.probes", options.probes() != null ? options.probes() : defaultProbes);
+        if (options.timeout() != null) {
+            setLocal("statement_timeout", Math.max(options.timeout().toMillis(), 1));
+        }
+        if (iterative) {
+            // 필터 때문에 후보가 모자라면 인덱스를 더 훑음 (pgvector 0.8+)
+            setLocal("hnsw.iterative_scan", scanMode);
+            setLocal("ivfflat.iterative_scan", "relaxed_order");
+        }
+
+        StringBuilder where = new StringBuilder(" where embedding is not null and ")
+                .append(EmbeddingUtils.embeddingSpaceCondition(model, dimensions));
+        if (options.lectureId() != null) {
+            where.append(" and lecture_id = :lectureId");
+        }
+        if (options.userId() != null) {
+            where.append(" and user_id = :userId");
+        }
+
+        String sql;
+        if (options.exact()) {
+            // "+ 0" 은 인덱스 사용을 막아서 전체 정확 정렬
+            sql = "select * from " + table + where
+                    + " order by (embedding <-> cast(:queryVec as vector)) + 0 limit :topN";
+        } else if (!rerank && !iterative) {
+            sql = "select * from " + table + where
+                    + " order by " + precision.orderBy(":queryVec", dimensions, prefix) + " limit :topN";
+        } else {
+            // 재정렬이 필요하거나 relaxed_order(결과가 거리순이 아닐 수 있음) → 바깥에서 원본 벡터로 정렬
+            sql = "select * from (select * from " + table + where
+                    + " order by " + precision.orderBy(":queryVec", dimensions, prefix) + " limit :candidates) c"
+                    + " order by c.embedding <-> cast(:queryVec as vector) limit :topN";
+        }
+
+        Query query = em.createNativeQuery(sql, entityType)
+                .setParameter("topN", options.topN());
+        // 공유 EntityManager 프록시 쿼리는 그대로 실행하고, 벡터 파라미터만 Hibernate 타입 지정 바인딩
+        NativeQuery<?> nativeQuery = query.unwrap(NativeQuery.class);
+        nativeQuery.setParameter("queryVec", queryVec, vectorType());
+        if (sql.contains(":candidates")) {
+            query.setParameter("candidates", candidates);
+        }
+        if (options.lectureId() != null) {
+            query.setParameter("lectureId", options.lectureId());
+        }
+        if (options.userId() != null) {
+            query.setParameter("userId", options.userId());
+        }
+
+        @SuppressWarnings("unchecked")
+        List<T> result = query.getResultList();
+        return result;
+    }
+
+    private CustomType<float[]> vectorType() {
+        if (vectorType == null) {
+            TypeConfiguration types = em.getEntityManagerFactory()
+                    .unwrap(SessionFactoryImplementor.class)
+                    .getTypeConfiguration();
+            vectorType = new CustomType<>(new PgVectorType(), types);
+        }
+        return vectorType;
+    }
+
+    // 예전 boolean 설정(true / false)도 받음
+    private String iterativeScanMode() {
+        return switch (iterativeScan.trim().toLowerCase()) {
+            case "true" -> "relaxed_order";
+            case "false", "off", "" -> "off";
+            default -> iterativeScan.trim().toLowerCase();
+        };
+    }
+
+    private void setLocal(String name, Object value) {
+        em.createNativeQuery("select set_config(:name, :value, true)")
+                .setParameter("name", name)
+                .setParameter("value", String.valueOf(value))
+                .getSingleResult();
+    }
+}
@@ -0,0 +1,95 @@
+package com.rag.lecturelens.scheduler;
+
+import com.rag.lecturelens.entity.AudioChunk;
+import com.rag.lecturelens.entity.LectureChunk;
+import com.rag.lecturelens.repository.AudioChunkRepository;
+import com.rag.lecturelens.repository.LectureChunkRepository;
+import com.rag.lecturelens.service.EmbeddingService;
+import com.rag.lecturelens.service.LectureVectorCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * 임베딩 설정(모델 / 차원) 변경 후 재임베딩
+ * - 검색은 현재 설정과 같은 행만 보므로, 설정을 바꾸면 예전 청크는 다시 임베딩될 때까지 검색되지 않음
+ * - 주기마다 테이블별로 batch-size 개씩 현재 설정으로 다시 임베딩 (같은 텍스트는 임베딩 캐시에서)
+ * - 배치마다 바뀐 강의의 벡터 캐시를 무효화 (중간에 적재된 강의가 일부만 재임베딩된 상태로 ttl 동안 남지 않게)
+ * - 기본은 꺼짐: 설정 변경 배포 때 app.embedding.backfill.enabled=true
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmbeddingBackfillScheduler {
+
+    private final LectureChunkRepository lectureChunkRepository;
+    private final AudioChunkRepository audioChunkRepository;
+    private final EmbeddingService embeddingService;
+    private final LectureVectorCache lectureVectorCache;
+
+    @Value("${app.embedding.backfill.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.embedding.backfill.batch-size:200}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${app.embedding.backfill.interval-ms:60000}",
+            initialDelayString = "${app.embedding.backfill.initial-delay-ms:120000}")
+    public void backfill() {
+        if (!enabled) {
+            return;
+        }
+        String model = embeddingService.modelId();
+        int dims = embeddingService.dimensions();
+        try {
+            int lectureChunks = backfillLectureChunks(model, dims);
+            int audioChunks = backfillAudioChunks(model, dims);
+            if (lectureChunks + audioChunks > 0) {
+                log.info("🔁 재임베딩: model={}, dims={}, lecture_chunk={}, audio_chunk={}",
+                        model, dims, lectureChunks, audioChunks);
+            }
+        } catch (RuntimeException e) {
+            log.warn("재임베딩 실패: {}", e.getMessage());
+        }
+    }
+
+    private int backfillLectureChunks(String model, int dims) {
+        List<Long> ids = lectureChunkRepository.findIdsOutsideEmbeddingSpace(model, dims, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<LectureChunk> chunks = lectureChunkRepository.findAllById(ids);
+        List<float[]> vectors = embeddingService.embedAll(chunks.stream().map(LectureChunk::getText).toList());
+        for (int i = 0; i < chunks.size(); i++) {
+            LectureChunk chunk = chunks.get(i);
+            chunk.setEmbedding(vectors.get(i));
+            chunk.setEmbeddingModel(model);
+            chunk.setEmbeddingDims(dims);
+        }
+        lectureChunkRepository.saveAll(chunks);
+        chunks.stream().map(c -> c.getLecture().getId()).distinct().forEach(lectureVectorCache::invalidate);
+        return chunks.size();
+    }
+
+    private int backfillAudioChunks(String model, int dims) {
+        List<Long> ids = audioChunkRepository.findIdsOutsideEmbeddingSpace(model, dims, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<AudioChunk> chunks = audioChunkRepository.findAllById(ids);
+        List<float[]> vectors = embeddingService.embedAll(chunks.stream().map(AudioChunk::getText).toList());
+        for (int i = 0; i < chunks.size(); i++) {
+            AudioChunk chunk = chunks.get(i);
+            chunk.setEmbedding(vectors.get(i));
+            chunk.setEmbeddingModel(model);
+            chunk.setEmbeddingDims(dims);
+        }
+        audioChunkRepository.saveAll(chunks);
+        chunks.stream().map(c -> c.getLecture().getId()).distinct().forEach(lectureVectorCache::invalidate);
+        return chunks.size();
+    }
+}
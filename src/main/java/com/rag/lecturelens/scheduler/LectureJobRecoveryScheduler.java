@@ -0,0 +1,43 @@
+package com.rag.lecturelens.scheduler;
+
+import com.rag.lecturelens.service.LectureJobService;
+import com.rag.lecturelens.service.LectureService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * 강의 처리 작업 복구
+ * - 재시작 후: lease 가 만료된(주인을 잃은) RUNNING 작업 → PENDING 으로 되돌리고 다시 실행
+ * - 주기적으로: PENDING 작업을 찾아서 실행 (실행 큐가 가득 차 밀려난 작업 포함)
+ * - 실행 중인 작업의 lease 연장(heartbeat)은 LectureJobService 가 따로 함
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LectureJobRecoveryScheduler {
+
+    private final LectureJobService lectureJobService;
+    private final LectureService lectureService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeOnStartup() {
+        int released = lectureJobService.releaseExpiredLeases();
+        if (released > 0) {
+            log.info("♻ 중단된 작업 {}건 복구 대상으로 전환", released);
+        }
+        resumePendingJobs();
+    }
+
+    @Scheduled(fixedDelayString = "${app.job.poll-interval-ms:60000}", initialDelayString = "${app.job.poll-interval-ms:60000}")
+    public void resumePendingJobs() {
+        lectureJobService.releaseExpiredLeases();
+        for (Long lectureId : lectureJobService.findPendingLectureIds()) {
+            log.info("♻ 작업 재개: lectureId={}", lectureId);
+            lectureService.processLectureAsync(lectureId);
+        }
+    }
+}
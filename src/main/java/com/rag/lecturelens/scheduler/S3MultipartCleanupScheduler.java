@@ -0,0 +1,42 @@
+package com.rag.lecturelens.scheduler;
+
+import com.rag.lecturelens.service.S3MultipartUploader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * 미완료 멀티파트 업로드 정리
+ * - 업로드 도중 파드가 죽으면 abort 가 호출되지 않아 파트가 S3에 남고 계속 과금됨
+ * - 시작된 지 abandon-after 가 지난 업로드는 주인이 없다고 보고 abort
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class S3MultipartCleanupScheduler {
+
+    private final S3MultipartUploader multipartUploader;
+
+    @Value("${app.s3.base-dir}")
+    private String baseDir;
+
+    @Value("${app.s3.multipart.abandon-after:PT24H}")
+    private Duration abandonAfter;
+
+    @Scheduled(fixedDelayString = "${app.s3.multipart.cleanup-interval-ms:3600000}")
+    public void abortAbandonedUploads() {
+        try {
+            int aborted = multipartUploader.abortStaleUploads(baseDir + "/", Instant.now().minus(abandonAfter));
+            if (aborted > 0) {
+                log.info("🧹 미완료 멀티파트 업로드 {}건 정리", aborted);
+            }
+        } catch (RuntimeException e) {
+            log.warn("미완료 멀티파트 업로드 정리 실패: {}", e.getMessage());
+        }
+    }
+}
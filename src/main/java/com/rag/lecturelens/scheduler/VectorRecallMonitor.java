@@ -0,0 +1,118 @@
+package com.rag.lecturelens.scheduler;
+
+import com.rag.lecturelens.dto.VectorSearchOptions;
+import com.rag.lecturelens.entity.AudioChunk;
+import com.rag.lecturelens.entity.LectureChunk;
+import com.rag.lecturelens.repository.AudioChunkRepository;
+import com.rag.lecturelens.repository.LectureChunkRepository;
+import com.rag.lecturelens.service.EmbeddingService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * ANN 인덱스 recall 모니터
+ * - 임의 청크의 임베딩을 질의로 써서 인덱스 검색 결과와 정확 검색 결과를 비교
+ * - recall@k = |ANN ∩ 정확| / k (질의로 쓴 청크 자신은 양쪽에서 제외)
+ * - 샘플은 현재 임베딩 모델 / 차원의 청크에서만 뽑음
+ * - 메트릭: lecturelens.vector.recall{table}
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VectorRecallMonitor {
+
+    private final LectureChunkRepository lectureChunkRepository;
+    private final AudioChunkRepository audioChunkRepository;
+    private final EmbeddingService embeddingService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.vector.recall.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.vector.recall.sample-size:20}")
+    private int sampleSize;
+
+    @Value("${app.vector.recall.k:10}")
+    private int k;
+
+    @Scheduled(fixedDelayString = "${app.vector.recall.interval-ms:3600000}",
+            initialDelayString = "${app.vector.recall.initial-delay-ms:600000}")
+    public void measureRecall() {
+        if (!enabled) {
+            return;
+        }
+        String model = embeddingService.modelId();
+        int dims = embeddingService.dimensions();
+        try {
+            measure("lecture_chunk",
+                    () -> lectureChunkRepository.findRandomIdWithEmbedding(model, dims),
+                    id -> lectureChunkRepository.findById(id).map(LectureChunk::getEmbedding),
+                    (query, options) -> ids(lectureChunkRepository.searchTopN(query, options), LectureChunk::getId));
+            measure("audio_chunk",
+                    () -> audioChunkRepository.findRandomIdWithEmbedding(model, dims),
+                    id -> audioChunkRepository.findById(id).map(AudioChunk::getEmbedding),
+                    (query, options) -> ids(audioChunkRepository.searchTopN(query, options), AudioChunk::getId));
+        } catch (RuntimeException e) {
+            log.warn("벡터 recall 측정 실패: {}", e.getMessage());
+        }
+    }
+
+    private void measure(String table,
+                         Supplier<Optional<Long>> sampler,
+                         Function<Long, Optional<float[]>> embeddingOf,
+                         BiFunction<float[], VectorSearchOptions, List<Long>> search) {
+        DistributionSummary summary = DistributionSummary.builder("lecturelens.vector.recall")
+                .tag("table", table)
+                .description("ANN 검색 recall@k (정확 검색 대비)")
+                .register(meterRegistry);
+
+        double total = 0;
+        int measured = 0;
+        for (int s = 0; s < sampleSize; s++) {
+            Optional<Long> sampleId = sampler.get();
+            if (sampleId.isEmpty()) {
+                continue;
+            }
+            Optional<float[]> query = sampleId.flatMap(embeddingOf);
+            if (query.isEmpty()) {
+                continue;
+            }
+
+            VectorSearchOptions options = VectorSearchOptions.global(k + 1);
+            Set<Long> approx = new HashSet<>(search.apply(query.get(), options));
+            List<Long> exact = search.apply(query.get(), options.asExact());
+            approx.remove(sampleId.get());
+
+            List<Long> truth = exact.stream().filter(id -> !id.equals(sampleId.get())).limit(k).toList();
+            if (truth.isEmpty()) {
+                continue;
+            }
+            double recall = truth.stream().filter(approx::contains).count() / (double) truth.size();
+            summary.record(recall);
+            total += recall;
+            measured++;
+        }
+
+        if (measured > 0) {
+            log.info("🧭 벡터 recall@{}: table={}, samples={}, recall={}",
+                    k, table, measured, String.format("%.3f", total / measured));
+        }
+    }
+
+    private static <T> List<Long> ids(List<T> chunks, Function<T, Long> idOf) {
+        return chunks.stream().map(idOf).toList();
+    }
+}
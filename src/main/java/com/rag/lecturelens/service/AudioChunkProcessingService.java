@@ -1,17 +1,20 @@
 package com.rag.lecturelens.service;
 
 import com.rag.lecturelens.entity.AudioChunk;
+import com.rag.lecturelens.entity.ContentArtifact;
 import com.rag.lecturelens.entity.Lecture;
 import com.rag.lecturelens.repository.AudioChunkRepository;
 import com.rag.lecturelens.repository.LectureRepository;
-import com.rag.lecturelens.util.EmbeddingUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Slf4j
 @Service
@@ -23,16 +26,18 @@ public class AudioChunkProcessingService {
     private final LectureRepository lectureRepository;
     private final AudioChunkRepository audioChunkRepository;
     private final AudioSttService audioSttService;
-    private final OpenAiEmbeddingService embeddingService;
+    private final EmbeddingService embeddingService;
+    private final S3StorageService s3StorageService;
+    private final ContentArtifactService contentArtifactService;
 
     /**
-     * 1) Lecture에서 originalAudioPath 확인
+     * 1) Lecture에서 convertedAudioPath(없으면 originalAudioPath) 확인
      * 2) AudioSttService가 S3에서 파일 읽어서 STT 수행 → transcript 문자열
-     * 3) transcript를 문장/문단 단위로 분리
-     * 4) 각 조각을 AudioChunk로 저장 (embedding 포함)
+     * 3) transcript 를 S3에 저장 (transcript_{n}.txt) → key 리스트 반환
+     *  - 이미 저장된 transcript 가 있으면 STT를 다시 호출하지 않는다. (재시도/재시작 시 비용 절약)
+     *  - 같은 녹음(내용 해시)의 transcript 가 다른 강의에 있으면 그 key 를 그대로 사용
      */
-    @Transactional
-    public void processAudioToChunks(Lecture lecture) {
+    public List<String> transcribeAudio(Lecture lecture, String userId) {
 
         List<String> audioKeys = lecture.getConvertedAudioPath();
         Long lectureId = lecture.getId();
@@ -43,27 +48,99 @@ public class AudioChunkProcessingService {
 
         if (audioKeys == null || audioKeys.isEmpty()) {
             log.info("🎤 Audio 미존재");
-            return;
+            return List.of();
         }
 
-        for (String audioKey : audioKeys) {
-            log.info("🎤 Audio → Chunk 처리 시작: lectureId={}, audioKey={}", lectureId, audioKey);
+        List<String> transcriptKeys = new ArrayList<>();
+        for (int i = 0; i < audioKeys.size(); i++) {
+            String audioKey = audioKeys.get(i);
+            String originalKey = originalKeyAt(lecture.getOriginalAudioPath(), i);
+
+            Optional<String> shared = contentArtifactService.findTranscriptKey(originalKey);
+            if (shared.isPresent()) {
+                log.info("♻ 같은 녹음의 transcript 재사용: lectureId={}, key={}", lectureId, shared.get());
+                transcriptKeys.add(shared.get());
+                continue;
+            }
 
-            // ✅ 1) STT 수행
-            String transcript = audioSttService.transcribeLecture(audioKey, lecture.getId());
+            String transcriptKey = s3StorageService.buildKey(userId, lectureId, "transcript_" + i + ".txt");
+
+            if (s3StorageService.exists(transcriptKey)) {
+                log.info("🎤 기존 transcript 재사용: lectureId={}, key={}", lectureId, transcriptKey);
+                contentArtifactService.recordTranscriptKey(originalKey, transcriptKey);
+                transcriptKeys.add(transcriptKey);
+                continue;
+            }
+
+            log.info("🎤 STT 시작: lectureId={}, audioKey={}", lectureId, audioKey);
+
+            // ✅ STT 수행
+            String transcript = audioSttService.transcribeLecture(audioKey, lectureId);
 
             if (transcript == null || transcript.isBlank()) {
                 log.warn("⚠ STT 결과가 비어있음: lectureId={}, audioKey={}", lectureId, audioKey);
-                continue;
+                transcript = "";
             }
 
             log.info("🎤 STT 완료. 길이={} chars", transcript.length());
+            transcriptKeys.add(s3StorageService.uploadTextFile(transcriptKey, transcript));
+            contentArtifactService.recordTranscriptKey(originalKey, transcriptKey);
+        }
+        return transcriptKeys;
+    }
+
+    /**
+     * 1) S3에 저장된 transcript 읽기
+     * 2) transcript를 문장/문단 단위로 분리
+     * 3) 각 조각을 AudioChunk로 저장 (embedding 포함) → 생성된 chunk id 반환
+     *  - 재실행 시 중복 저장되지 않도록 기존 오디오 청크는 먼저 삭제
+     *  - 같은 녹음(내용 해시)의 청크가 다른 강의에 이미 있으면 임베딩 없이 행만 복사
+     */
+    @Transactional
+    public List<Long> processAudioToChunks(Lecture lecture, List<String> transcriptKeys, String userId) {
+
+        Long lectureId = lecture.getId();
+        audioChunkRepository.deleteByLecture_Id(lectureId);
+
+        List<Long> chunkIds = new ArrayList<>();
+
+        // transcript 는 한 번에 동시에 읽어둔다 (파일 수만큼 순차 왕복하지 않도록)
+        List<String> transcripts = s3StorageService.getObjectTexts(transcriptKeys);
+
+        for (int i = 0; i < transcriptKeys.size(); i++) {
+            String transcriptKey = transcriptKeys.get(i);
 
-            // ✅ 2) transcript → 문장/문단 단위로 분리
+            // transcript 는 오디오 원본과 1:1 (같은 순서) → 원본 key 로 레지스트리 조회
+            Optional<ContentArtifact> artifact = contentArtifactService.findByObjectKey(
+                    originalKeyAt(lecture.getOriginalAudioPath(), i)
+            );
+            String contentHash = artifact.map(ContentArtifact::getContentHash).orElse(null);
+
+            Optional<Long> source = artifact.flatMap(a -> contentArtifactService.findChunkSource(a, lectureId));
+            if (source.isPresent()) {
+                List<AudioChunk> copied = copyChunks(lecture, userId, source.get(), contentHash);
+                if (!copied.isEmpty()) {
+                    copied.forEach(c -> chunkIds.add(c.getId()));
+                    log.info("♻ Audio 청크 재사용: lectureId={}, sourceLectureId={}, count={}",
+                            lectureId, source.get(), copied.size());
+                    continue;
+                }
+            }
+
+            log.info("🎤 Transcript → Chunk 처리 시작: lectureId={}, key={}", lectureId, transcriptKey);
+
+            String transcript = transcripts.get(i);
+
+            if (transcript == null || transcript.isBlank()) {
+                log.warn("⚠ transcript 가 비어있음: lectureId={}, key={}", lectureId, transcriptKey);
+                continue;
+            }
+
+            // ✅ transcript → 문장/문단 단위로 분리
             List<String> chunks = splitTranscriptIntoChunks(transcript);
             log.info("🎤 transcript를 {}개의 1차 청크(문장 단위)로 분할", chunks.size());
 
-            int created = 0;
+            List<String> texts = new ArrayList<>();
 
             for (String raw : chunks) {
                 String text = raw.trim();
@@ -76,20 +153,20 @@ public class AudioChunkProcessingService {
 
                 // ✅ 수정: 너무 긴 문장은 여러 청크로 분할해서 각각 저장
                 if (text.length() > MAX_CHARS_PER_CHUNK) {
-                    List<String> parts = splitLongText(text, MAX_CHARS_PER_CHUNK);
-                    for (String part : parts) {
-                        saveAudioChunk(lecture, part);
-                        created++;
-                    }
+                    texts.addAll(splitLongText(text, MAX_CHARS_PER_CHUNK));
                 } else {
-                    saveAudioChunk(lecture, text);
-                    created++;
+                    texts.add(text);
                 }
             }
 
-            log.info("✅ Audio Chunk 생성 완료: lectureId={}, count={}", lectureId, created);
+            // 문장마다 요청하지 않고 transcript 단위로 배치 임베딩
+            chunkIds.addAll(saveAudioChunks(lecture, userId, texts, contentHash));
+
+            artifact.ifPresent(a -> contentArtifactService.recordChunkLecture(a, lectureId));
+            log.info("✅ Audio Chunk 생성 완료: lectureId={}, count={}", lectureId, texts.size());
         }
 
+        return chunkIds;
     }
 
     /**
@@ -139,23 +216,74 @@ public class AudioChunkProcessingService {
     }
 
     /**
-     * 🔁 공통 AudioChunk 저장 로직
+     * 🔁 공통 AudioChunk 저장 로직 (임베딩은 배치로 한 번에)
      */
-    private void saveAudioChunk(Lecture lecture, String text) {
-        // 1) 임베딩 생성
-        float[] vec = embeddingService.embed(text);
-        String embeddingLiteral = EmbeddingUtils.toPgVectorLiteral(vec);
+    private List<Long> saveAudioChunks(Lecture lecture, String userId, List<String> texts, String contentHash) {
+        // 1) 임베딩 생성 (입력 순서 그대로 반환)
+        List<float[]> vectors = embeddingService.embedAll(texts);
 
         // 2) AudioChunk 저장
-        AudioChunk chunk = AudioChunk.builder()
-                .lecture(lecture)
-                .startSec(null)       // 필요하면 나중에 타임라인 추가
-                .endSec(null)
-                .text(text)
-                .importanceScore(0.7f)
-                .embedding(embeddingLiteral)
-                .build();
-
-        audioChunkRepository.save(chunk);
+        List<AudioChunk> chunks = new ArrayList<>();
+        for (int i = 0; i < texts.size(); i++) {
+            chunks.add(AudioChunk.builder()
+                    .lecture(lecture)
+                    .startSec(null)       // 필요하면 나중에 타임라인 추가
+                    .endSec(null)
+                    .text(texts.get(i))
+                    .importanceScore(0.7f)
+                    .embedding(vectors.get(i))
+                    .embeddingModel(embeddingService.modelId())
+                    .embeddingDims(vectors.get(i).length)
+                    .userId(userId)
+                    .contentHash(contentHash)
+                    .build());
+        }
+
+        return audioChunkRepository.saveAll(chunks).stream()
+                .map(AudioChunk::getId)
+                .toList();
+    }
+
+    // 원본 강의가 다른 사용자 것일 수 있으므로 user_id 는 새 강의 주인으로
+    // 원본 벡터가 지금 임베딩 설정(모델 / 차원)과 다르면(설정 변경 후 백필 전) 복사하지 않고 다시 임베딩
+    private List<AudioChunk> copyChunks(Lecture lecture, String userId, Long sourceLectureId, String contentHash) {
+        List<AudioChunk> sources = audioChunkRepository.findByLecture_IdAndContentHash(sourceLectureId, contentHash);
+
+        List<AudioChunk> stale = sources.stream()
+                .filter(c -> c.getEmbedding() == null
+                        || !embeddingService.isCurrent(c.getEmbeddingModel(), c.getEmbeddingDims()))
+                .toList();
+        List<float[]> reembedded = embeddingService.embedAll(stale.stream().map(AudioChunk::getText).toList());
+        Map<AudioChunk, float[]> vectors = new IdentityHashMap<>();
+        for (int i = 0; i < stale.size(); i++) {
+            vectors.put(stale.get(i), reembedded.get(i));
+        }
+        if (!stale.isEmpty()) {
+            log.info("🧬 재사용 청크 다시 임베딩 (임베딩 설정 변경): sourceLectureId={}, count={}/{}",
+                    sourceLectureId, stale.size(), sources.size());
+        }
+
+        List<AudioChunk> copies = sources.stream()
+                .map(c -> {
+                    float[] vector = vectors.getOrDefault(c, c.getEmbedding());
+                    return AudioChunk.builder()
+                            .lecture(lecture)
+                            .startSec(c.getStartSec())
+                            .endSec(c.getEndSec())
+                            .text(c.getText())
+                            .importanceScore(c.getImportanceScore())
+                            .embedding(vector)
+                            .embeddingModel(embeddingService.modelId())
+                            .embeddingDims(vector.length)
+                            .userId(userId)
+                            .contentHash(contentHash)
+                            .build();
+                })
+                .toList();
+        return audioChunkRepository.saveAll(copies);
+    }
+
+    private String originalKeyAt(List<String> originalKeys, int index) {
+        return originalKeys != null && index < originalKeys.size() ? originalKeys.get(index) : null;
     }
 }
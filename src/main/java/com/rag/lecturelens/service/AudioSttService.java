@@ -1,110 +1,189 @@
 package com.rag.lecturelens.service;
 
-import com.rag.lecturelens.entity.Lecture;
+import com.rag.lecturelens.domain.WorkloadType;
+import com.rag.lecturelens.executor.PipelineExecutors;
+import com.rag.lecturelens.openai.OpenAiClient;
+import com.rag.lecturelens.openai.OpenAiCost;
+import com.rag.lecturelens.openai.OpenAiUnavailableException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 
-import java.io.ByteArrayOutputStream;
-import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
-import java.net.URI;
-import java.net.http.HttpClient;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AudioSttService {
 
-    @Value("${openai.api.key}")
-    private String apiKey;
-
     private final S3StorageService s3StorageService;
+    private final PipelineExecutors pipelineExecutors;
+    private final MeterRegistry meterRegistry;
+    private final OpenAiClient openAiClient;
 
-    private final HttpClient httpClient = HttpClient.newHttpClient();
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    private static final String MODEL = "gpt-4o-mini-transcribe";
+
     /**
      * Lecture에 저장된 originalAudioPath (또는 convertedAudioPath)를 사용해서 STT 수행
+     * - S3 응답 스트림을 그대로 multipart 요청 body 로 흘려보냄 (힙에 파일 전체를 올리지 않음)
+     * - 재시도하면 S3 스트림을 새로 열어서 처음부터 다시 보냄
      */
     public String transcribeLecture(String audioKey,Long lectureId) {
 
-
-        byte[] audioBytes = s3StorageService.getObjectBytes(audioKey);
-
         // 파일명은 아무거나 가능, 확장자는 실제 포맷 기준으로
         String filename = "lecture-" + lectureId + ".mp4";
 
-        return transcribeBytes(audioBytes, filename, "audio/mp4");
+        // STT 레인 허용량 안에서만 동시에 Whisper 요청
+        return pipelineExecutors.call(WorkloadType.STT, () -> {
+            long contentLength = s3StorageService.getObjectLength(audioKey);
+            // supplier 는 HttpClient 스레드에서 (재시도마다) 호출됨
+            Queue<InputStream> opened = new ConcurrentLinkedQueue<>();
+            try {
+                return transcribeStream(() -> {
+                    ResponseInputStream<GetObjectResponse> audio = s3StorageService.getObjectStream(audioKey);
+                    opened.add(audio);
+                    return audio;
+                }, contentLength, filename, "audio/mp4");
+            } finally {
+                for (InputStream in : opened) {
+                    closeQuietly(in);
+                }
+            }
+        });
     }
 
     /**
-     * S3에서 가져온 raw 바이트 배열을 Whisper API로 전송하는 핵심 메서드
+     * 오디오 스트림을 Whisper API로 전송하는 핵심 메서드
+     * - body = [헤더 파트] + [오디오 스트림] + [model 파트/끝 boundary]
+     *   앞뒤 파트만 작은 byte[] 이고 오디오는 HttpClient 가 읽는 만큼만 버퍼링 → 메모리 일정
+     * - audio 는 전송 시도마다 호출됨 (재시도 시 새 스트림 필요)
+     * - 메트릭: lecturelens.stt.upload.bytes (HttpClient 가 실제로 읽어 간 오디오 바이트, 재시도 포함),
+     *   lecturelens.stt.request (요청 시간)
      */
-    public String transcribeBytes(byte[] audioBytes, String filename, String contentType) {
+    public String transcribeStream(Supplier<InputStream> audio, long contentLength, String filename, String contentType) {
         try {
             String boundary = "----JavaFormBoundary" + UUID.randomUUID();
 
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            PrintWriter writer = new PrintWriter(new OutputStreamWriter(baos, StandardCharsets.UTF_8), true);
-
             // ------- file part -------
-            writer.append("--").append(boundary).append("\r\n");
-            writer.append("Content-Disposition: form-data; name=\"file\"; filename=\"")
-                    .append(filename).append("\"\r\n");
-            writer.append("Content-Type: ").append(contentType).append("\r\n");
-            writer.append("\r\n");
-            writer.flush();
-
-            // ⚠️ 여기서 진짜 오디오 바이트를 그대로 넣는 게 중요! (String 변환 금지)
-            baos.write(audioBytes);
-            baos.flush();
-
-            writer.append("\r\n");
-            writer.flush();
-
-            // ------- model part -------
-            writer.append("--").append(boundary).append("\r\n");
-            writer.append("Content-Disposition: form-data; name=\"model\"\r\n\r\n");
-            writer.append("gpt-4o-mini-transcribe").append("\r\n");
-            writer.flush();
-
-            // 필요하면 language, temperature 같은 옵션도 추가 가능
-            // writer.append("--").append(boundary).append("\r\n");
-            // writer.append("Content-Disposition: form-data; name=\"language\"\r\n\r\n");
-            // writer.append("ko").append("\r\n");
-            // writer.flush();
-
-            // ------- end boundary -------
-            writer.append("--").append(boundary).append("--").append("\r\n");
-            writer.close();
-
-            byte[] multipartBody = baos.toByteArray();
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://api.openai.com/v1/audio/transcriptions"))
-                    .header("Authorization", "Bearer " + apiKey)
-                    .header("Content-Type", "multipart/form-data; boundary=" + boundary)
-                    .POST(HttpRequest.BodyPublishers.ofByteArray(multipartBody))
-                    .build();
-
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() / 100 != 2) {
-                // Whisper에서 실패시 응답 body 그대로 던져줘서 디버깅 쉽게
-                throw new RuntimeException("STT 실패: " + response.body());
+            String head = "--" + boundary + "\r\n"
+                    + "Content-Disposition: form-data; name=\"file\"; filename=\"" + filename + "\"\r\n"
+                    + "Content-Type: " + contentType + "\r\n"
+                    + "\r\n";
+
+            // ------- model part + end boundary -------
+            // 필요하면 language, temperature 같은 옵션도 같은 형식으로 추가 가능
+            String tail = "\r\n"
+                    + "--" + boundary + "\r\n"
+                    + "Content-Disposition: form-data; name=\"model\"\r\n\r\n"
+                    + MODEL + "\r\n"
+                    + "--" + boundary + "--" + "\r\n";
+
+            // ⚠️ 오디오 바이트는 String 변환 없이 스트림 그대로 (길이를 알려줘서 chunked 전송을 피함)
+            AtomicLong sent = new AtomicLong();
+            Supplier<HttpRequest.BodyPublisher> body = () -> HttpRequest.BodyPublishers.concat(
+                    HttpRequest.BodyPublishers.ofString(head, StandardCharsets.UTF_8),
+                    HttpRequest.BodyPublishers.fromPublisher(
+                            HttpRequest.BodyPublishers.ofInputStream(() -> new CountingInputStream(audio.get(), sent)),
+                            contentLength),
+                    HttpRequest.BodyPublishers.ofString(tail, StandardCharsets.UTF_8)
+            );
+
+            long start = System.nanoTime();
+            String response;
+            try {
+                response = openAiClient.post("/audio/transcriptions", OpenAiCost.requestOnly(MODEL),
+                        "multipart/form-data; boundary=" + boundary, body);
+            } catch (RuntimeException e) {
+                // Whisper 실패시 응답 body 는 OpenAiApiException 메시지에 그대로 담김 (디버깅용)
+                recordTransfer(sent.get(), System.nanoTime() - start, false);
+                throw e;
             }
+            recordTransfer(sent.get(), System.nanoTime() - start, true);
 
-            JsonNode root = objectMapper.readTree(response.body());
+            JsonNode root = objectMapper.readTree(response);
             return root.path("text").asText();
 
+        } catch (OpenAiUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("STT 실패", e);
         }
     }
+
+    /**
+     * 읽힌 바이트 수를 더해 가는 스트림 (HttpClient 가 body 로 가져간 양 = 전송한 양)
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final AtomicLong count;
+
+        CountingInputStream(InputStream in, AtomicLong count) {
+            super(in);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count.addAndGet(n);
+            }
+            return n;
+        }
+    }
+
+    private void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException e) {
+            log.debug("S3 오디오 스트림 close 실패: {}", e.getMessage());
+        }
+    }
+
+    private void recordTransfer(long bytes, long elapsedNanos, boolean success) {
+        String outcome = success ? "success" : "error";
+        DistributionSummary.builder("lecturelens.stt.upload.bytes")
+                .baseUnit("bytes")
+                .description("STT 요청으로 전송한 오디오 바이트")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(bytes);
+        Timer.builder("lecturelens.stt.request")
+                .description("STT 요청 전송 + 응답까지 걸린 시간")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        log.info("🎤 STT 전송: {} bytes, {}s ({} KB/s)",
+                bytes, String.format("%.1f", seconds), seconds > 0 ? (long) (bytes / 1024 / seconds) : bytes / 1024);
+    }
 }
@@ -0,0 +1,179 @@
+package com.rag.lecturelens.service;
+
+import com.rag.lecturelens.dto.StoredObject;
+import com.rag.lecturelens.entity.AudioChunk;
+import com.rag.lecturelens.entity.ContentArtifact;
+import com.rag.lecturelens.entity.Lecture;
+import com.rag.lecturelens.entity.LectureChunk;
+import com.rag.lecturelens.repository.AudioChunkRepository;
+import com.rag.lecturelens.repository.ContentArtifactRepository;
+import com.rag.lecturelens.repository.LectureChunkRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 내용(SHA-256) 기준 산출물 재사용
+ * - 업로드: 같은 내용이 이미 있으면 방금 올린 객체는 지우고 기존 원본 key 를 공유
+ * - 변환 / STT / 청크(+임베딩): 이미 만들어진 게 있으면 다시 만들지 않고 연결
+ * - 삭제: 참조 수를 줄이고, 아직 다른 강의가 쓰는 S3 key 는 지우지 않음
+ *
+ * 원본 key 가 레지스트리 조회 키. (이 기능 이전에 올라온 강의는 레지스트리에 없으므로 그냥 처리)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ContentArtifactService {
+
+    private final ContentArtifactRepository contentArtifactRepository;
+    private final S3StorageService s3StorageService;
+    private final LectureChunkRepository lectureChunkRepository;
+    private final AudioChunkRepository audioChunkRepository;
+
+    /**
+     * 업로드된 파일 등록 → 강의에 저장할 원본 key 목록 (중복이면 기존 key)
+     */
+    @Transactional
+    public List<String> register(List<StoredObject> uploaded) {
+        List<String> keys = new ArrayList<>();
+        for (StoredObject stored : uploaded) {
+            contentArtifactRepository.upsertReference(stored.contentHash(), stored.key(), stored.size(), now());
+            ContentArtifact artifact = contentArtifactRepository.findByContentHash(stored.contentHash())
+                    .orElseThrow(() -> new IllegalStateException("content artifact 등록 실패: " + stored.key()));
+
+            if (!artifact.getObjectKey().equals(stored.key())) {
+                // 같은 바이트가 이미 저장돼 있음 → 방금 올린 사본은 버린다
+                s3StorageService.deleteObject(stored.key());
+                log.info("♻ 중복 업로드 → 기존 원본 재사용: {} → {} (refCount={})",
+                        stored.key(), artifact.getObjectKey(), artifact.getRefCount());
+            }
+            keys.add(artifact.getObjectKey());
+        }
+        return keys;
+    }
+
+    public Optional<ContentArtifact> findByObjectKey(String objectKey) {
+        if (objectKey == null) {
+            return Optional.empty();
+        }
+        return contentArtifactRepository.findByObjectKey(objectKey);
+    }
+
+    /**
+     * 원본 key 목록 → 변환 결과 key 목록 (입력 순서 유지)
+     * - 이미 변환된 파일은 재사용, 나머지만 converter 로 변환 후 레지스트리에 기록
+     */
+    public List<String> convertWithReuse(List<String> originalKeys,
+                                         Function<List<String>, List<String>> converter) {
+        String[] result = new String[originalKeys.size()];
+        List<String> toConvert = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+
+        for (int i = 0; i < originalKeys.size(); i++) {
+            String originalKey = originalKeys.get(i);
+            Optional<String> reused = findByObjectKey(originalKey).map(ContentArtifact::getConvertedKey);
+            if (reused.isPresent()) {
+                result[i] = reused.get();
+            } else {
+                toConvert.add(originalKey);
+                positions.add(i);
+            }
+        }
+
+        if (!toConvert.isEmpty()) {
+            List<String> converted = converter.apply(toConvert);
+            for (int j = 0; j < converted.size(); j++) {
+                result[positions.get(j)] = converted.get(j);
+                contentArtifactRepository.recordConvertedKey(toConvert.get(j), converted.get(j), now());
+            }
+        }
+
+        log.info("♻ 변환 결과 재사용 {}/{}", originalKeys.size() - toConvert.size(), originalKeys.size());
+        return Arrays.asList(result);
+    }
+
+    public Optional<String> findTranscriptKey(String originalKey) {
+        return findByObjectKey(originalKey).map(ContentArtifact::getTranscriptKey);
+    }
+
+    public void recordTranscriptKey(String originalKey, String transcriptKey) {
+        if (originalKey == null) {
+            return;
+        }
+        contentArtifactRepository.recordTranscriptKey(originalKey, transcriptKey, now());
+    }
+
+    /**
+     * 이 파일의 청크를 이미 가진 다른 강의 id (없으면 empty → 직접 추출/임베딩)
+     */
+    public Optional<Long> findChunkSource(ContentArtifact artifact, Long lectureId) {
+        Long source = artifact.getChunkLectureId();
+        if (source == null || source.equals(lectureId)) {
+            return Optional.empty();
+        }
+        return Optional.of(source);
+    }
+
+    public void recordChunkLecture(ContentArtifact artifact, Long lectureId) {
+        contentArtifactRepository.recordChunkLecture(artifact.getObjectKey(), lectureId, now());
+    }
+
+    /**
+     * 강의 삭제 시 참조 해제
+     * - 참조 수가 0 이 된 항목은 레지스트리에서 삭제 (S3 객체는 호출 측이 강의 key 와 함께 삭제)
+     * - 반환: 아직 다른 강의가 쓰고 있어서 지우면 안 되는 S3 key
+     */
+    @Transactional
+    public Set<String> release(Lecture lecture) {
+        Long lectureId = lecture.getId();
+        List<String> originalKeys = new ArrayList<>();
+        if (lecture.getOriginalPdfPath() != null) originalKeys.addAll(lecture.getOriginalPdfPath());
+        if (lecture.getOriginalAudioPath() != null) originalKeys.addAll(lecture.getOriginalAudioPath());
+
+        Map<Long, ContentArtifact> alive = new HashMap<>();
+        for (String originalKey : originalKeys) {
+            contentArtifactRepository.findForUpdateByObjectKey(originalKey).ifPresent(artifact -> {
+                artifact.setRefCount(artifact.getRefCount() - 1);
+                if (artifact.getRefCount() <= 0) {
+                    contentArtifactRepository.delete(artifact);
+                    alive.remove(artifact.getId());
+                    return;
+                }
+                if (lectureId.equals(artifact.getChunkLectureId())) {
+                    // 청크 원본 강의가 지워짐 → 같은 내용의 청크를 가진 다른 강의로 넘김
+                    artifact.setChunkLectureId(findOtherChunkLecture(artifact.getContentHash(), lectureId));
+                }
+                alive.put(artifact.getId(), contentArtifactRepository.save(artifact));
+            });
+        }
+
+        Set<String> shared = new HashSet<>();
+        for (ContentArtifact artifact : alive.values()) {
+            shared.add(artifact.getObjectKey());
+            if (artifact.getConvertedKey() != null) shared.add(artifact.getConvertedKey());
+            if (artifact.getTranscriptKey() != null) shared.add(artifact.getTranscriptKey());
+        }
+        return shared;
+    }
+
+    /* ----- 내부 유틸 ----- */
+
+    private Long findOtherChunkLecture(String contentHash, Long lectureId) {
+        return lectureChunkRepository.findFirstByContentHashAndLecture_IdNot(contentHash, lectureId)
+                .map(LectureChunk::getLecture)
+                .or(() -> audioChunkRepository.findFirstByContentHashAndLecture_IdNot(contentHash, lectureId)
+                        .map(AudioChunk::getLecture))
+                .map(Lecture::getId)
+                .orElse(null);
+    }
+
+    private OffsetDateTime now() {
+        return OffsetDateTime.now(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,223 @@
+package com.rag.lecturelens.service;
+
+import com.rag.lecturelens.entity.EmbeddingCacheEntry;
+import com.rag.lecturelens.repository.EmbeddingCacheRepository;
+import com.rag.lecturelens.util.EmbeddingUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * 임베딩 캐시 (2단계)
+ * - key = sha256(model | dimensions | 정규화된 텍스트)
+ * - 1차: 프로세스 내 LRU (바이트 크기 상한으로 evict)
+ * - 2차: Postgres embedding_cache 테이블 (재시작/다른 파드와 공유)
+ * - 캐시 조회/저장 실패는 miss 로 취급 (임베딩 자체를 막지 않음)
+ *   → 2차 조회/저장은 호출한 쪽 트랜잭션과 분리된 별도 트랜잭션(REQUIRES_NEW)에서
+ *     (청크 저장 트랜잭션 안에서 캐시 SQL 이 실패해도 그 트랜잭션이 rollback-only / aborted 가 되지 않음)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmbeddingCacheService {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // key 문자열 + LinkedHashMap 엔트리 + 배열 헤더 대략치
+    private static final long ENTRY_OVERHEAD_BYTES = 256;
+
+    private final EmbeddingCacheRepository embeddingCacheRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.embedding.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.embedding.cache.memory-max-size:64MB}")
+    private DataSize memoryMaxSize;
+
+    // access-order LinkedHashMap = LRU. 조회도 순서를 바꾸므로 읽기/쓰기 모두 lock 안에서
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, float[]> memory = new LinkedHashMap<>(1024, 0.75f, true);
+    private long memoryBytes;
+
+    private Counter memoryHits;
+    private Counter memoryMisses;
+    private Counter dbHits;
+    private Counter dbMisses;
+
+    @PostConstruct
+    void registerMetrics() {
+        memoryHits = counter("memory", "hit");
+        memoryMisses = counter("memory", "miss");
+        dbHits = counter("db", "hit");
+        dbMisses = counter("db", "miss");
+        Gauge.builder("lecturelens.embedding.cache.memory.bytes", this, c -> c.memoryBytes)
+                .baseUnit("bytes")
+                .description("1차(프로세스 내) 임베딩 캐시가 차지하는 대략적인 바이트")
+                .register(meterRegistry);
+        Gauge.builder("lecturelens.embedding.cache.memory.entries", memory, Map::size)
+                .description("1차(프로세스 내) 임베딩 캐시 엔트리 수")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 공백 정리 + 유니코드 정규화 (같은 내용이면 같은 key, 같은 입력이 되도록)
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String nfc = Normalizer.normalize(text, Normalizer.Form.NFC);
+        return WHITESPACE.matcher(nfc).replaceAll(" ").trim();
+    }
+
+    public static String cacheKey(String model, int dimensions, String normalizedText) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((model + "|" + dimensions + "|").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest(normalizedText.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 사용 불가", e);
+        }
+    }
+
+    /**
+     * key 목록 조회 → 찾은 것만 담긴 Map (1차 → 2차 순서, 2차 hit 는 1차로 올림)
+     */
+    public Map<String, float[]> getAll(Collection<String> keys) {
+        Map<String, float[]> found = new HashMap<>();
+        if (!enabled || keys.isEmpty()) {
+            return found;
+        }
+
+        List<String> missed = new ArrayList<>();
+        lock.lock();
+        try {
+            for (String key : keys) {
+                float[] vector = memory.get(key);
+                if (vector != null) {
+                    found.put(key, vector);
+                } else {
+                    missed.add(key);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        memoryHits.increment(found.size());
+        memoryMisses.increment(missed.size());
+
+        if (missed.isEmpty()) {
+            return found;
+        }
+
+        int fromDb = 0;
+        try {
+            List<EmbeddingCacheEntry> entries = ownTransaction(true)
+                    .execute(status -> embeddingCacheRepository.findAllById(missed));
+            for (EmbeddingCacheEntry entry : entries) {
+                float[] vector = EmbeddingUtils.fromBytes(entry.getVector());
+                found.put(entry.getCacheKey(), vector);
+                putMemory(entry.getCacheKey(), vector);
+                fromDb++;
+            }
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("임베딩 캐시(DB) 조회 실패 → miss 처리: {}", e.getMessage());
+        }
+        dbHits.increment(fromDb);
+        dbMisses.increment(missed.size() - fromDb);
+        return found;
+    }
+
+    /**
+     * 새로 만든 임베딩 저장 (양쪽 tier 모두)
+     */
+    public void putAll(String model, int dimensions, Map<String, float[]> vectors) {
+        if (!enabled || vectors.isEmpty()) {
+            return;
+        }
+        vectors.forEach(this::putMemory);
+
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        try {
+            ownTransaction(false).executeWithoutResult(status -> vectors.forEach((key, vector) ->
+                    embeddingCacheRepository.insertIfAbsent(key, model, dimensions, EmbeddingUtils.toBytes(vector), now)));
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("임베딩 캐시(DB) 저장 실패: {}", e.getMessage());
+        }
+    }
+
+    /* ----- 내부 유틸 ----- */
+
+    // 호출한 쪽 트랜잭션은 잠시 보류하고 새 트랜잭션 (실패해도 이 트랜잭션만 롤백)
+    private TransactionTemplate ownTransaction(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.setReadOnly(readOnly);
+        return template;
+    }
+
+    private void putMemory(String key, float[] vector) {
+        long size = sizeOf(vector);
+        long max = memoryMaxSize.toBytes();
+        if (size > max) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            float[] previous = memory.put(key, vector);
+            if (previous != null) {
+                memoryBytes -= sizeOf(previous);
+            }
+            memoryBytes += size;
+
+            // 가장 오래 안 쓰인 것부터 상한 아래로 내려갈 때까지 제거
+            Iterator<float[]> eldest = memory.values().iterator();
+            while (memoryBytes > max && eldest.hasNext()) {
+                memoryBytes -= sizeOf(eldest.next());
+                eldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static long sizeOf(float[] vector) {
+        return (long) vector.length * Float.BYTES + ENTRY_OVERHEAD_BYTES;
+    }
+
+    private Counter counter(String tier, String result) {
+        return Counter.builder("lecturelens.embedding.cache")
+                .tag("tier", tier)
+                .tag("result", result)
+                .description("임베딩 캐시 조회 결과")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,93 @@
+package com.rag.lecturelens.service;
+
+import com.rag.lecturelens.embedding.EmbeddingProvider;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * 임베딩 진입점 (청크 / 요약 서비스는 이것만 사용, 어떤 provider 인지 모름)
+ * - 캐시(메모리 → DB)를 먼저 보고, 없는 텍스트만 provider 로 요청 (같은 텍스트는 한 번만)
+ * - 벡터 차원은 provider 설정(app.embedding.dimensions)을 따름
+ *   저장하는 쪽은 modelId() / dimensions() 를 청크에 같이 기록 → 다른 모델 / 차원 벡터와 비교되지 않음
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmbeddingService {
+
+    private final EmbeddingProvider embeddingProvider;
+    private final EmbeddingCacheService embeddingCacheService;
+
+    /** 청크의 embedding_model 로 저장하는 값 */
+    public String modelId() {
+        return embeddingProvider.modelId();
+    }
+
+    /** 청크의 embedding_dims 로 저장하는 값 (= 모든 출력 벡터 길이) */
+    public int dimensions() {
+        return embeddingProvider.dimensions();
+    }
+
+    /** 저장된 벡터가 지금 설정(모델 / 차원)으로 만든 것인지 - 아니면 비교 / 복사하지 말고 다시 임베딩 */
+    public boolean isCurrent(String model, Integer dims) {
+        return modelId().equals(model) && dims != null && dims == dimensions();
+    }
+
+    public float[] embed(String text) {
+        return embedAll(List.of(text)).get(0);
+    }
+
+    /**
+     * 여러 텍스트 임베딩 (입력 순서 그대로 반환)
+     */
+    public List<float[]> embedAll(List<String> texts) {
+        if (texts.isEmpty()) {
+            return List.of();
+        }
+
+        String model = embeddingProvider.modelId();
+        int dimensions = embeddingProvider.dimensions();
+
+        // 정규화된 텍스트 key → 입력 위치들
+        Map<String, List<Integer>> positions = new LinkedHashMap<>();
+        Map<String, String> normalizedByKey = new HashMap<>();
+        for (int i = 0; i < texts.size(); i++) {
+            String normalized = EmbeddingCacheService.normalize(texts.get(i));
+            String key = EmbeddingCacheService.cacheKey(model, dimensions, normalized);
+            positions.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+            normalizedByKey.putIfAbsent(key, normalized);
+        }
+
+        Map<String, float[]> vectors = embeddingCacheService.getAll(positions.keySet());
+
+        List<String> missedKeys = positions.keySet().stream()
+                .filter(key -> !vectors.containsKey(key))
+                .toList();
+        if (!missedKeys.isEmpty()) {
+            List<float[]> created = embeddingProvider.embed(missedKeys.stream().map(normalizedByKey::get).toList());
+            Map<String, float[]> fresh = new LinkedHashMap<>();
+            for (int i = 0; i < missedKeys.size(); i++) {
+                fresh.put(missedKeys.get(i), checkDimensions(created.get(i), dimensions));
+            }
+            embeddingCacheService.putAll(model, dimensions, fresh);
+            vectors.putAll(fresh);
+        }
+
+        float[][] result = new float[texts.size()][];
+        positions.forEach((key, idx) -> idx.forEach(i -> result[i] = vectors.get(key)));
+
+        log.info("🧮 임베딩 완료: model={}, inputs={}, cached={}, requested={}",
+                model, texts.size(), positions.size() - missedKeys.size(), missedKeys.size());
+        return Arrays.asList(result);
+    }
+
+    private float[] checkDimensions(float[] vector, int dimensions) {
+        if (vector.length != dimensions) {
+            throw new IllegalStateException("임베딩 차원이 설정과 다름: " + vector.length + " != " + dimensions);
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,252 @@
+package com.rag.lecturelens.service;
+
+import com.rag.lecturelens.domain.ChunkSource;
+import com.rag.lecturelens.domain.WorkloadType;
+import com.rag.lecturelens.dto.RetrievedChunk;
+import com.rag.lecturelens.dto.VectorSearchOptions;
+import com.rag.lecturelens.executor.PipelineExecutors;
+import com.rag.lecturelens.repository.AudioChunkRepository;
+import com.rag.lecturelens.repository.LectureChunkRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 강의 청크 하이브리드 검색 (벡터 + 키워드)
+ * - 범위: 강의 하나(lectureId) 또는 사용자의 전체 강의(userId, chunk.user_id 필터)
+ * - 소스(슬라이드 / 음성)마다 벡터 검색과 키워드 검색을 RETRIEVAL 레인에서 동시에 실행
+ * - 결과는 Reciprocal Rank Fusion 으로 합침: score = Σ 1 / (rrf-k + 순위)
+ *   → 점수 스케일이 다른 두 검색을 순위만으로 합칠 수 있음
+ * - 질의 예산 (모든 다리가 공유)
+ *   - 시간: app.retrieval.timeout 안에 끝난 다리만 합침 (DB 쪽도 같은 값으로 statement_timeout)
+ *   - 후보 수: app.retrieval.max-candidates 를 다리 수로 나눠서 가져옴 (최소 topN)
+ * - 강의 하나 범위의 벡터 검색은 LectureVectorCache (in-JVM, 정확 검색) 로 - 같은 강의 반복 질의에서 DB 왕복 없음
+ * - 키워드 질의: 질의 텍스트에서 자주 나온 용어 max-terms 개 (한국어 용어 / 수식 기호 이름처럼 임베딩이 놓치는 것 보완)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HybridRetrievalService {
+
+    private static final Pattern TERM = Pattern.compile("[\\p{L}\\p{N}]{2,}");
+
+    // 키워드로서 의미 없는 흔한 말
+    private static final Set<String> STOPWORDS = Set.of(
+            "그리고", "그러면", "그래서", "하지만", "그런데", "이제", "여기", "이것", "저것", "그것",
+            "있는", "있다", "없는", "없다", "하는", "한다", "합니다", "입니다", "있습니다", "됩니다",
+            "우리", "여러분", "이렇게", "그렇게", "어떤", "무엇", "같은", "대한", "위한", "때문",
+            "the", "and", "for", "with", "that", "this", "are", "was", "from", "into"
+    );
+
+    private final LectureChunkRepository lectureChunkRepository;
+    private final AudioChunkRepository audioChunkRepository;
+    private final LectureVectorCache lectureVectorCache;
+    private final PipelineExecutors pipelineExecutors;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.retrieval.timeout:PT3S}")
+    private Duration timeout;
+
+    @Value("${app.retrieval.max-candidates:120}")
+    private int maxCandidates;
+
+    @Value("${app.retrieval.rrf-k:60}")
+    private int rrfK;
+
+    @Value("${app.retrieval.lexical.enabled:true}")
+    private boolean lexicalEnabled;
+
+    @Value("${app.retrieval.lexical.max-terms:12}")
+    private int maxTerms;
+
+    /**
+     * 강의 하나에서 질의와 관련된 청크 topN (RRF 점수 내림차순)
+     *
+     * @param queryText 키워드 검색용 질의 텍스트 (null 이면 벡터 검색만)
+     * @param queryVec  queryText 의 임베딩 (EmbeddingService 결과)
+     */
+    public List<RetrievedChunk> retrieve(Long lectureId,
+                                         String queryText,
+                                         float[] queryVec,
+                                         int topN,
+                                         Set<ChunkSource> sources) {
+        return retrieve(new Scope(lectureId, null), queryText, queryVec, topN, sources);
+    }
+
+    /**
+     * 사용자의 모든 강의에서 질의와 관련된 청크 topN (RRF 점수 내림차순)
+     */
+    public List<RetrievedChunk> retrieveForUser(String userId,
+                                                String queryText,
+                                                float[] queryVec,
+                                                int topN,
+                                                Set<ChunkSource> sources) {
+        return retrieve(new Scope(null, userId), queryText, queryVec, topN, sources);
+    }
+
+    /**
+     * 질의 텍스트 → "용어1|용어2|..." (빈도 높은 순, 글자 / 숫자 2자 이상, 불용어 제외)
+     * 글자 / 숫자만 남기므로 정규식 메타문자가 들어가지 않음. 용어가 없으면 null
+     */
+    static String lexicalPattern(String text, int maxTerms) {
+        if (text == null || text.isBlank() || maxTerms <= 0) {
+            return null;
+        }
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        Matcher m = TERM.matcher(text.toLowerCase(Locale.ROOT));
+        while (m.find()) {
+            String term = m.group();
+            if (!STOPWORDS.contains(term)) {
+                counts.merge(term, 1, Integer::sum);
+            }
+        }
+        if (counts.isEmpty()) {
+            return null;
+        }
+        // 정렬이 안정적이라 빈도가 같으면 먼저 나온 용어가 앞
+        return String.join("|", counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .limit(maxTerms)
+                .map(Map.Entry::getKey)
+                .toList());
+    }
+
+    /* ----- 내부 유틸 ----- */
+
+    // lectureId / userId 중 하나 (null 이면 조건 없음)
+    private record Scope(Long lectureId, String userId) {
+        VectorSearchOptions vectorOptions(int topN) {
+            return lectureId != null ? VectorSearchOptions.ofLecture(lectureId, topN) : VectorSearchOptions.ofUser(userId, topN);
+        }
+
+        @Override
+        public String toString() {
+            return lectureId != null ? "lectureId=" + lectureId : "userId=" + userId;
+        }
+    }
+
+    private List<RetrievedChunk> retrieve(Scope scope,
+                                          String queryText,
+                                          float[] queryVec,
+                                          int topN,
+                                          Set<ChunkSource> sources) {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        String pattern = lexicalEnabled ? lexicalPattern(queryText, maxTerms) : null;
+
+        List<Leg> legs = new ArrayList<>();
+        for (ChunkSource source : sources) {
+            legs.add(new Leg(source, LegType.VECTOR));
+            if (pattern != null) {
+                legs.add(new Leg(source, LegType.LEXICAL));
+            }
+        }
+        int perLeg = Math.max(topN, maxCandidates / Math.max(legs.size(), 1));
+
+        List<Future<List<RetrievedChunk>>> futures = new ArrayList<>();
+        for (Leg leg : legs) {
+            futures.add(pipelineExecutors.submit(WorkloadType.RETRIEVAL,
+                    () -> runLeg(leg, scope, queryVec, pattern, perLeg)));
+        }
+
+        Map<String, RetrievedChunk> chunks = new LinkedHashMap<>();
+        Map<String, Double> scores = new LinkedHashMap<>();
+        int failed = 0;
+        for (int i = 0; i < legs.size(); i++) {
+            Optional<List<RetrievedChunk>> ranked = await(legs.get(i), futures.get(i), deadline);
+            if (ranked.isEmpty()) {
+                failed++;
+                continue;
+            }
+            List<RetrievedChunk> list = ranked.get();
+            for (int rank = 0; rank < list.size(); rank++) {
+                RetrievedChunk chunk = list.get(rank);
+                chunks.putIfAbsent(chunk.key(), chunk);
+                scores.merge(chunk.key(), 1.0 / (rrfK + rank + 1), Double::sum);
+            }
+        }
+        if (!legs.isEmpty() && failed == legs.size()) {
+            throw new IllegalStateException("청크 검색 실패: " + scope + " (모든 검색 실패)");
+        }
+
+        List<RetrievedChunk> result = scores.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                .limit(topN)
+                .map(e -> chunks.get(e.getKey()).withScore(e.getValue()))
+                .toList();
+
+        Timer.builder("lecturelens.retrieval")
+                .description("하이브리드 청크 검색 시간 (모든 다리 + 합치기)")
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        log.debug("🔎 하이브리드 검색: {}, legs={}, failed={}, terms={}, results={}",
+                scope, legs.size(), failed, pattern, result.size());
+        return result;
+    }
+
+    private enum LegType { VECTOR, LEXICAL }
+
+    private record Leg(ChunkSource source, LegType type) {
+        String tag() {
+            return source.name().toLowerCase() + "_" + type.name().toLowerCase();
+        }
+    }
+
+    private List<RetrievedChunk> runLeg(Leg leg, Scope scope, float[] queryVec, String pattern, int limit) {
+        if (leg.type() == LegType.VECTOR && scope.lectureId() != null && lectureVectorCache.isEnabled()) {
+            return lectureVectorCache.search(scope.lectureId(), leg.source(), queryVec, limit);
+        }
+        VectorSearchOptions options = scope.vectorOptions(limit).withTimeout(timeout);
+        return switch (leg.source()) {
+            case SLIDE -> (leg.type() == LegType.VECTOR
+                    ? lectureChunkRepository.searchTopN(queryVec, options)
+                    : lectureChunkRepository.searchLexical(scope.lectureId(), scope.userId(), pattern, limit, timeout))
+                    .stream().map(RetrievedChunk::of).toList();
+            case AUDIO -> (leg.type() == LegType.VECTOR
+                    ? audioChunkRepository.searchTopN(queryVec, options)
+                    : audioChunkRepository.searchLexical(scope.lectureId(), scope.userId(), pattern, limit, timeout))
+                    .stream().map(RetrievedChunk::of).toList();
+        };
+    }
+
+    // 예산 안에 끝나지 않았거나 실패한 다리는 빼고 합침 (나머지 결과로 계속 진행)
+    private Optional<List<RetrievedChunk>> await(Leg leg, Future<List<RetrievedChunk>> future, long deadline) {
+        try {
+            return Optional.of(future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            countFailure(leg, "timeout");
+            log.warn("검색 예산 초과로 제외: leg={}, timeout={}", leg.tag(), timeout);
+        } catch (ExecutionException e) {
+            countFailure(leg, "error");
+            log.warn("검색 실패로 제외: leg={}, error={}", leg.tag(), e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("청크 검색 대기 중 인터럽트", e);
+        }
+        return Optional.empty();
+    }
+
+    private void countFailure(Leg leg, String reason) {
+        Counter.builder("lecturelens.retrieval.leg.failed")
+                .tag("leg", leg.tag())
+                .tag("reason", reason)
+                .description("예산 초과 / 오류로 결과에서 빠진 검색 다리 수")
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,205 @@
+package com.rag.lecturelens.service;
+
+import com.rag.lecturelens.domain.ChunkSource;
+import com.rag.lecturelens.domain.WorkloadType;
+import com.rag.lecturelens.dto.AskSource;
+import com.rag.lecturelens.dto.RetrievedChunk;
+import com.rag.lecturelens.executor.PipelineExecutors;
+import com.rag.lecturelens.openai.ChatStreamReader;
+import com.rag.lecturelens.openai.OpenAiClient;
+import com.rag.lecturelens.openai.OpenAiCost;
+import com.rag.lecturelens.repository.LectureRepository;
+import com.rag.lecturelens.vector.MmrReranker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 강의 질의응답 (RAG, SSE 스트리밍)
+ * - 질문을 한 번 임베딩 → 강의 청크 하이브리드 검색 → MMR 로 context 선택 → chat completion 을 stream 으로 호출
+ * - 이벤트 순서: sources (근거 청크: 슬라이드 번호 / 음성 구간) → token (답변 조각, 도착하는 대로) → done
+ * - 실행은 ASK 레인 (요약 작업이 LLM 레인을 채우고 있어도 대기하지 않음)
+ * - OpenAI 호출은 chat-ask 키로 (요약과 동시 요청 제한 / 서킷을 나눠 씀 → app.openai.endpoints.chat-ask.*)
+ * - 클라이언트가 연결을 끊으면 OpenAI 스트림도 중단
+ * - 메트릭: lecturelens.ask.ttft (요청 → 첫 토큰), lecturelens.ask.duration (요청 → 답변 끝)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LectureAskService {
+
+    private static final String OPENAI_ENDPOINT = "chat-ask";
+
+    private final LectureRepository lectureRepository;
+    private final EmbeddingService embeddingService;
+    private final HybridRetrievalService hybridRetrievalService;
+    private final OpenAiClient openAiClient;
+    private final PipelineExecutors pipelineExecutors;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.ask.model:gpt-4.1-mini}")
+    private String model;
+
+    @Value("${app.ask.max-tokens:1000}")
+    private int maxTokens;
+
+    @Value("${app.ask.candidates:40}")
+    private int candidates;
+
+    @Value("${app.ask.context-chunks:8}")
+    private int contextChunks;
+
+    @Value("${app.ask.mmr-lambda:0.7}")
+    private double mmrLambda;
+
+    /**
+     * 강의 소유자 / 질문 확인은 스트림 시작 전에 (잘못된 요청은 SSE 가 아니라 400 으로)
+     */
+    public Flux<ServerSentEvent<String>> ask(Long lectureId, String userId, String question) {
+        if (question == null || question.isBlank()) {
+            throw new IllegalArgumentException("질문이 비어 있습니다.");
+        }
+        lectureRepository.findByIdAndUser_UserId(lectureId, userId)
+                .orElseThrow(() -> new IllegalArgumentException("해당 강의를 찾을 수 없습니다."));
+
+        long start = System.nanoTime();
+        return Flux.create(sink -> {
+            Future<Void> task = pipelineExecutors.submit(WorkloadType.ASK, () -> {
+                answer(sink, lectureId, question.strip(), start);
+                return null;
+            });
+            sink.onDispose(() -> task.cancel(true));
+        });
+    }
+
+    /* ----- 내부 유틸 ----- */
+
+    private void answer(FluxSink<ServerSentEvent<String>> sink, Long lectureId, String question, long start) {
+        try {
+            float[] queryVec = embeddingService.embed(question);
+            List<RetrievedChunk> pool = hybridRetrievalService.retrieve(
+                    lectureId, question, queryVec, candidates, EnumSet.allOf(ChunkSource.class));
+            List<RetrievedChunk> chunks = MmrReranker.rerank(queryVec, pool, contextChunks, mmrLambda);
+
+            sink.next(event("sources", objectMapper.writeValueAsString(chunks.stream().map(AskSource::of).toList())));
+
+            String prompt = buildPrompt(question, chunks);
+            boolean[] first = {true};
+            String answer = openAiClient.postJson("/chat/completions", OPENAI_ENDPOINT,
+                    OpenAiCost.of(model, OpenAiCost.estimateTokens(prompt) + maxTokens),
+                    buildPayload(prompt),
+                    new ChatStreamReader(objectMapper, delta -> {
+                        if (first[0]) {
+                            first[0] = false;
+                            record("lecturelens.ask.ttft", "질문 → 첫 답변 토큰까지 걸린 시간", start);
+                        }
+                        sink.next(event("token", delta));
+                    }, sink::isCancelled));
+
+            sink.next(event("done", ""));
+            sink.complete();
+            record("lecturelens.ask.duration", "질문 → 답변 끝까지 걸린 시간", start);
+            log.debug("💬 질의응답 완료: lectureId={}, chunks={}, answerLength={}", lectureId, chunks.size(), answer.length());
+
+        } catch (CancellationException e) {
+            log.debug("질의응답 취소 (연결 끊김): lectureId={}", lectureId);
+        } catch (RuntimeException e) {
+            // 연결이 끊기면 task.cancel(true) 로 인터럽트 → 대기 중이던 곳에서 다른 예외로 나옴. 이미 닫힌 sink 에는 보내지 않음
+            if (sink.isCancelled() || isInterrupt(e)) {
+                log.debug("질의응답 취소 (연결 끊김): lectureId={}, error={}", lectureId, e.getMessage());
+                return;
+            }
+            log.warn("질의응답 실패: lectureId={}, error={}", lectureId, e.getMessage());
+            sink.error(e);
+        }
+    }
+
+    private static boolean isInterrupt(Throwable e) {
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof InterruptedException || t instanceof CancellationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String buildPrompt(String question, List<RetrievedChunk> chunks) {
+        StringBuilder ctx = new StringBuilder();
+        for (RetrievedChunk c : chunks) {
+            ctx.append("### ").append(label(c)).append("\n");
+            ctx.append(c.text()).append("\n\n");
+        }
+        return """
+        아래 강의 자료(슬라이드 / 강의 음성 받아쓰기)만 근거로 학생의 질문에 답한다.
+
+        규칙:
+        - 자료에 없는 내용은 만들지 않고 "강의 자료에서 찾을 수 없음"이라고 답한다.
+        - 근거가 된 위치를 (슬라이드 N) 또는 (음성 mm:ss) 형식으로 문장 끝에 표시한다.
+        - 간결하게 답하고, 교수가 한 설명이 있으면 그 표현을 살린다.
+
+        [강의 자료]
+        %s
+        [질문]
+        %s
+        """.formatted(ctx, question);
+    }
+
+    private String buildPayload(String prompt) {
+        return """
+            {
+              "model": %s,
+              "messages": [
+                {"role": "system", "content": "너는 한국 대학 강의 내용을 설명해 주는 조교이다."},
+                {"role": "user", "content": %s}
+              ],
+              "temperature": 0.2,
+              "max_tokens": %d,
+              "stream": true
+            }
+        """.formatted(objectMapper.writeValueAsString(model), objectMapper.writeValueAsString(prompt), maxTokens);
+    }
+
+    // 예: 슬라이드 3 / 음성 12:05~12:40
+    private static String label(RetrievedChunk c) {
+        if (c.source() == ChunkSource.SLIDE && c.slideNo() != null) {
+            return "슬라이드 " + c.slideNo();
+        }
+        if (c.startSec() != null) {
+            return "음성 " + clock(c.startSec()) + (c.endSec() != null ? "~" + clock(c.endSec()) : "");
+        }
+        return c.source() == ChunkSource.SLIDE ? "슬라이드" : "음성";
+    }
+
+    private static String clock(int seconds) {
+        return "%d:%02d".formatted(seconds / 60, seconds % 60);
+    }
+
+    private static ServerSentEvent<String> event(String name, String data) {
+        return ServerSentEvent.<String>builder().event(name).data(data).build();
+    }
+
+    private void record(String name, String description, long start) {
+        Timer.builder(name)
+                .tag("model", model)
+                .description(description)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
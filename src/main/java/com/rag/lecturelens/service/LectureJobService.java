@@ -0,0 +1,312 @@
+package com.rag.lecturelens.service;
+
+import com.rag.lecturelens.domain.JobStatus;
+import com.rag.lecturelens.domain.PipelineStage;
+import com.rag.lecturelens.entity.LectureJob;
+import com.rag.lecturelens.entity.LectureJobStage;
+import com.rag.lecturelens.repository.LectureJobRepository;
+import com.rag.lecturelens.repository.LectureJobStageRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 강의 처리 작업(lecture_job) + 단계별 체크포인트(lecture_job_stage) 관리
+ * - 단계가 DONE 이면 저장된 output 을 그대로 돌려주고 재실행하지 않는다.
+ * - 재시작/재시도 시 첫 번째 미완료 단계부터 이어서 처리된다.
+ * - 선점은 lease (lease_owner / lease_until): 실행 중에는 heartbeat 로 계속 연장하고,
+ *   연장이 끊긴(인스턴스가 죽은) 작업만 만료 후 복구 대상이 된다. 긴 STT / 요약 단계도 중복 실행되지 않음
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LectureJobService {
+
+    private final LectureJobRepository lectureJobRepository;
+    private final LectureJobStageRepository lectureJobStageRepository;
+
+    @Value("${app.job.lease:PT5M}")
+    private Duration lease;
+
+    // lease 보다 충분히 짧게 (기본: 5분 lease 를 1분마다 연장)
+    @Value("${app.job.heartbeat-interval:PT1M}")
+    private Duration heartbeatInterval;
+
+    // lease 컬럼 도입 전에 선점된 작업(lease_until 없음)의 stale 판정 기준
+    @Value("${app.job.stale-after:PT30M}")
+    private Duration legacyStaleAfter;
+
+    // 이 인스턴스 식별자 (재시작하면 바뀜 → 이전 프로세스의 lease 는 연장되지 않고 만료)
+    private final String owner = System.getenv().getOrDefault("HOSTNAME", "local")
+            + "-" + UUID.randomUUID().toString().substring(0, 8);
+
+    // 이 인스턴스가 실행 중인 작업 (heartbeat 대상)
+    private final Set<Long> held = ConcurrentHashMap.newKeySet();
+
+    // @Scheduled 공용 스레드는 다른 스케줄 작업(백필 등)에 막힐 수 있으므로 heartbeat 전용 스레드
+    private ScheduledExecutorService heartbeats;
+
+    @PostConstruct
+    void startHeartbeat() {
+        heartbeats = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("job-heartbeat").daemon().factory());
+        long period = heartbeatInterval.toMillis();
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, period, period, TimeUnit.MILLISECONDS);
+        log.info("💓 작업 lease: owner={}, lease={}, heartbeat={}", owner, lease, heartbeatInterval);
+    }
+
+    @PreDestroy
+    void stopHeartbeats() {
+        heartbeats.shutdownNow();
+    }
+
+    /**
+     * 업로드 직후 작업 생성 + UPLOAD 단계는 완료 상태로 기록
+     */
+    @Transactional
+    public LectureJob createJob(Long lectureId,
+                                String userId,
+                                List<String> docOriginalKeys,
+                                List<String> audioOriginalKeys) {
+        LectureJob job = lectureJobRepository.save(LectureJob.builder()
+                .lectureId(lectureId)
+                .userId(userId)
+                .status(JobStatus.PENDING)
+                .attempts(0)
+                .build());
+
+        OffsetDateTime now = now();
+        lectureJobStageRepository.save(LectureJobStage.builder()
+                .job(job)
+                .stage(PipelineStage.UPLOAD)
+                .status(JobStatus.DONE)
+                .output(Map.of(
+                        "docOriginalKeys", docOriginalKeys,
+                        "audioOriginalKeys", audioOriginalKeys
+                ))
+                .startedAt(now)
+                .finishedAt(now)
+                .build());
+        return job;
+    }
+
+    /**
+     * PENDING → RUNNING 선점 + lease 획득. 이미 다른 스레드/파드가 실행 중이면 false
+     * - 선점에 성공하면 stopHeartbeat 전까지 heartbeat 로 lease 를 연장
+     */
+    @Transactional
+    public boolean claim(Long lectureId) {
+        OffsetDateTime now = now();
+        if (lectureJobRepository.claim(lectureId, owner, now.plus(lease), now) != 1) {
+            return false;
+        }
+        held.add(lectureId);
+        return true;
+    }
+
+    /**
+     * 실행 중인 작업들의 lease 연장 (heartbeat 스레드에서 주기적으로)
+     * - 연장 실패 = 이미 끝났거나 lease 가 만료돼 다른 인스턴스가 가져감 → 더 이상 연장하지 않음
+     * - DB 오류는 다음 주기에 다시 시도 (예외가 나가면 주기 실행이 멈춤)
+     */
+    void heartbeat() {
+        for (Long lectureId : held) {
+            try {
+                renew(lectureId);
+            } catch (RuntimeException e) {
+                log.warn("작업 lease 연장 실패: lectureId={}, error={}", lectureId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 작업 실행이 끝나면 (성공 / 실패 / 보류 / 예외 모두) 호출
+     */
+    public void stopHeartbeat(Long lectureId) {
+        held.remove(lectureId);
+    }
+
+    public LectureJob getJob(Long lectureId) {
+        return lectureJobRepository.findByLectureId(lectureId)
+                .orElseThrow(() -> new IllegalArgumentException("Lecture job not found: " + lectureId));
+    }
+
+    public Optional<LectureJob> findJob(Long lectureId) {
+        return lectureJobRepository.findByLectureId(lectureId);
+    }
+
+    /**
+     * 단계 실행 (체크포인트)
+     * - 이미 DONE 이면 저장된 output 반환 (no-op)
+     * - 아니면 work 실행 후 output 과 함께 DONE 기록
+     */
+    public Map<String, Object> runStage(LectureJob job,
+                                        PipelineStage stage,
+                                        Supplier<Map<String, Object>> work) {
+        LectureJobStage record = lectureJobStageRepository.findByJob_IdAndStage(job.getId(), stage)
+                .orElseGet(() -> LectureJobStage.builder()
+                        .job(job)
+                        .stage(stage)
+                        .build());
+
+        if (record.getStatus() == JobStatus.DONE) {
+            log.info("⏭ 단계 건너뜀 (이미 완료): lectureId={}, stage={}", job.getLectureId(), stage);
+            return record.getOutput() == null ? Map.of() : record.getOutput();
+        }
+
+        record.setStatus(JobStatus.RUNNING);
+        record.setStartedAt(now());
+        record = lectureJobStageRepository.save(record);
+        renew(job.getLectureId());
+
+        Map<String, Object> output = work.get();
+
+        record.setStatus(JobStatus.DONE);
+        record.setOutput(output);
+        record.setFinishedAt(now());
+        lectureJobStageRepository.save(record);
+        log.info("✅ 단계 완료: lectureId={}, stage={}", job.getLectureId(), stage);
+        return output;
+    }
+
+    /**
+     * 이미 완료된 단계의 output 조회 (없으면 예외)
+     */
+    public Map<String, Object> requireOutput(LectureJob job, PipelineStage stage) {
+        return lectureJobStageRepository.findByJob_IdAndStage(job.getId(), stage)
+                .filter(s -> s.getStatus() == JobStatus.DONE)
+                .map(LectureJobStage::getOutput)
+                .orElseThrow(() -> new IllegalStateException(
+                        "완료되지 않은 단계: lectureId=" + job.getLectureId() + ", stage=" + stage));
+    }
+
+    @Transactional
+    public void complete(Long lectureId) {
+        updateStatus(lectureId, JobStatus.DONE, null);
+    }
+
+    @Transactional
+    public void fail(Long lectureId, String error) {
+        updateStatus(lectureId, JobStatus.FAILED, error);
+    }
+
+    /**
+     * 외부 의존성(OpenAI) 일시 불가 → 실패 처리하지 않고 PENDING 으로 보류
+     * - 복구 스케줄러가 다음 주기에 첫 번째 미완료 단계부터 다시 실행
+     */
+    @Transactional
+    public void park(Long lectureId, String reason) {
+        updateStatus(lectureId, JobStatus.PENDING, reason);
+    }
+
+    /**
+     * 실패한 작업을 다시 PENDING 으로 (완료된 단계는 그대로 유지)
+     */
+    @Transactional
+    public void resetForRetry(Long lectureId) {
+        LectureJob job = getJob(lectureId);
+        if (job.getStatus() == JobStatus.RUNNING || job.getStatus() == JobStatus.DONE) {
+            throw new IllegalArgumentException("재시도할 수 없는 작업 상태입니다: " + job.getStatus());
+        }
+        job.setStatus(JobStatus.PENDING);
+        job.setLastError(null);
+        lectureJobRepository.save(job);
+    }
+
+    /**
+     * lease 가 만료된(주인을 잃은) RUNNING 작업을 PENDING 으로 되돌림 (재시작 복구용)
+     */
+    @Transactional
+    public int releaseExpiredLeases() {
+        OffsetDateTime now = now();
+        return lectureJobRepository.releaseExpired(now, now.minus(legacyStaleAfter));
+    }
+
+    public List<Long> findPendingLectureIds() {
+        return lectureJobRepository.findByStatusOrderByIdAsc(JobStatus.PENDING).stream()
+                .map(LectureJob::getLectureId)
+                .toList();
+    }
+
+    /**
+     * 작업 중간 산출물(S3) key 목록 - 강의 삭제 시 같이 지우기 위함
+     */
+    public List<String> intermediateKeys(Long lectureId) {
+        List<String> keys = new ArrayList<>();
+        findJob(lectureId).ifPresent(job -> {
+            for (LectureJobStage s : lectureJobStageRepository.findByJob_Id(job.getId())) {
+                if (s.getOutput() == null) continue;
+                keys.addAll(stringList(s.getOutput(), "transcriptKeys"));
+                Object summaryKey = s.getOutput().get("summaryKey");
+                if (summaryKey != null) keys.add(summaryKey.toString());
+            }
+        });
+        return keys;
+    }
+
+    @Transactional
+    public void deleteJob(Long lectureId) {
+        findJob(lectureId).ifPresent(job -> {
+            lectureJobStageRepository.deleteByJob_Id(job.getId());
+            lectureJobRepository.delete(job);
+        });
+    }
+
+    /* ----- output 헬퍼 ----- */
+
+    public static List<String> stringList(Map<String, Object> output, String name) {
+        Object value = output.get(name);
+        if (!(value instanceof List<?> list)) {
+            return List.of();
+        }
+        return list.stream().map(String::valueOf).toList();
+    }
+
+    public static String string(Map<String, Object> output, String name) {
+        Object value = output.get(name);
+        return value == null ? null : value.toString();
+    }
+
+    /* ----- 내부 유틸 ----- */
+
+    private void updateStatus(Long lectureId, JobStatus status, String error) {
+        lectureJobRepository.findByLectureId(lectureId).ifPresent(job -> {
+            job.setStatus(status);
+            job.setLastError(error);
+            job.setLeaseOwner(null);
+            job.setLeaseUntil(null);
+            lectureJobRepository.save(job);
+        });
+        held.remove(lectureId);
+    }
+
+    private void renew(Long lectureId) {
+        OffsetDateTime now = now();
+        if (lectureJobRepository.renewLease(lectureId, owner, now.plus(lease), now) == 0 && held.remove(lectureId)) {
+            log.warn("⚠ 작업 lease 를 잃음 (이미 종료됐거나 다른 인스턴스가 가져감): lectureId={}", lectureId);
+        }
+    }
+
+    private OffsetDateTime now() {
+        return OffsetDateTime.now(ZoneOffset.UTC);
+    }
+}
@@ -1,11 +1,18 @@
 package com.rag.lecturelens.service;
 
 import com.rag.lecturelens.dto.DownloadFile;
+import com.rag.lecturelens.dto.DownloadUrlResponse;
 import com.rag.lecturelens.dto.LectureStatusResponse;
-import com.rag.lecturelens.dto.UploadFileData;
+import com.rag.lecturelens.dto.StoredObject;
 import com.rag.lecturelens.entity.AppUser;
 import com.rag.lecturelens.entity.Lecture;
+import com.rag.lecturelens.entity.LectureJob;
 import com.rag.lecturelens.domain.LectureStatus;
+import com.rag.lecturelens.domain.PipelineStage;
+import com.rag.lecturelens.domain.WorkloadType;
+import com.rag.lecturelens.exceptionHandler.RangeNotSatisfiableException;
+import com.rag.lecturelens.executor.PipelineExecutors;
+import com.rag.lecturelens.openai.OpenAiUnavailableException;
 import com.rag.lecturelens.repository.AudioChunkRepository;
 import com.rag.lecturelens.repository.LectureChunkRepository;
 import com.rag.lecturelens.repository.LectureRepository;
@@ -14,14 +21,24 @@ import com.rag.lecturelens.util.ValidateExtension;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpRange;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
 
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -39,6 +56,13 @@ public class LectureService {
     private final LectureChunkRepository lectureChunkRepository;
     private final AudioChunkRepository audioChunkRepository;
     private final ValidateExtension ValidateExtension;
+    private final LectureJobService lectureJobService;
+    private final PipelineExecutors pipelineExecutors;
+    private final ContentArtifactService contentArtifactService;
+    private final LectureVectorCache lectureVectorCache;
+
+    @Value("${app.download.url-ttl:PT5M}")
+    private Duration downloadUrlTtl;
 
     // LectureService
     @Transactional
@@ -53,101 +77,301 @@ public class LectureService {
     }
 
 
-    @Async
-    public void processLectureAsync(
-            Long lectureId,
-            String userId,
-            List<UploadFileData> documentFiles,
-            List<UploadFileData> audioFiles
-    ) {
-
-        List<String> docExt = getExtension(documentFiles);
-        List<String> audioExt = getExtension(audioFiles);
-
-        for (String ext : docExt) {
+    /**
+     * 업로드 파일 확장자 검증 (사용량 차감 / S3 업로드 전에 호출)
+     */
+    public void validateUploadFiles(MultipartFile[] documentFiles, MultipartFile[] audioFiles) {
+        for (String ext : getExtension(documentFiles)) {
             ValidateExtension.validateDocumentExtension(ext);
         }
-        for (String ext : audioExt) {
+        for (String ext : getExtension(audioFiles)) {
             ValidateExtension.validateAudioExtension(ext);
         }
+    }
 
+    /**
+     * 원본 파일을 요청 스트림에서 바로 S3로 업로드하고, key를 Lecture에 저장
+     * - 비동기 작업에는 byte[] 대신 S3 key만 넘기기 위함
+     * - 업로드하면서 계산한 해시로 중복 파일이면 기존 원본 key 를 공유 (ContentArtifactService)
+     */
+    public Lecture storeOriginalFiles(Long lectureId,
+                                      String userId,
+                                      MultipartFile[] documentFiles,
+                                      MultipartFile[] audioFiles) {
         Lecture lecture = lectureRepository.findById(lectureId)
                 .orElseThrow(() -> new IllegalArgumentException("Lecture not found: " + lectureId));
 
         try {
-            // 1) 원본 S3 업로드 (UploadFileData → bytes 기반)
-            List<String> docOriginalKey = s3StorageService.uploadOriginalBytes(
-                    userId, lectureId, "original_", documentFiles
-            );
+            // 문서 + 오디오를 한 번에 동시에 업로드
+            MultipartFile[] allFiles = Stream.concat(Arrays.stream(documentFiles), Arrays.stream(audioFiles))
+                    .toArray(MultipartFile[]::new);
+            List<StoredObject> stored = s3StorageService.uploadOriginalFile(userId, lectureId, "original_", allFiles);
 
-            List<String> audioOriginalKey = s3StorageService.uploadOriginalBytes(
-                    userId, lectureId, "original_", audioFiles
+            List<String> docOriginalKey = contentArtifactService.register(
+                    stored.subList(0, documentFiles.length)
             );
-
-            // 2) 변환 (UploadFileData 기반 convertService 사용)
-            // 문서 → PDF
-            List<byte[]> pdfBytesList = convertService.convertToPdfFromBytes(documentFiles);
-            List<String> convertedPdfKey = s3StorageService.uploadConvertFile(
-                    userId,
-                    lectureId,
-                    "converted_lecture.pdf",
-                    pdfBytesList,
-                    "application/pdf"
+            List<String> audioOriginalKey = contentArtifactService.register(
+                    stored.subList(documentFiles.length, stored.size())
             );
 
-            // 오디오 → MP4
-            List<byte[]> mp4BytesList = convertService.convertToMp4FromBytes(audioFiles);
-            List<String> convertedMp4Key = s3StorageService.uploadConvertFile(
-                    userId,
-                    lectureId,
-                    "converted_lecture.mp4",
-                    mp4BytesList,
-                    "video/mp4"
-            );
+            lecture.setOriginalPdfPath(docOriginalKey, audioOriginalKey);
+            lecture = lectureRepository.save(lecture);
 
-            // 3) DB에 S3 경로 저장
-            lecture.updateStoragePaths(
-                    docOriginalKey,
-                    audioOriginalKey,
-                    convertedPdfKey,
-                    convertedMp4Key
-            );
+            // 처리 작업 생성 (UPLOAD 단계 완료로 기록 → 이후 단계는 비동기 작업이 이어서 처리)
+            lectureJobService.createJob(lectureId, userId, docOriginalKey, audioOriginalKey);
+            return lecture;
+
+        } catch (RuntimeException e) {
+            lecture.setStatus(LectureStatus.FAILED);
             lectureRepository.save(lecture);
+            log.error("원본 업로드 실패 userId={}, lectureId={}", userId, lectureId, e);
+            throw e;
+        }
+    }
 
-            // 4) 청크 + 요약 + 결과 PDF S3 업로드
-            pdfLectureProcessingService.processLecture(lecture);
-            audioChunkProcessingService.processAudioToChunks(lecture);
+    /**
+     * 강의 처리 파이프라인 (단계별 체크포인트)
+     * - 각 단계 결과(S3 key, chunk id, transcript key ...)를 lecture_job_stage 에 기록
+     * - 재시작/재시도 시 이미 완료된 단계는 건너뛰고 첫 번째 미완료 단계부터 이어서 처리
+     * - PDF 분기(PDF_CHUNK)와 오디오 분기(TRANSCRIBE → AUDIO_CHUNK)는 서로 의존하지 않으므로
+     *   BRANCH 레인에서 동시에 돌리고 요약 전에 합류. 한쪽이 실패하면 다른 쪽은 취소
+     * - JOB 레인에 제출만 하고 바로 반환. 레인이 가득 차면 버림 → 작업은 DB 에 PENDING 으로 남아
+     *   LectureJobRecoveryScheduler 가 여유가 생겼을 때 다시 실행
+     */
+    public void processLectureAsync(Long lectureId) {
+        boolean submitted = pipelineExecutors.lane(WorkloadType.JOB).trySubmit(() -> {
+            try {
+                processLecture(lectureId);
+            } catch (RuntimeException e) {
+                log.error("강의 처리 작업 오류 lectureId={}", lectureId, e);
+            }
+        });
+        if (!submitted) {
+            log.warn("⏸ JOB 레인 가득 참 → 작업은 PENDING 으로 남겨두고 나중에 재개: lectureId={}", lectureId);
+        }
+    }
 
-            String summary = lectureSummarizationService.summarizeLectureWithAudioAndPdf(lectureId);
+    private void processLecture(Long lectureId) {
 
-            byte[] summaryPdfBytes = pdfGenerator.generate(summary);
-            String summarizationKey = s3StorageService.uploadResultFile(
-                    userId,
-                    lectureId,
-                    lecture.getTitle(),
-                    "summary.pdf",
-                    summaryPdfBytes,
-                    "application/pdf"
-            );
+        // 이미 다른 스레드/파드가 처리 중이거나 끝난 작업이면 아무것도 하지 않음
+        if (!lectureJobService.claim(lectureId)) {
+            log.info("⏭ 처리할 작업 없음 (이미 실행 중/완료): lectureId={}", lectureId);
+            return;
+        }
+
+        try {
+            runJob(lectureId);
+        } finally {
+            // 성공 / 실패 / 보류 / 예상 못 한 예외 모두 → 더 이상 lease 를 연장하지 않음
+            lectureJobService.stopHeartbeat(lectureId);
+        }
+    }
+
+    private void runJob(Long lectureId) {
+        LectureJob job = lectureJobService.getJob(lectureId);
+        String userId = job.getUserId();
+
+        Lecture lecture = lectureRepository.findById(lectureId)
+                .orElseThrow(() -> new IllegalArgumentException("Lecture not found: " + lectureId));
+
+        try {
+            // 1) 원본은 업로드 요청에서 이미 S3에 올라가 있음 (UPLOAD 단계)
+            Map<String, Object> uploaded = lectureJobService.requireOutput(job, PipelineStage.UPLOAD);
+            List<String> docOriginalKey = LectureJobService.stringList(uploaded, "docOriginalKeys");
+            List<String> audioOriginalKey = LectureJobService.stringList(uploaded, "audioOriginalKeys");
+
+            // 2) 처리용 파일 준비 (S3 key → S3 key) + DB에 S3 경로 저장
+            //    변환기가 아직 없어 원본 복사만 함. 체크포인트 / 컬럼 이름(converted*)은 기존 작업과의 호환을 위해 유지
+            Map<String, Object> converted = lectureJobService.runStage(job, PipelineStage.CONVERT, () -> {
+                // 문서 / 오디오 동시 준비 (이미 준비된 같은 파일은 재사용)
+                List<List<String>> convertedKeys = pipelineExecutors.invokeAll(WorkloadType.CONVERT, List.<Callable<List<String>>>of(
+                        () -> contentArtifactService.convertWithReuse(docOriginalKey,
+                                keys -> convertService.stageDocumentsFromKeys(userId, lectureId, keys)),
+                        () -> contentArtifactService.convertWithReuse(audioOriginalKey,
+                                keys -> convertService.stageAudioFromKeys(userId, lectureId, keys))
+                ));
+
+                return Map.of(
+                        "convertedPdfKeys", convertedKeys.get(0),
+                        "convertedAudioKeys", convertedKeys.get(1)
+                );
+            });
 
-            lecture.setSummarizationKey(summarizationKey);
+            lecture.updateStoragePaths(
+                    docOriginalKey,
+                    audioOriginalKey,
+                    LectureJobService.stringList(converted, "convertedPdfKeys"),
+                    LectureJobService.stringList(converted, "convertedAudioKeys")
+            );
+            lecture = lectureRepository.save(lecture);
+            Lecture target = lecture;
+
+            // 3) PDF 분기 / 오디오 분기 동시 실행 → 둘 다 끝나야 요약으로
+            pipelineExecutors.invokeAll(WorkloadType.BRANCH, List.<Callable<Void>>of(
+                    () -> {
+                        runPdfBranch(job, target, userId);
+                        return null;
+                    },
+                    () -> {
+                        runAudioBranch(job, target, userId);
+                        return null;
+                    }
+            ));
+            // 청크가 새로 저장됐으므로 예전에 적재된 벡터 캐시는 버림 (재시도 등)
+            lectureVectorCache.invalidate(lectureId);
+
+            // 4) 요약 (LLM 결과도 S3에 저장해서 재시도 시 다시 호출하지 않음)
+            Map<String, Object> summarized = lectureJobService.runStage(job, PipelineStage.SUMMARIZE, () -> {
+                String summary = lectureSummarizationService.summarizeLectureWithAudioAndPdf(lectureId);
+                String summaryKey = s3StorageService.uploadTextFile(
+                        s3StorageService.buildKey(userId, lectureId, "summary.md"), summary
+                );
+                return Map.of("summaryKey", summaryKey);
+            });
+
+            // 5) 결과 PDF 생성 + S3 업로드
+            Map<String, Object> rendered = lectureJobService.runStage(job, PipelineStage.RENDER, () -> {
+                String summary = s3StorageService.getObjectText(
+                        LectureJobService.string(summarized, "summaryKey")
+                );
+                byte[] summaryPdfBytes = pipelineExecutors.call(WorkloadType.RENDER,
+                        () -> pdfGenerator.generate(summary));
+                String summarizationKey = s3StorageService.uploadResultFile(
+                        userId,
+                        lectureId,
+                        target.getTitle(),
+                        "summary.pdf",
+                        summaryPdfBytes,
+                        "application/pdf"
+                );
+                return Map.of("summarizationKey", summarizationKey);
+            });
+
+            lecture.setSummarizationKey(LectureJobService.string(rendered, "summarizationKey"));
             lecture.setStatus(LectureStatus.READY);
             lectureRepository.save(lecture);
+            lectureJobService.complete(lectureId);
 
         } catch (RuntimeException e) {
+            if (OpenAiUnavailableException.isCauseOf(e)) {
+                // OpenAI 예산/서킷 문제 → 실패가 아니라 보류. 완료된 단계는 유지되고 복구 스케줄러가 다시 실행
+                lectureJobService.park(lectureId, e.getMessage());
+                log.warn("⏸ OpenAI 사용 불가로 작업 보류 lectureId={}: {}", lectureId, e.getMessage());
+                return;
+            }
             lecture.setStatus(LectureStatus.FAILED);
             lectureRepository.save(lecture);
+            lectureJobService.fail(lectureId, e.getMessage());
             log.error("강의 처리 실패 userId={}, lectureId={}", userId, lectureId, e);
         }
     }
 
-    public DownloadFile downloadS3File(String userId, Long lectureId,String title){
+    /**
+     * PDF 분기: PDF 청크 (PDFBox 텍스트 추출은 CPU 작업 → CONVERT 레인)
+     */
+    private void runPdfBranch(LectureJob job, Lecture target, String userId) {
+        lectureJobService.runStage(job, PipelineStage.PDF_CHUNK, () ->
+                Map.of("chunkIds", pipelineExecutors.call(WorkloadType.CONVERT,
+                        () -> pdfLectureProcessingService.processLecture(target, userId)))
+        );
+    }
+
+    /**
+     * 오디오 분기: STT → transcript → 오디오 청크
+     */
+    private void runAudioBranch(LectureJob job, Lecture target, String userId) {
+        Map<String, Object> transcribed = lectureJobService.runStage(job, PipelineStage.TRANSCRIBE, () ->
+                Map.of("transcriptKeys", audioChunkProcessingService.transcribeAudio(target, userId))
+        );
+        lectureJobService.runStage(job, PipelineStage.AUDIO_CHUNK, () ->
+                Map.of("chunkIds", audioChunkProcessingService.processAudioToChunks(
+                        target, LectureJobService.stringList(transcribed, "transcriptKeys"), userId))
+        );
+    }
+
+    /**
+     * 실패한 강의 재처리 준비 (완료된 단계는 건너뛰고 이어서 처리, 사용량은 차감하지 않음)
+     * - 실제 처리는 호출 측에서 processLectureAsync 로 시작
+     */
+    public Lecture retryLecture(Long lectureId, String userId) {
+        Lecture lecture = lectureRepository.findByIdAndUser_UserId(lectureId, userId)
+                .orElseThrow(() -> new IllegalArgumentException("Lecture not found or no permission"));
+
+        if (lecture.getStatus() != LectureStatus.FAILED) {
+            throw new IllegalArgumentException("실패한 강의만 재시도할 수 있습니다: " + lecture.getStatus());
+        }
+
+        lectureJobService.resetForRetry(lectureId);
+        lecture.setStatus(LectureStatus.PROCESSING);
+        return lectureRepository.save(lecture);
+    }
+
+    /**
+     * 요약 PDF 스트리밍 다운로드 (Range 헤더가 있으면 해당 구간만)
+     * - S3 응답 스트림을 그대로 넘김 → 파일 전체를 힙에 올리지 않음
+     */
+    public DownloadFile downloadS3File(String userId, Long lectureId, String title, String rangeHeader) {
+        String key = summaryKey(userId, lectureId, title);
+        long totalLength = s3StorageService.getObjectLength(key);
+
+        long start = 0;
+        long end = totalLength - 1;
+        boolean partial = false;
+        if (StringUtils.hasText(rangeHeader)) {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            if (ranges.size() != 1) {
+                throw new IllegalArgumentException("단일 Range 만 지원합니다: " + rangeHeader);
+            }
+            try {
+                start = ranges.get(0).getRangeStart(totalLength);
+                end = ranges.get(0).getRangeEnd(totalLength);
+            } catch (IllegalArgumentException e) {
+                throw new RangeNotSatisfiableException("요청 구간이 파일 범위를 벗어났습니다: " + rangeHeader, totalLength);
+            }
+            partial = true;
+        }
+
+        InputStream body = partial
+                ? s3StorageService.getObjectRangeStream(key, start, end)
+                : s3StorageService.getObjectStream(key);
+
+        return DownloadFile.builder()
+                .fileName(fileNameOf(key))
+                .contentType("application/pdf")
+                .totalLength(totalLength)
+                .rangeStart(start)
+                .rangeEnd(end)
+                .partial(partial)
+                .body(body)
+                .build();
+    }
+
+    /**
+     * 요약 PDF presigned URL (클라이언트가 S3에서 직접 다운로드)
+     */
+    public DownloadUrlResponse createDownloadUrl(String userId, Long lectureId, String title) {
+        String key = summaryKey(userId, lectureId, title);
+        String fileName = fileNameOf(key);
+
+        PresignedGetObjectRequest presigned = s3StorageService.presignGet(key, fileName, downloadUrlTtl);
+        return new DownloadUrlResponse(
+                fileName,
+                presigned.url().toString(),
+                presigned.expiration().atOffset(ZoneOffset.UTC)
+        );
+    }
+
+    private String summaryKey(String userId, Long lectureId, String title) {
         Lecture lecture = lectureRepository.findByIdAndUser_UserIdAndTitle(lectureId, userId,title)
                 .orElseThrow(() -> new IllegalArgumentException("Lecture not found or no permission"));
-        byte[] file =  s3StorageService.downloadFile(lecture.getSummarizationKey());
+        if (lecture.getSummarizationKey() == null) {
+            throw new IllegalArgumentException("요약 파일이 아직 없습니다: " + lecture.getStatus());
+        }
+        return lecture.getSummarizationKey();
+    }
 
-        String fileName = lecture.getSummarizationKey().substring(lecture.getSummarizationKey().lastIndexOf('/') + 1);
-        return new DownloadFile(fileName, file);
+    private String fileNameOf(String key) {
+        return key.substring(key.lastIndexOf('/') + 1);
     }
 
     @Transactional
@@ -155,28 +379,39 @@ public class LectureService {
         Lecture lecture = lectureRepository.findByIdAndUser_UserIdAndTitle(lectureId, userId, title)
                 .orElseThrow(() -> new IllegalArgumentException("해당 강의를 찾을 수 없습니다."));
 
+        // 다른 강의와 공유 중인 파일(같은 내용 업로드)은 S3 에서 지우지 않음
+        Set<String> sharedKeys = contentArtifactService.release(lecture);
+
+        List<String> ownedKeys = new ArrayList<>();
         if (lecture.getOriginalPdfPath() != null) {
-            s3StorageService.deleteObjects(lecture.getOriginalPdfPath());
+            ownedKeys.addAll(lecture.getOriginalPdfPath());
         }
         if (lecture.getOriginalAudioPath() != null) {
-            s3StorageService.deleteObjects(lecture.getOriginalAudioPath());
+            ownedKeys.addAll(lecture.getOriginalAudioPath());
         }
         if (lecture.getConvertedAudioPath() != null) {
-            s3StorageService.deleteObjects(lecture.getConvertedAudioPath());
+            ownedKeys.addAll(lecture.getConvertedAudioPath());
         }
         if (lecture.getConvertedPdfPath() != null) {
-            s3StorageService.deleteObjects(lecture.getConvertedPdfPath());
+            ownedKeys.addAll(lecture.getConvertedPdfPath());
         }
-        // 만약 summarization 도 S3에 저장된 PDF/key라면:
-        if (lecture.getSummarizationKey() != null && lecture.getSummarizationKey().startsWith("s3:")) {
-            // summarization 필드에 "s3 키"를 그대로 넣었다면 조건 없이 추가해도 됨
-            s3StorageService.deleteObject(lecture.getSummarizationKey());
+        // 파이프라인 중간 산출물 (transcript, 요약 markdown)
+        ownedKeys.addAll(lectureJobService.intermediateKeys(lectureId));
+        // 요약 PDF
+        if (lecture.getSummarizationKey() != null) {
+            ownedKeys.add(lecture.getSummarizationKey());
         }
+        ownedKeys.removeIf(sharedKeys::contains);
+
+        // 강의의 모든 S3 객체를 한 번에 (배치 동시 요청) 삭제
+        s3StorageService.deleteObjects(ownedKeys);
 
         // 3) DB 삭제
+        lectureJobService.deleteJob(lectureId);
         lectureChunkRepository.deleteByLecture_Id(lectureId);
         audioChunkRepository.deleteByLecture_Id(lectureId);
         lectureRepository.deleteByIdAndUser_UserIdAndTitle(lectureId, userId, title);
+        lectureVectorCache.invalidate(lectureId);
     }
 
     public Lecture pollingLecture(Long lectureId, String userId) {
@@ -209,18 +444,6 @@ public class LectureService {
         return fileList;
     }
 
-    private List<String> getExtension(List<UploadFileData> files) {
-        List<String> list = new ArrayList<>();
-        for (UploadFileData f : files) {
-            String filename = f.originalFilename();
-            if (filename == null || !filename.contains(".")) {
-                throw new IllegalArgumentException("파일 이름에 확장자가 없습니다: " + filename);
-            }
-            String ext = filename.substring(filename.lastIndexOf('.') + 1).toLowerCase();
-            list.add(ext);
-        }
-        return list;
-    }
 
 
 }
@@ -1,25 +1,25 @@
 package com.rag.lecturelens.service;
 
 
-import com.rag.lecturelens.entity.AudioChunk;
+import com.rag.lecturelens.domain.ChunkSource;
+import com.rag.lecturelens.domain.WorkloadType;
+import com.rag.lecturelens.dto.RetrievedChunk;
 import com.rag.lecturelens.entity.Lecture;
 import com.rag.lecturelens.entity.LectureChunk;
+import com.rag.lecturelens.executor.PipelineExecutors;
+import com.rag.lecturelens.openai.OpenAiApiException;
+import com.rag.lecturelens.openai.OpenAiClient;
+import com.rag.lecturelens.openai.OpenAiCost;
 import com.rag.lecturelens.repository.AudioChunkRepository;
 import com.rag.lecturelens.repository.LectureChunkRepository;
 import com.rag.lecturelens.repository.LectureRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 
 @Slf4j
@@ -27,39 +27,34 @@ import java.util.List;
 @RequiredArgsConstructor
 public class LectureSummarizationService {
 
+    // max_tokens 를 지정하지 않으므로 TPM 예산 계산용 출력 토큰 추정치
+    private static final int OUTPUT_TOKEN_BUDGET = 4000;
+
+    // 컨텍스트에 넣는 최대 청크 수 (슬라이드 / 음성)
+    private static final int MAX_SLIDES = 10;
+    private static final int MAX_AUDIOS = 15;
+
     private final LectureRepository lectureRepository;
     private final LectureChunkRepository lectureChunkRepository;
     private final AudioChunkRepository audioChunkRepository;
     private final SummarizationService summarizationService;
-
-    @Value("${openai.api.key}")
-    private String apiKey;
+    private final EmbeddingService embeddingService;
+    private final HybridRetrievalService hybridRetrievalService;
+    private final PipelineExecutors pipelineExecutors;
+    private final OpenAiClient openAiClient;
 
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final HttpClient httpClient = HttpClient.newHttpClient();
 
 
+    /**
+     * 처리 파이프라인 SUMMARIZE 단계
+     * - 강의의 모든 청크를 넣지 않고, 강의 주제 질의(제목 + 앞부분)로 하이브리드 검색 → MMR 로 고른 청크만 context 로
+     * - 프롬프트 + OpenAI 호출은 SummarizationService 에 위임
+     */
     public String summarizeLectureWithAudioAndPdf(Long lectureId) {
-
-        // 1) PDF 청크 + 오디오 청크 텍스트 가져오기
-        List<String> texts = new ArrayList<>();
-
-        lectureChunkRepository.findByLecture_Id(lectureId)
-                .forEach(c -> texts.add(c.getText()));
-
-        audioChunkRepository.findByLecture_Id(lectureId)
-                .forEach(c -> texts.add(c.getText()));
-
-        // 2) SummarizationService에서 쓰는 ctx 포맷과 동일하게 구성
-        StringBuilder ctx = new StringBuilder();
-        for (String t : texts) {
-            ctx.append("### Chunk\n")
-                    .append(t)
-                    .append("\n\n");
-        }
-
-        // 3) 프롬프트 + OpenAI 호출은 SummarizationService에 위임
-        return summarizationService.summarizeFromContext(ctx.toString());
+        Lecture lecture = lectureRepository.findById(lectureId)
+                .orElseThrow(() -> new IllegalArgumentException("Lecture not found: " + lectureId));
+        return summarizationService.summarizeLecture(lectureId, buildTopicQuery(lecture.getTitle(), lectureId));
     }
 
     /**
@@ -71,23 +66,29 @@ public class LectureSummarizationService {
         Lecture lecture = lectureRepository.findById(lectureId)
                 .orElseThrow(() -> new IllegalArgumentException("Lecture not found: " + lectureId));
 
-        // 1) 슬라이드 텍스트 상위 N개
-        List<LectureChunk> slideChunks =
-                lectureChunkRepository.findTop20ByLectureIdOrderByImportanceScoreDesc(lectureId);
+        // 1) 강의 주제 질의 (제목 + 앞쪽 슬라이드 첫 줄) → 슬라이드 / 음성 청크 하이브리드 검색
+        String topicQuery = buildTopicQuery(lecture.getTitle(), lectureId);
+        List<RetrievedChunk> retrieved = topicQuery.isBlank() ? List.of()
+                : hybridRetrievalService.retrieve(lectureId, topicQuery, embeddingService.embed(topicQuery),
+                        MAX_SLIDES + MAX_AUDIOS, EnumSet.allOf(ChunkSource.class));
 
-        // 중요도 기반이 없다면 슬라이드 번호순으로 가져오는 fallback도 고려 가능
+        List<RetrievedChunk> slideChunks = retrieved.stream()
+                .filter(c -> c.source() == ChunkSource.SLIDE)
+                .toList();
+        List<RetrievedChunk> audioChunks = retrieved.stream()
+                .filter(c -> c.source() == ChunkSource.AUDIO)
+                .toList();
+
+        // 2) 검색 결과가 없으면 슬라이드 번호 / 시간 순 fallback
         if (slideChunks.isEmpty()) {
-            slideChunks =
-                    lectureChunkRepository.findTop20ByLectureIdOrderBySlideNoAsc(lectureId);
+            slideChunks = lectureChunkRepository.findTop20ByLectureIdOrderBySlideNoAsc(lectureId).stream()
+                    .map(RetrievedChunk::of)
+                    .toList();
         }
-
-        // 2) 오디오 텍스트 상위 N개
-        List<AudioChunk> audioChunks =
-                audioChunkRepository.findTop30ByLectureIdOrderByImportanceScoreDesc(lectureId);
-
         if (audioChunks.isEmpty()) {
-            audioChunks =
-                    audioChunkRepository.findTop30ByLectureIdOrderByStartSecAsc(lectureId);
+            audioChunks = audioChunkRepository.findTop30ByLectureIdOrderByStartSecAsc(lectureId).stream()
+                    .map(RetrievedChunk::of)
+                    .toList();
         }
 
         if (slideChunks.isEmpty() && audioChunks.isEmpty()) {
@@ -117,26 +118,22 @@ public class LectureSummarizationService {
             }
             """.formatted(objectMapper.writeValueAsString(prompt));
 
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://api.openai.com/v1/chat/completions"))
-                    .header("Authorization", "Bearer " + apiKey)
-                    .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(requestBodyJson, StandardCharsets.UTF_8))
-                    .build();
-
-            HttpResponse<String> response =
-                    httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() / 100 != 2) {
+            String response;
+            try {
+                response = pipelineExecutors.call(WorkloadType.LLM,
+                        () -> openAiClient.postJson("/chat/completions",
+                                OpenAiCost.of("gpt-4.1-mini", OpenAiCost.estimateTokens(prompt) + OUTPUT_TOKEN_BUDGET),
+                                requestBodyJson));
+            } catch (OpenAiApiException e) {
                 log.error("❌ OpenAI Summarization API Error: status={}, body={}",
-                        response.statusCode(), response.body());
-                throw new RuntimeException("OpenAI Summarization API Error: " + response.body());
+                        e.getStatusCode(), e.getResponseBody());
+                throw e;
             }
 
-            JsonNode root = objectMapper.readTree(response.body());
+            JsonNode root = objectMapper.readTree(response);
             JsonNode choices = root.path("choices");
             if (!choices.isArray() || choices.isEmpty()) {
-                throw new RuntimeException("OpenAI 응답 형식이 예상과 다릅니다: " + response.body());
+                throw new RuntimeException("OpenAI 응답 형식이 예상과 다릅니다: " + response);
             }
 
             String summary = choices.get(0).path("message").path("content").asText();
@@ -154,34 +151,53 @@ public class LectureSummarizationService {
      * 한 번에 프롬프트에 넣을 수 있도록 문자열로 합친다.
      * 너무 길어질 수 있으니 일부만 자른다.
      */
-    private String buildContextText(List<LectureChunk> slideChunks,
-                                    List<AudioChunk> audioChunks) {
+    private String buildContextText(List<RetrievedChunk> slideChunks,
+                                    List<RetrievedChunk> audioChunks) {
 
         StringBuilder sb = new StringBuilder();
 
         sb.append("【슬라이드 내용 요약 후보】\n");
-        int maxSlides = Math.min(slideChunks.size(), 10); // 상위 10개까지만
+        int maxSlides = Math.min(slideChunks.size(), MAX_SLIDES); // 상위 10개까지만
         for (int i = 0; i < maxSlides; i++) {
-            LectureChunk c = slideChunks.get(i);
-            sb.append("- [Slide ").append(c.getSlideNo()).append("]\n");
-            sb.append(trim(c.getText(), 600)).append("\n\n");
+            RetrievedChunk c = slideChunks.get(i);
+            sb.append("- [Slide ").append(c.slideNo()).append("]\n");
+            sb.append(trim(c.text(), 600)).append("\n\n");
         }
 
         sb.append("\n【강의 음성(STT) 내용 요약 후보】\n");
-        int maxAudios = Math.min(audioChunks.size(), 15);
+        int maxAudios = Math.min(audioChunks.size(), MAX_AUDIOS);
         for (int i = 0; i < maxAudios; i++) {
-            AudioChunk a = audioChunks.get(i);
+            RetrievedChunk a = audioChunks.get(i);
             sb.append("- [")
-                    .append(formatTime(a.getStartSec()))
+                    .append(formatTime(a.startSec()))
                     .append(" ~ ")
-                    .append(formatTime(a.getEndSec()))
+                    .append(formatTime(a.endSec()))
                     .append("]\n");
-            sb.append(trim(a.getText(), 400)).append("\n\n");
+            sb.append(trim(a.text(), 400)).append("\n\n");
         }
 
         return sb.toString();
     }
 
+    /**
+     * 검색 질의: 강의 제목 + 앞쪽 슬라이드의 첫 줄 (슬라이드 제목인 경우가 많음)
+     * 슬라이드가 없는 강의(음성만)는 앞쪽 음성 청크 앞부분으로
+     */
+    private String buildTopicQuery(String title, Long lectureId) {
+        StringBuilder sb = new StringBuilder(title == null ? "" : title);
+        List<LectureChunk> slides = lectureChunkRepository.findTop20ByLectureIdOrderBySlideNoAsc(lectureId);
+        for (LectureChunk c : slides) {
+            String text = c.getText() == null ? "" : c.getText().strip();
+            int newline = text.indexOf('\n');
+            sb.append('\n').append(trim(newline < 0 ? text : text.substring(0, newline), 100));
+        }
+        if (slides.isEmpty()) {
+            audioChunkRepository.findTop30ByLectureIdOrderByStartSecAsc(lectureId)
+                    .forEach(c -> sb.append('\n').append(trim(c.getText(), 100)));
+        }
+        return sb.toString();
+    }
+
     /**
      * 실제 user 프롬프트: 어떤 형식으로 요약해달라는지 명확히 적는다.
      */
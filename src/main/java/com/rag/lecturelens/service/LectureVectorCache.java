@@ -0,0 +1,205 @@
+package com.rag.lecturelens.service;
+
+import com.rag.lecturelens.domain.ChunkSource;
+import com.rag.lecturelens.dto.RetrievedChunk;
+import com.rag.lecturelens.repository.AudioChunkRepository;
+import com.rag.lecturelens.repository.LectureChunkRepository;
+import com.rag.lecturelens.vector.LectureVectorIndex;
+import com.rag.lecturelens.vector.VectorKernels;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * 강의별 in-JVM 벡터 인덱스 캐시 (요약 / 후속 질의처럼 같은 강의를 반복 검색할 때 DB 왕복 제거)
+ * - 강의의 슬라이드 + 음성 청크 임베딩을 한 번 읽어 LectureVectorIndex 로 적재
+ * - LRU: 전체 추정 크기가 app.vector.cache.max-bytes 를 넘으면 가장 오래 안 쓴 강의부터 제거
+ *   (한 강의가 상한보다 크면 캐시하지 않고 그 검색에만 씀)
+ * - 같은 강의를 동시에 적재하지 않음 (다른 스레드는 먼저 시작한 적재 결과를 기다림)
+ * - 무효화: 청크가 바뀌는 시점(처리 분기 완료 / 강의 삭제)에 invalidate, 임베딩 설정이 바뀌었거나 ttl 이 지나면 다시 적재
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LectureVectorCache {
+
+    private final LectureChunkRepository lectureChunkRepository;
+    private final AudioChunkRepository audioChunkRepository;
+    private final EmbeddingService embeddingService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.vector.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.vector.cache.max-bytes:268435456}")
+    private long maxBytes;
+
+    @Value("${app.vector.cache.ttl:PT30M}")
+    private Duration ttl;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // accessOrder = true → 조회할 때마다 맨 뒤로 (맨 앞이 가장 오래 안 쓴 강의)
+    private final LinkedHashMap<Long, LectureVectorIndex> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Long, CompletableFuture<LectureVectorIndex>> loading = new HashMap<>();
+    private long totalBytes;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("lecturelens.vector.cache.bytes", this, c -> c.snapshot()[0])
+                .description("강의 벡터 캐시 추정 크기 (bytes)")
+                .register(meterRegistry);
+        Gauge.builder("lecturelens.vector.cache.lectures", this, c -> c.snapshot()[1])
+                .description("강의 벡터 캐시에 올라간 강의 수")
+                .register(meterRegistry);
+        log.info("🧮 강의 벡터 캐시: enabled={}, maxBytes={}, simd={}", enabled, maxBytes, VectorKernels.isSimdAvailable());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 강의 하나에서 source 청크 중 queryVec 과 가장 가까운 topN (L2 거리 오름차순, 현재 임베딩 설정의 청크만)
+     */
+    public List<RetrievedChunk> search(Long lectureId, ChunkSource source, float[] queryVec, int topN) {
+        return index(lectureId).search(source, queryVec, topN);
+    }
+
+    public void invalidate(Long lectureId) {
+        lock.lock();
+        try {
+            LectureVectorIndex removed = entries.remove(lectureId);
+            if (removed != null) {
+                totalBytes -= removed.estimatedBytes();
+            }
+            // 진행 중인 적재 결과는 캐시에 넣지 않음 (무효화 전 데이터일 수 있음)
+            loading.remove(lectureId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /* ----- 내부 유틸 ----- */
+
+    private LectureVectorIndex index(Long lectureId) {
+        String model = embeddingService.modelId();
+        int dims = embeddingService.dimensions();
+
+        CompletableFuture<LectureVectorIndex> pending;
+        boolean owner = false;
+        lock.lock();
+        try {
+            LectureVectorIndex cached = entries.get(lectureId);
+            if (cached != null && isFresh(cached, model, dims)) {
+                count("hit");
+                return cached;
+            }
+            pending = loading.get(lectureId);
+            if (pending == null) {
+                pending = new CompletableFuture<>();
+                loading.put(lectureId, pending);
+                owner = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (!owner) {
+            count("wait");
+            return pending.join();
+        }
+
+        count("miss");
+        try {
+            LectureVectorIndex index = load(lectureId, model, dims);
+            store(lectureId, index, pending);
+            pending.complete(index);
+            return index;
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            lock.lock();
+            try {
+                loading.remove(lectureId, pending);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private LectureVectorIndex load(Long lectureId, String model, int dims) {
+        List<RetrievedChunk> chunks = Stream.concat(
+                lectureChunkRepository.findByLecture_Id(lectureId).stream()
+                        .filter(c -> model.equals(c.getEmbeddingModel()))
+                        .map(RetrievedChunk::of),
+                audioChunkRepository.findByLecture_Id(lectureId).stream()
+                        .filter(c -> model.equals(c.getEmbeddingModel()))
+                        .map(RetrievedChunk::of)
+        ).toList();
+        LectureVectorIndex index = LectureVectorIndex.build(model, dims, chunks);
+        log.debug("🧮 강의 벡터 적재: lectureId={}, chunks={}, bytes={}", lectureId, index.size(), index.estimatedBytes());
+        return index;
+    }
+
+    private void store(Long lectureId, LectureVectorIndex index, CompletableFuture<LectureVectorIndex> pending) {
+        lock.lock();
+        try {
+            if (loading.get(lectureId) != pending || index.estimatedBytes() > maxBytes) {
+                return;     // 적재 중에 무효화됐거나 혼자서 상한 초과 → 이번 검색에만 사용
+            }
+            LectureVectorIndex previous = entries.put(lectureId, index);
+            if (previous != null) {
+                totalBytes -= previous.estimatedBytes();
+            }
+            totalBytes += index.estimatedBytes();
+
+            Iterator<Map.Entry<Long, LectureVectorIndex>> it = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && it.hasNext()) {
+                Map.Entry<Long, LectureVectorIndex> eldest = it.next();
+                if (eldest.getKey().equals(lectureId)) {
+                    continue;
+                }
+                totalBytes -= eldest.getValue().estimatedBytes();
+                it.remove();
+                count("eviction");
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isFresh(LectureVectorIndex index, String model, int dims) {
+        return index.model().equals(model)
+                && index.dimensions() == dims
+                && System.nanoTime() - index.loadedAt() < ttl.toNanos();
+    }
+
+    private long[] snapshot() {
+        lock.lock();
+        try {
+            return new long[]{totalBytes, entries.size()};
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void count(String result) {
+        Counter.builder("lecturelens.vector.cache.requests")
+                .tag("result", result)
+                .description("강의 벡터 캐시 조회 (hit / miss / wait / eviction)")
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,67 @@
+package com.rag.lecturelens.service;
+
+import com.rag.lecturelens.domain.ChunkSource;
+import com.rag.lecturelens.dto.LibrarySearchResult;
+import com.rag.lecturelens.dto.RetrievedChunk;
+import com.rag.lecturelens.entity.Lecture;
+import com.rag.lecturelens.repository.LectureRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 사용자 라이브러리 전체 검색 (모든 강의의 슬라이드 / 음성 청크)
+ * - 질의를 한 번 임베딩 → HybridRetrievalService 의 사용자 범위 검색 (chunk.user_id 필터 + ANN 인덱스)
+ *   필터 때문에 결과가 모자라지 않도록 벡터 검색은 iterative scan 으로 (VectorSearchSupport)
+ * - 강의 제목은 결과에 나온 강의만 한 번에 조회 (소유자 조건 포함 → 다른 사용자 강의는 결과에서 빠짐)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LibrarySearchService {
+
+    private final EmbeddingService embeddingService;
+    private final HybridRetrievalService hybridRetrievalService;
+    private final LectureRepository lectureRepository;
+
+    @Value("${app.search.max-limit:50}")
+    private int maxLimit;
+
+    public List<LibrarySearchResult> search(String userId, String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("검색어가 비어 있습니다.");
+        }
+        int topN = Math.clamp(limit, 1, maxLimit);
+
+        List<RetrievedChunk> chunks = hybridRetrievalService.retrieveForUser(
+                userId, query, embeddingService.embed(query), topN, EnumSet.allOf(ChunkSource.class));
+
+        List<Long> lectureIds = chunks.stream().map(RetrievedChunk::lectureId).distinct().toList();
+        Map<Long, String> titles = lectureRepository.findByIdInAndUser_UserId(lectureIds, userId).stream()
+                .collect(Collectors.toMap(Lecture::getId, Lecture::getTitle));
+
+        List<LibrarySearchResult> results = chunks.stream()
+                .filter(c -> titles.containsKey(c.lectureId()))
+                .map(c -> new LibrarySearchResult(
+                        c.lectureId(),
+                        titles.get(c.lectureId()),
+                        c.source(),
+                        c.id(),
+                        c.slideNo(),
+                        c.startSec(),
+                        c.endSec(),
+                        c.text(),
+                        c.score()
+                ))
+                .toList();
+
+        log.debug("📚 라이브러리 검색: userId={}, lectures={}, results={}", userId, titles.size(), results.size());
+        return results;
+    }
+}
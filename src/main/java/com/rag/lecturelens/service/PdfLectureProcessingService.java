@@ -1,10 +1,10 @@
 package com.rag.lecturelens.service;
 
 import com.rag.lecturelens.domain.LectureStatus;
+import com.rag.lecturelens.entity.ContentArtifact;
 import com.rag.lecturelens.entity.Lecture;
 import com.rag.lecturelens.entity.LectureChunk;
 import com.rag.lecturelens.repository.LectureChunkRepository;
-import com.rag.lecturelens.util.EmbeddingUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.pdfbox.pdmodel.PDDocument;
@@ -13,7 +13,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
@@ -25,15 +29,17 @@ public class PdfLectureProcessingService {
 
     private final LectureChunkRepository lectureChunkRepository;
     private final S3StorageService s3StorageService;
-    private final OpenAiEmbeddingService openAiEmbeddingService;
+    private final EmbeddingService embeddingService;
+    private final ContentArtifactService contentArtifactService;
     /**
      * 1) S3에서 PDF 다운로드
      * 2) PDF 페이지별 텍스트 추출
-     * 3) LectureChunk 생성/저장
-     * 4) 상태 READY 변경
+     * 3) LectureChunk 생성/저장 → 생성된 chunk id 반환
+     *  - 강의 상태(READY/FAILED)는 LectureService 파이프라인에서 관리
+     *  - 같은 파일(내용 해시)의 청크가 다른 강의에 이미 있으면 추출/임베딩 없이 행만 복사
      */
     @Transactional(noRollbackFor = Exception.class)
-    public void processLecture(Lecture lecture) {
+    public List<Long> processLecture(Lecture lecture, String userId) {
 
         // 변환된 PDF 우선 사용
         List<String> pdfKeys = lecture.getConvertedPdfPath();
@@ -44,17 +50,37 @@ public class PdfLectureProcessingService {
 
         if (pdfKeys == null || pdfKeys.isEmpty()) {
             log.info(" 강의자료 미존재");
-            return;
+            return List.of();
         }
 
-        for(String pdfKey : pdfKeys){
+        // 기존 chunk 삭제 후 재생성 (재실행 시 중복 방지, PDF 여러 개면 한 번만 삭제)
+        lectureChunkRepository.deleteByLecture(lecture);
+        List<Long> chunkIds = new ArrayList<>();
+
+        for (int i = 0; i < pdfKeys.size(); i++) {
+            String pdfKey = pdfKeys.get(i);
             if (pdfKey == null || pdfKey.isEmpty()) {
                 lecture.setStatus(LectureStatus.FAILED);
                 throw new IllegalStateException("PDF 경로가 설정되어 있지 않습니다.");
             }
+
+            // 변환 결과는 원본과 1:1 (같은 순서) → 원본 key 로 레지스트리 조회
+            Optional<ContentArtifact> artifact = contentArtifactService.findByObjectKey(
+                    originalKeyAt(lecture.getOriginalPdfPath(), i)
+            );
+            String contentHash = artifact.map(ContentArtifact::getContentHash).orElse(null);
+
+            Optional<Long> source = artifact.flatMap(a -> contentArtifactService.findChunkSource(a, lecture.getId()));
+            if (source.isPresent()) {
+                List<LectureChunk> copied = copyChunks(lecture, userId, source.get(), contentHash);
+                if (!copied.isEmpty()) {
+                    copied.forEach(c -> chunkIds.add(c.getId()));
+                    log.info("♻ PDF 청크 재사용: lectureId={}, sourceLectureId={}, count={}",
+                            lectureId, source.get(), copied.size());
+                    continue;
+                }
+            }
             log.info("📄 PDF 처리 시작 → lectureId={}, key={}", lectureId, pdfKey);
-            // 기존 chunk 삭제 후 재생성
-            lectureChunkRepository.deleteByLecture(lecture);
             try (ResponseInputStream<GetObjectResponse> inputStream = s3StorageService.getObjectStream(pdfKey);
                  PDDocument document = PDDocument.load(inputStream)) {
 
@@ -62,6 +88,8 @@ public class PdfLectureProcessingService {
                 int pageCount = document.getNumberOfPages();
                 log.info("📝 PDF 페이지 수: {}", pageCount);
 
+                List<Integer> pages = new ArrayList<>();
+                List<String> texts = new ArrayList<>();
                 for (int page = 1; page <= pageCount; page++) {
                     stripper.setStartPage(page);
                     stripper.setEndPage(page);
@@ -76,27 +104,33 @@ public class PdfLectureProcessingService {
                         cleanText = cleanText.substring(0, 2000);
                     }
 
-                    // 1) 청크 임베딩 생성
-                    float[] embeddingVector = openAiEmbeddingService.embed(cleanText);
-                    float[] vec = openAiEmbeddingService.embed(pageText.trim());
+                    pages.add(page);
+                    texts.add(cleanText);
+                }
 
-                    // ✅ 2) String 리터럴로 변환
-                    String embeddingLiteral = EmbeddingUtils.toPgVectorLiteral(vec);
-                    // 2) Chunk 저장
-                    LectureChunk chunk = LectureChunk.builder()
+                // 1) 페이지 임베딩을 배치로 한 번에 생성 (입력 순서 = 페이지 순서)
+                List<float[]> vectors = embeddingService.embedAll(texts);
+
+                // 2) Chunk 저장
+                List<LectureChunk> chunks = new ArrayList<>();
+                for (int k = 0; k < texts.size(); k++) {
+                    chunks.add(LectureChunk.builder()
                             .lecture(lecture)
-                            .slideNo(page)
+                            .slideNo(pages.get(k))
                             .startSec(null)
                             .endSec(null)
-                            .text(cleanText)
+                            .text(texts.get(k))
                             .importanceScore(0.5f)
-                            .embedding(embeddingLiteral)
-                            .build();
-
-                    lectureChunkRepository.save(chunk);
+                            .embedding(vectors.get(k))
+                            .embeddingModel(embeddingService.modelId())
+                            .embeddingDims(vectors.get(k).length)
+                            .userId(userId)
+                            .contentHash(contentHash)
+                            .build());
                 }
+                lectureChunkRepository.saveAll(chunks).forEach(c -> chunkIds.add(c.getId()));
 
-                lecture.setStatus(LectureStatus.READY);
+                artifact.ifPresent(a -> contentArtifactService.recordChunkLecture(a, lecture.getId()));
                 log.info("✅ PDF 처리 완료: lectureId={}", lectureId);
 
             } catch (IOException e) {
@@ -105,5 +139,50 @@ public class PdfLectureProcessingService {
                 throw new RuntimeException("PDF 처리 실패", e);
             }
         }
+        return chunkIds;
+    }
+
+    // 원본 강의가 다른 사용자 것일 수 있으므로 user_id 는 새 강의 주인으로
+    // 원본 벡터가 지금 임베딩 설정(모델 / 차원)과 다르면(설정 변경 후 백필 전) 복사하지 않고 다시 임베딩
+    private List<LectureChunk> copyChunks(Lecture lecture, String userId, Long sourceLectureId, String contentHash) {
+        List<LectureChunk> sources = lectureChunkRepository.findByLecture_IdAndContentHash(sourceLectureId, contentHash);
+
+        List<LectureChunk> stale = sources.stream()
+                .filter(c -> c.getEmbedding() == null
+                        || !embeddingService.isCurrent(c.getEmbeddingModel(), c.getEmbeddingDims()))
+                .toList();
+        List<float[]> reembedded = embeddingService.embedAll(stale.stream().map(LectureChunk::getText).toList());
+        Map<LectureChunk, float[]> vectors = new IdentityHashMap<>();
+        for (int i = 0; i < stale.size(); i++) {
+            vectors.put(stale.get(i), reembedded.get(i));
+        }
+        if (!stale.isEmpty()) {
+            log.info("🧬 재사용 청크 다시 임베딩 (임베딩 설정 변경): sourceLectureId={}, count={}/{}",
+                    sourceLectureId, stale.size(), sources.size());
+        }
+
+        List<LectureChunk> copies = sources.stream()
+                .map(c -> {
+                    float[] vector = vectors.getOrDefault(c, c.getEmbedding());
+                    return LectureChunk.builder()
+                            .lecture(lecture)
+                            .slideNo(c.getSlideNo())
+                            .startSec(c.getStartSec())
+                            .endSec(c.getEndSec())
+                            .text(c.getText())
+                            .importanceScore(c.getImportanceScore())
+                            .embedding(vector)
+                            .embeddingModel(embeddingService.modelId())
+                            .embeddingDims(vector.length)
+                            .userId(userId)
+                            .contentHash(contentHash)
+                            .build();
+                })
+                .toList();
+        return lectureChunkRepository.saveAll(copies);
+    }
+
+    private String originalKeyAt(List<String> originalKeys, int index) {
+        return originalKeys != null && index < originalKeys.size() ? originalKeys.get(index) : null;
     }
 }
@@ -0,0 +1,160 @@
+package com.rag.lecturelens.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * S3AsyncClient 기반 비동기 스토리지 API
+ * - 모든 메서드는 바로 CompletableFuture 를 돌려준다 (요청 하나에 스레드 하나를 쓰지 않음)
+ * - 동시에 날아가는 요청 수는 app.s3.async.max-in-flight 로 제한
+ *   (허용량이 없으면 요청을 거는 쪽이 기다림 → 실행 레인과 같은 방식의 backpressure)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class S3AsyncStorageService {
+
+    private static final int DELETE_BATCH_SIZE = 1000;   // DeleteObjects 1회 최대 key 수
+
+    private final S3AsyncClient s3AsyncClient;
+
+    @Value("${app.s3.bucket}")
+    private String bucket;
+
+    @Value("${app.s3.async.max-in-flight:32}")
+    private int maxInFlight;
+
+    private Semaphore inFlight;
+
+    @PostConstruct
+    void init() {
+        this.inFlight = new Semaphore(maxInFlight, true);
+    }
+
+    public CompletableFuture<String> putBytes(String key, byte[] bytes, String contentType) {
+        PutObjectRequest req = PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .contentType(contentType)
+                .acl(ObjectCannedACL.PRIVATE)
+                .build();
+        return bounded(() -> s3AsyncClient.putObject(req, AsyncRequestBody.fromBytes(bytes)))
+                .thenApply(res -> key);
+    }
+
+    public CompletableFuture<String> copy(String sourceKey, String destinationKey, String contentType) {
+        // contentType 이 null 이면 원본 메타데이터(Content-Type 포함)를 그대로 복사
+        CopyObjectRequest req = CopyObjectRequest.builder()
+                .sourceBucket(bucket)
+                .sourceKey(sourceKey)
+                .destinationBucket(bucket)
+                .destinationKey(destinationKey)
+                .contentType(contentType)
+                .metadataDirective(contentType == null ? MetadataDirective.COPY : MetadataDirective.REPLACE)
+                .acl(ObjectCannedACL.PRIVATE)
+                .build();
+        return bounded(() -> s3AsyncClient.copyObject(req))
+                .thenApply(res -> {
+                    log.info("S3 복사 완료 (async): s3://{}/{} → {}", bucket, sourceKey, destinationKey);
+                    return destinationKey;
+                });
+    }
+
+    public CompletableFuture<byte[]> getBytes(String key) {
+        GetObjectRequest req = GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .build();
+        return bounded(() -> s3AsyncClient.getObject(req, AsyncResponseTransformer.toBytes()))
+                .thenApply(bytes -> bytes.asByteArray());
+    }
+
+    /**
+     * 여러 key 삭제 (1000개 단위 배치를 동시에) → 실제로 삭제된 개수
+     */
+    public CompletableFuture<Integer> deleteAll(List<String> keys) {
+        List<ObjectIdentifier> ids = keys.stream()
+                .filter(k -> k != null && !k.isBlank())
+                .distinct()
+                .map(k -> ObjectIdentifier.builder().key(k).build())
+                .toList();
+
+        List<CompletableFuture<Integer>> batches = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += DELETE_BATCH_SIZE) {
+            DeleteObjectsRequest req = DeleteObjectsRequest.builder()
+                    .bucket(bucket)
+                    .delete(Delete.builder()
+                            .objects(ids.subList(from, Math.min(from + DELETE_BATCH_SIZE, ids.size())))
+                            .quiet(false)
+                            .build())
+                    .build();
+            batches.add(bounded(() -> s3AsyncClient.deleteObjects(req))
+                    .thenApply(res -> {
+                        res.errors().forEach(err ->
+                                log.warn("S3 삭제 실패: s3://{}/{} - {}", bucket, err.key(), err.message()));
+                        return res.deleted().size();
+                    }));
+        }
+
+        return CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new))
+                .thenApply(v -> batches.stream().mapToInt(CompletableFuture::join).sum());
+    }
+
+    /**
+     * 모든 future 결과를 입력 순서대로 기다림
+     * - 하나라도 실패하면 나머지를 기다리지 않고 취소한 뒤 원인 예외를 던짐
+     */
+    public static <T> List<T> joinAll(List<CompletableFuture<T>> futures) {
+        CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+        futures.forEach(f -> f.whenComplete((res, err) -> {
+            if (err != null) firstFailure.completeExceptionally(err);
+        }));
+
+        try {
+            CompletableFuture.anyOf(
+                    CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)),
+                    firstFailure
+            ).join();
+        } catch (CompletionException e) {
+            futures.forEach(f -> f.cancel(true));
+            Throwable cause = e.getCause() instanceof CompletionException ce ? ce.getCause() : e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            throw e;
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    /* ----- 내부 유틸 ----- */
+
+    private <T> CompletableFuture<T> bounded(Supplier<CompletableFuture<T>> request) {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(new IllegalStateException("S3 비동기 요청 대기 중 인터럽트", e));
+        }
+
+        CompletableFuture<T> future;
+        try {
+            future = request.get();
+        } catch (RuntimeException e) {
+            inFlight.release();
+            return CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((res, err) -> inFlight.release());
+    }
+}
@@ -0,0 +1,265 @@
+package com.rag.lecturelens.service;
+
+import com.rag.lecturelens.domain.WorkloadType;
+import com.rag.lecturelens.executor.PipelineExecutors;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 큰 객체용 S3 멀티파트 업로드
+ * - 스트림을 part-size 단위로 잘라서 파트별로 동시에 전송 (STORAGE_PART 레인)
+ * - 파트 단위 재시도 → 마지막 파트에서 실패해도 전체를 다시 올리지 않음
+ * - 실패하면 업로드를 abort (남은 조각이 과금되지 않도록). 파트 하나가 실패하면 스트림을 더 읽지 않고 바로 중단
+ * - 메모리: 업로드 1건당 최대 concurrency 개의 파트 버퍼 (기본 8MB × 4)
+ *   + 모든 업로드의 파트 버퍼 합계를 app.s3.multipart.max-buffer 로 제한 (동시 업로드가 많아도 힙이 같이 늘지 않음)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class S3MultipartUploader {
+
+    private static final long MIN_PART_SIZE = DataSize.ofMegabytes(5).toBytes();
+    private static final int MAX_PARTS = 10_000;
+
+    private final S3Client s3Client;
+    private final PipelineExecutors pipelineExecutors;
+
+    @Value("${app.s3.bucket}")
+    private String bucket;
+
+    @Value("${app.s3.multipart.threshold:64MB}")
+    private DataSize threshold;
+
+    // 재시도 시 같은 바이트를 다시 보내야 하므로 파트는 메모리에 버퍼링 → 작게 (S3 최소 5MB)
+    @Value("${app.s3.multipart.part-size:8MB}")
+    private DataSize partSize;
+
+    @Value("${app.s3.multipart.concurrency:4}")
+    private int concurrency;
+
+    @Value("${app.s3.multipart.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.s3.multipart.max-buffer:64MB}")
+    private DataSize maxBuffer;
+
+    // 전체 업로드 공용 파트 버퍼 예산 (permit = byte)
+    private Semaphore bufferBudget;
+
+    @PostConstruct
+    void initBufferBudget() {
+        bufferBudget = new Semaphore((int) Math.min(maxBuffer.toBytes(), Integer.MAX_VALUE), true);
+    }
+
+    public boolean shouldUseMultipart(long size) {
+        return size >= threshold.toBytes();
+    }
+
+    /**
+     * 스트림을 멀티파트로 업로드 (스트림은 호출 측에서 닫음)
+     */
+    public void upload(String key, String contentType, InputStream in, long size) {
+        int chunkSize = resolvePartSize(size);
+
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .contentType(contentType)
+                .acl(ObjectCannedACL.PRIVATE)
+                .build()).uploadId();
+
+        log.info("S3 멀티파트 업로드 시작: s3://{}/{}, size={}, partSize={}", bucket, key, size, chunkSize);
+
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicReference<RuntimeException> partFailure = new AtomicReference<>();
+        List<Future<CompletedPart>> futures = new ArrayList<>();
+        // 파트 버퍼 예산 반납 (파트마다 한 번) - 시작 전에 취소된 파트는 task 안의 finally 가 돌지 않으므로 마지막에 한꺼번에
+        List<Runnable> releases = new ArrayList<>();
+        try {
+            int partNumber = 1;
+            long remaining = size;
+            while (remaining > 0) {
+                int length = (int) Math.min(chunkSize, remaining);
+                inFlight.acquire();
+                RuntimeException failure = partFailure.get();
+                if (failure != null) {
+                    throw failure;  // 앞 파트가 이미 실패 → 나머지 스트림은 읽지 않음
+                }
+
+                Runnable release = reserveBuffer(length);
+                releases.add(release);
+                byte[] buffer = in.readNBytes(length);
+                if (buffer.length != length) {
+                    throw new IOException("스트림이 예상보다 짧음: expected=" + size + ", key=" + key);
+                }
+
+                int number = partNumber++;
+                futures.add(pipelineExecutors.submit(WorkloadType.STORAGE_PART, () -> {
+                    try {
+                        return uploadPartWithRetry(key, uploadId, number, buffer);
+                    } catch (RuntimeException e) {
+                        partFailure.compareAndSet(null, e);
+                        throw e;
+                    } finally {
+                        release.run();
+                        inFlight.release();
+                    }
+                }));
+                remaining -= length;
+            }
+
+            List<CompletedPart> parts = new ArrayList<>();
+            for (Future<CompletedPart> future : futures) {
+                parts.add(future.get());
+            }
+            parts.sort(Comparator.comparing(CompletedPart::partNumber));
+
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build());
+
+            log.info("S3 멀티파트 업로드 완료: s3://{}/{}, parts={}", bucket, key, parts.size());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(key, uploadId, futures);
+            throw new IllegalStateException("S3 멀티파트 업로드 중 인터럽트: " + key, e);
+        } catch (ExecutionException e) {
+            abort(key, uploadId, futures);
+            throw new RuntimeException("S3 멀티파트 업로드 실패: s3://" + bucket + "/" + key, e.getCause());
+        } catch (IOException | RuntimeException e) {
+            abort(key, uploadId, futures);
+            throw new RuntimeException("S3 멀티파트 업로드 실패: s3://" + bucket + "/" + key, e);
+        } finally {
+            releases.forEach(Runnable::run);
+        }
+    }
+
+    /**
+     * 시작된 지 오래된 미완료 멀티파트 업로드 정리 (파드가 죽어서 abort 못 한 경우)
+     */
+    public int abortStaleUploads(String prefix, Instant initiatedBefore) {
+        int aborted = 0;
+        String keyMarker = null;
+        String uploadIdMarker = null;
+        ListMultipartUploadsResponse res;
+        do {
+            res = s3Client.listMultipartUploads(ListMultipartUploadsRequest.builder()
+                    .bucket(bucket)
+                    .prefix(prefix)
+                    .keyMarker(keyMarker)
+                    .uploadIdMarker(uploadIdMarker)
+                    .build());
+
+            for (MultipartUpload upload : res.uploads()) {
+                if (upload.initiated() != null && upload.initiated().isBefore(initiatedBefore)) {
+                    abortQuietly(upload.key(), upload.uploadId());
+                    aborted++;
+                }
+            }
+            keyMarker = res.nextKeyMarker();
+            uploadIdMarker = res.nextUploadIdMarker();
+        } while (Boolean.TRUE.equals(res.isTruncated()));
+        return aborted;
+    }
+
+    /* ----- 내부 유틸 ----- */
+
+    private CompletedPart uploadPartWithRetry(String key, String uploadId, int partNumber, byte[] buffer) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                UploadPartResponse res = s3Client.uploadPart(UploadPartRequest.builder()
+                                .bucket(bucket)
+                                .key(key)
+                                .uploadId(uploadId)
+                                .partNumber(partNumber)
+                                .contentLength((long) buffer.length)
+                                .build(),
+                        RequestBody.fromBytes(buffer));
+                return CompletedPart.builder()
+                        .partNumber(partNumber)
+                        .eTag(res.eTag())
+                        .build();
+            } catch (SdkException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.warn("S3 파트 업로드 재시도: key={}, part={}, attempt={}/{} - {}",
+                        key, partNumber, attempt, maxAttempts, e.getMessage());
+                sleepBackoff(attempt);
+            }
+        }
+    }
+
+    /**
+     * 공용 버퍼 예산에서 length 만큼 확보 → 반환값을 실행하면 반납 (여러 번 실행해도 한 번만)
+     * - 파트 하나가 예산보다 크면(파트 수 제한 때문에 커진 경우) 예산 전체만 잡음
+     */
+    private Runnable reserveBuffer(int length) throws InterruptedException {
+        int reserved = Math.min(length, (int) Math.min(maxBuffer.toBytes(), Integer.MAX_VALUE));
+        bufferBudget.acquire(reserved);
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                bufferBudget.release(reserved);
+            }
+        };
+    }
+
+    private int resolvePartSize(long size) {
+        long chunk = Math.max(partSize.toBytes(), MIN_PART_SIZE);
+        // 파트 수 제한(10,000)을 넘지 않도록 필요하면 파트를 키운다
+        long minForLimit = (size + MAX_PARTS - 1) / MAX_PARTS;
+        return (int) Math.max(chunk, minForLimit);
+    }
+
+    private void abort(String key, String uploadId, List<Future<CompletedPart>> futures) {
+        futures.forEach(f -> f.cancel(true));
+        abortQuietly(key, uploadId);
+    }
+
+    private void abortQuietly(String key, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+            log.info("S3 멀티파트 업로드 중단(abort): s3://{}/{}, uploadId={}", bucket, key, uploadId);
+        } catch (SdkException e) {
+            log.warn("S3 멀티파트 abort 실패: s3://{}/{} - {}", bucket, key, e.getMessage());
+        }
+    }
+
+    private void sleepBackoff(int attempt) {
+        try {
+            Thread.sleep(200L << (attempt - 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("S3 파트 재시도 대기 중 인터럽트", e);
+        }
+    }
+}
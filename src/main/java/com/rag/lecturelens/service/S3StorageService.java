@@ -1,9 +1,12 @@
 package com.rag.lecturelens.service;
 
-import com.rag.lecturelens.dto.UploadFileData;
+import com.rag.lecturelens.domain.WorkloadType;
+import com.rag.lecturelens.dto.StoredObject;
+import com.rag.lecturelens.executor.PipelineExecutors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import software.amazon.awssdk.core.ResponseBytes;
@@ -11,13 +14,26 @@ import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Slf4j
 @Service
@@ -25,6 +41,10 @@ import java.util.List;
 public class S3StorageService {
 
     private final S3Client s3Client;
+    private final PipelineExecutors pipelineExecutors;
+    private final S3MultipartUploader multipartUploader;
+    private final S3AsyncStorageService asyncStorageService;
+    private final S3Presigner s3Presigner;
 
     @Value("${app.s3.bucket}")
     private String bucket;
@@ -34,93 +54,74 @@ public class S3StorageService {
 
     // ===================== 업로드 ======================
 
-    public List<String> uploadOriginalFile(String userId,
+    /**
+     * 업로드 요청의 MultipartFile을 스트림 그대로 S3에 올린다.
+     * - getBytes()로 힙에 올리지 않고, 서블릿 컨테이너가 스풀한 파일에서 바로 읽어서 전송
+     * - 파일마다 STORAGE 레인에서 동시에 업로드
+     * - 전송하면서 SHA-256 계산 (중복 파일 판별용, 다시 읽지 않음)
+     * - app.s3.multipart.threshold 이상이면 멀티파트 업로드 (파트 동시 전송 + 파트 단위 재시도)
+     */
+    public List<StoredObject> uploadOriginalFile(String userId,
                                            Long lectureId,
                                            String logical,
                                            MultipartFile [] files) {
-        List<String> keys = new ArrayList<>();
+        List<Callable<StoredObject>> uploads = new ArrayList<>();
         for(MultipartFile file : files) {
             String logicalName = logical + file.getOriginalFilename();
             String key = buildKey(userId,lectureId, logicalName);
 
-            try {
-                PutObjectRequest putReq = PutObjectRequest.builder()
-                        .bucket(bucket)
-                        .key(key)
-                        .contentType(file.getContentType())
-                        .acl(ObjectCannedACL.PRIVATE)
-                        .build();
-
-                s3Client.putObject(
-                        putReq,
-                        RequestBody.fromInputStream(file.getInputStream(), file.getSize())
-                );
-
-                log.info("S3 업로드 완료 (multipart): s3://{}/{}", bucket, key);
-                keys.add(key);
-
-            } catch (IOException e) {
-                throw new RuntimeException("S3 업로드 실패: s3://" + bucket + "/" + key, e);
-            }
-        }
-        return keys;
-    }
-
-    public List<String> uploadOriginalBytes(String userId,
-                                            Long lectureId,
-                                            String logical,
-                                            List<UploadFileData> files) {
-        List<String> keys = new ArrayList<>();
-        for (UploadFileData file : files) {
-            String logicalName = logical + file.originalFilename();
-            String key = buildKey(userId, lectureId, logicalName);
-
             PutObjectRequest putReq = PutObjectRequest.builder()
                     .bucket(bucket)
                     .key(key)
-                    .contentType(file.contentType())
+                    .contentType(file.getContentType())
                     .acl(ObjectCannedACL.PRIVATE)
                     .build();
 
-            s3Client.putObject(
-                    putReq,
-                    RequestBody.fromBytes(file.bytes())
-            );
-
-            log.info("S3 업로드 완료 (multipart bytes): s3://{}/{}", bucket, key);
-            keys.add(key);
+            uploads.add(() -> {
+                MessageDigest digest = sha256();
+                try (InputStream is = new DigestInputStream(file.getInputStream(), digest)) {
+                    if (multipartUploader.shouldUseMultipart(file.getSize())) {
+                        multipartUploader.upload(key, file.getContentType(), is, file.getSize());
+                    } else {
+                        s3Client.putObject(putReq, RequestBody.fromInputStream(is, file.getSize()));
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException("S3 업로드 실패: s3://" + bucket + "/" + key, e);
+                }
+                String contentHash = HexFormat.of().formatHex(digest.digest());
+                log.info("S3 업로드 완료 (multipart stream): s3://{}/{}, size={}, sha256={}",
+                        bucket, key, file.getSize(), contentHash);
+                return new StoredObject(key, contentHash, file.getSize());
+            });
         }
-        return keys;
+        return pipelineExecutors.invokeAll(WorkloadType.STORAGE, uploads);
     }
 
-    public List<String> uploadConvertFile(String userId,
+    /**
+     * 이미 S3에 있는 객체를 강의의 처리용 key 로 서버사이드 복사 (예: lecture_document_0.pdf)
+     * - 바이트가 애플리케이션을 거치지 않음, 원본 확장자 / 메타데이터(Content-Type) 유지
+     * - 파일마다 비동기 클라이언트로 동시에 복사 (스레드를 붙잡지 않음)
+     */
+    public List<String> copyForProcessing(String userId,
                                           Long lectureId,
                                           String logical,
-                                          List<byte[]> bytes,
-                                          String contentType) {
-        List<String> keys = new ArrayList<>();
+                                          List<String> sourceKeys) {
+        List<CompletableFuture<String>> copies = new ArrayList<>();
         int cnt = 0;
-        for( byte[] byteArray : bytes ) {
-            String logicalName = logical + "_" + cnt++;
-            String key = buildKey(userId,lectureId, logicalName);
-
-            PutObjectRequest putReq = PutObjectRequest.builder()
-                    .bucket(bucket)
-                    .key(key)
-                    .contentType(contentType)
-                    .acl(ObjectCannedACL.PRIVATE)
-                    .build();
-
-            s3Client.putObject(
-                    putReq,
-                    RequestBody.fromBytes(byteArray)
-            );
-
-            log.info("S3 업로드 완료 (bytes): s3://{}/{}", bucket, key);
-            keys.add(key);
+        for (String sourceKey : sourceKeys) {
+            String logicalName = logical + "_" + cnt++ + extensionOf(sourceKey);
+            String key = buildKey(userId, lectureId, logicalName);
+            copies.add(asyncStorageService.copy(sourceKey, key, null));
         }
 
-        return keys;
+        return S3AsyncStorageService.joinAll(copies);
+    }
+
+    // "a/b/lecture.PDF" → ".PDF", 확장자 없으면 ""
+    private static String extensionOf(String key) {
+        int slash = key.lastIndexOf('/');
+        int dot = key.lastIndexOf('.');
+        return dot > slash ? key.substring(dot) : "";
     }
 
     public String uploadResultFile(String userId,
@@ -140,14 +141,44 @@ public class S3StorageService {
                 .acl(ObjectCannedACL.PRIVATE)
                 .build();
 
-        s3Client.putObject(
-                putReq,
-                RequestBody.fromBytes(bytes)
-        );
+        pipelineExecutors.run(WorkloadType.STORAGE, () -> {
+            if (multipartUploader.shouldUseMultipart(bytes.length)) {
+                multipartUploader.upload(key, contentType, new ByteArrayInputStream(bytes), bytes.length);
+            } else {
+                s3Client.putObject(putReq, RequestBody.fromBytes(bytes));
+            }
+        });
         log.info("S3 업로드 완료 (result): s3://{}/{}", bucket, key);
         return key;
     }
 
+    /**
+     * 파이프라인 중간 산출물(transcript, 요약 markdown 등) 텍스트 저장
+     */
+    public String uploadTextFile(String key, String text) {
+        PutObjectRequest putReq = PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .contentType("text/plain; charset=utf-8")
+                .acl(ObjectCannedACL.PRIVATE)
+                .build();
+
+        pipelineExecutors.call(WorkloadType.STORAGE, () -> s3Client.putObject(
+                putReq,
+                RequestBody.fromString(text, StandardCharsets.UTF_8)
+        ));
+        log.info("S3 업로드 완료 (text): s3://{}/{}", bucket, key);
+        return key;
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 미지원 JVM", e);
+        }
+    }
+
     // ===================== 다운로드 ======================
 
     public String getObjectUrl(String key) {
@@ -155,7 +186,7 @@ public class S3StorageService {
         return "https://" + bucket + ".s3.amazonaws.com/" + encodedKey;
     }
 
-    private String buildKey(String userId,Long lectureId, String logicalName) {
+    public String buildKey(String userId,Long lectureId, String logicalName) {
         return baseDir + "/" + userId + "/" + lectureId + "/" + logicalName;
     }
 
@@ -168,8 +199,44 @@ public class S3StorageService {
         return s3Client.getObject(getReq);
     }
 
-    public byte[] downloadFile(String summarizeKey) {
-        return getObjectBytes(summarizeKey);
+    /**
+     * 객체 크기 (Range 계산용)
+     */
+    public long getObjectLength(String key) {
+        return s3Client.headObject(HeadObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .build()).contentLength();
+    }
+
+    /**
+     * 바이트 구간 [start, end] 만 스트림으로 (HTTP Range 다운로드용)
+     */
+    public ResponseInputStream<GetObjectResponse> getObjectRangeStream(String key, long start, long end) {
+        return s3Client.getObject(GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .range("bytes=" + start + "-" + end)
+                .build());
+    }
+
+    /**
+     * 짧게 유효한 presigned GET URL (클라이언트가 S3에서 직접 받도록 → 앱이 데이터 경로에서 빠짐)
+     */
+    public PresignedGetObjectRequest presignGet(String key, String downloadFileName, Duration ttl) {
+        GetObjectRequest getReq = GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .responseContentDisposition(ContentDisposition.attachment()
+                        .filename(downloadFileName, StandardCharsets.UTF_8)
+                        .build()
+                        .toString())
+                .build();
+
+        return s3Presigner.presignGetObject(GetObjectPresignRequest.builder()
+                .signatureDuration(ttl)
+                .getObjectRequest(getReq)
+                .build());
     }
 
     public byte[] getObjectBytes(String key) {
@@ -178,16 +245,54 @@ public class S3StorageService {
                 .key(key)
                 .build();
 
-        try (ResponseInputStream<GetObjectResponse> s3is = s3Client.getObject(req)) {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            byte[] buf = new byte[8192];
-            int len;
-            while ((len = s3is.read(buf)) != -1) {
-                baos.write(buf, 0, len);
+        return pipelineExecutors.call(WorkloadType.STORAGE, () -> {
+            try (ResponseInputStream<GetObjectResponse> s3is = s3Client.getObject(req)) {
+                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                byte[] buf = new byte[8192];
+                int len;
+                while ((len = s3is.read(buf)) != -1) {
+                    baos.write(buf, 0, len);
+                }
+                return baos.toByteArray();
+            } catch (IOException e) {
+                throw new RuntimeException("S3 객체 읽기 실패: " + key, e);
             }
-            return baos.toByteArray();
-        } catch (IOException e) {
-            throw new RuntimeException("S3 객체 읽기 실패: " + key, e);
+        });
+    }
+
+    public String getObjectText(String key) {
+        return new String(getObjectBytes(key), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 여러 텍스트 객체를 동시에 읽기 (입력 순서 유지)
+     */
+    public List<String> getObjectTexts(List<String> keys) {
+        List<CompletableFuture<byte[]>> reads = keys.stream()
+                .map(asyncStorageService::getBytes)
+                .toList();
+        return S3AsyncStorageService.joinAll(reads).stream()
+                .map(bytes -> new String(bytes, StandardCharsets.UTF_8))
+                .toList();
+    }
+
+    /**
+     * 객체 존재 여부 (체크포인트 재사용 판단용)
+     */
+    public boolean exists(String key) {
+        try {
+            s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .build());
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return false;
+            }
+            throw e;
         }
     }
 
@@ -214,32 +319,19 @@ public class S3StorageService {
     }
 
     /**
-     * S3에서 여러 객체 한 번에 삭제
+     * S3에서 여러 객체 삭제 (1000개 단위 배치를 비동기로 동시에 요청)
      */
     public void deleteObjects(List<String> keys) {
         if (keys == null || keys.isEmpty()) {
             return;
         }
 
-        List<ObjectIdentifier> toDelete = keys.stream()
-                .filter(k -> k != null && !k.isBlank())
-                .map(k -> ObjectIdentifier.builder().key(k).build())
-                .toList();
-
-        if (toDelete.isEmpty()) {
-            return;
-        }
-
         try {
-            DeleteObjectsRequest req = DeleteObjectsRequest.builder()
-                    .bucket(bucket)
-                    .delete(Delete.builder().objects(toDelete).build())
-                    .build();
-
-            DeleteObjectsResponse res = s3Client.deleteObjects(req);
-            log.info("S3 다건 삭제 완료: {}개 삭제", res.deleted().size());
-        } catch (S3Exception e) {
-            log.warn("S3 다건 삭제 실패: {}", e.awsErrorDetails().errorMessage());
+            int deleted = asyncStorageService.deleteAll(keys).join();
+            log.info("S3 다건 삭제 완료: {}개 삭제", deleted);
+        } catch (CompletionException e) {
+            // 없는 키 등으로 실패해도 강의 삭제는 계속 진행 (단건 삭제와 동일하게 로그만)
+            log.warn("S3 다건 삭제 실패: {}", e.getCause() == null ? e.getMessage() : e.getCause().getMessage());
         }
     }
 }
@@ -1,60 +1,124 @@
 package com.rag.lecturelens.service;
 
+import com.rag.lecturelens.domain.ChunkSource;
+import com.rag.lecturelens.domain.WorkloadType;
+import com.rag.lecturelens.dto.RetrievedChunk;
 import com.rag.lecturelens.entity.LectureChunk;
+import com.rag.lecturelens.executor.PipelineExecutors;
 import com.rag.lecturelens.openai.OpenAiClient;
+import com.rag.lecturelens.openai.OpenAiCost;
+import com.rag.lecturelens.repository.AudioChunkRepository;
 import com.rag.lecturelens.repository.LectureChunkRepository;
-import com.rag.lecturelens.util.EmbeddingUtils;
+import com.rag.lecturelens.vector.MmrReranker;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class SummarizationService {
 
     private final LectureChunkRepository chunkRepository;
-    private final OpenAiEmbeddingService embeddingService;
+    private final AudioChunkRepository audioChunkRepository;
+    private final EmbeddingService embeddingService;
+    private final HybridRetrievalService hybridRetrievalService;
     private final OpenAiClient openAiClient;
     private final ObjectMapper objectMapper;
+    private final PipelineExecutors pipelineExecutors;
 
-    // 1) 기존: lectureId 기반 요약 (DB에서 알아서 가져오는 버전)
+    // 요약 context: 후보 candidates 개를 뽑아 MMR 로 중복을 걸러 context-chunks 개만 사용
+    @Value("${app.summary.candidates:60}")
+    private int candidates;
+
+    @Value("${app.summary.context-chunks:12}")
+    private int contextChunks;
+
+    // 1 = 관련도만, 0 = 다양성만
+    @Value("${app.summary.mmr-lambda:0.7}")
+    private double mmrLambda;
+
+    // 슬라이드 / 음성 순서대로 context 를 놓음 (강의 흐름 분석용)
+    private static final Comparator<RetrievedChunk> LECTURE_ORDER = Comparator
+            .comparing(RetrievedChunk::source)
+            .thenComparing(RetrievedChunk::slideNo, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(RetrievedChunk::startSec, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(RetrievedChunk::id);
+
+    // 임베딩 입력 한도를 넘지 않도록 질의 텍스트 길이 제한
+    private static final int MAX_QUERY_CHARS = 4000;
+
+    // 1) 기존: lectureId 기반 요약 (앞쪽 슬라이드 텍스트를 질의로)
     public String summarizeLecture(String userId, Long lectureId) {
-        String ctx = buildContextFromLecture(lectureId);
+        String wholeText = chunkRepository.findTop20ByLectureIdOrderBySlideNoAsc(lectureId)
+                .stream()
+                .map(LectureChunk::getText)
+                .reduce("", (a, b) -> a + "\n" + b);
+        return summarizeLecture(lectureId, wholeText);
+    }
+
+    // 2) 파이프라인 SUMMARIZE 단계: 강의 주제 질의로 검색한 청크만 context 로 (강의 전체를 프롬프트에 넣지 않음)
+    public String summarizeLecture(Long lectureId, String topicQuery) {
+        String ctx = buildContextFromLecture(lectureId, topicQuery);
+        if (ctx.isEmpty()) {
+            throw new IllegalStateException("요약할 강의 청크가 없습니다: lectureId=" + lectureId);
+        }
         return summarizeFromContext(ctx);
     }
 
-    // 2) 신규: LectureSummarizationService 등이 사용할 “공용 프롬프트 메서드”
+    // 3) 공용 프롬프트 메서드
     public String summarizeFromContext(String ctx) {
         String prompt = buildPrompt(ctx);
-        return callOpenAi(prompt);
+        return pipelineExecutors.call(WorkloadType.LLM, () -> callOpenAi(prompt));
     }
 
     // ===== 아래부터는 내부 유틸 =====
 
-    // lectureId 기준으로 topN chunk 뽑아서 context 만드는 부분 (지금 코드 그대로 이동)
-    private String buildContextFromLecture(Long lectureId) {
+    // topicQuery 로 슬라이드 + 음성 청크를 검색해서 context 를 만드는 부분
+    private String buildContextFromLecture(Long lectureId, String topicQuery) {
 
-        String wholeText = chunkRepository.findTop20ByLectureIdOrderByImportanceScoreDesc(lectureId)
-                .stream()
-                .map(LectureChunk::getText)
-                .reduce("", (a, b) -> a + "\n" + b);
+        String query = topicQuery == null ? "" : topicQuery.strip();
+        if (query.length() > MAX_QUERY_CHARS) {
+            query = query.substring(0, MAX_QUERY_CHARS);
+        }
 
-        float[] queryVec = embeddingService.embed(wholeText);
-        String queryLiteral = EmbeddingUtils.toPgVectorLiteral(queryVec);
+        List<RetrievedChunk> chunks;
+        if (query.isEmpty()) {
+            chunks = orderedChunks(lectureId);
+        } else {
+            float[] queryVec = embeddingService.embed(query);
 
-        List<LectureChunk> chunks = chunkRepository.searchTopN(lectureId, queryLiteral, 20);
+            // 슬라이드 + 음성 청크에서 벡터 / 키워드 검색을 합쳐서 넉넉히 뽑고
+            List<RetrievedChunk> pool = hybridRetrievalService.retrieve(
+                    lectureId, query, queryVec, candidates, EnumSet.allOf(ChunkSource.class));
+
+            // 문장 단위 음성 청크는 같은 내용이 여러 개로 잡힘 → MMR 로 서로 다른 내용 위주로 고름 (프롬프트 토큰 절약)
+            chunks = pool.isEmpty() ? orderedChunks(lectureId)
+                    : MmrReranker.rerank(queryVec, pool, contextChunks, mmrLambda);
+        }
 
         StringBuilder ctx = new StringBuilder();
-        for (LectureChunk c : chunks) {
+        for (RetrievedChunk c : chunks.stream().sorted(LECTURE_ORDER).toList()) {
             ctx.append("### Chunk\n");
-            ctx.append(c.getText()).append("\n\n");
+            ctx.append(c.text()).append("\n\n");
         }
         return ctx.toString();
     }
 
+    // 검색 결과가 없을 때 (질의가 비었거나 아직 현재 모델 임베딩이 없음) → 슬라이드 번호 / 시간 순 앞부분
+    private List<RetrievedChunk> orderedChunks(Long lectureId) {
+        return Stream.concat(
+                chunkRepository.findTop20ByLectureIdOrderBySlideNoAsc(lectureId).stream().map(RetrievedChunk::of),
+                audioChunkRepository.findTop30ByLectureIdOrderByStartSecAsc(lectureId).stream().map(RetrievedChunk::of)
+        ).limit(contextChunks).toList();
+    }
+
     // 프롬프트 문자열을 만드는 부분 (지금 SummarizationService의 prompt 그대로)
     private String buildPrompt(String ctx) {
         return """
@@ -109,12 +173,13 @@ public class SummarizationService {
                     {"role": "system", "content": "너는 한국 대학 강의를 요약하는 전문가이다."},
                     {"role": "user", "content": %s}
                   ],
-                  "temperature": 0.2
+                  "temperature": 0.2,
                   "max_tokens": 2000
                 }
             """.formatted(objectMapper.writeValueAsString(prompt));
 
-            String response = openAiClient.postJson("/chat/completions", payload);
+            String response = openAiClient.postJson("/chat/completions",
+                    OpenAiCost.of("gpt-4.1", OpenAiCost.estimateTokens(prompt) + 2000), payload);
             JsonNode root = objectMapper.readTree(response);
             return root.get("choices").get(0).get("message").get("content").asText();
 
@@ -0,0 +1,182 @@
+package com.rag.lecturelens.service;
+
+import com.rag.lecturelens.domain.VectorPrecision;
+import com.rag.lecturelens.embedding.EmbeddingProvider;
+import com.rag.lecturelens.util.EmbeddingUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 청크 임베딩 ANN 인덱스 관리 (lecture_chunk / audio_chunk)
+ * - app.vector.index.method = hnsw(기본) | ivfflat, 인덱스 정의(빌드 파라미터 포함) 해시가 인덱스 이름에 포함
+ * - app.vector.precision = FULL | HALFVEC | BINARY → 해당 정밀도의 expression 인덱스 하나만 유지
+ * - 현재 임베딩 설정(모델 + 차원)의 행만 담는 부분 인덱스 (embedding 컬럼은 차원 고정이 없음)
+ * - app.vector.search.first-pass-dimensions 를 쓰면 앞 N 차원 식으로 인덱스 (검색 식과 같아야 함)
+ * - 파라미터가 바뀌면 새 인덱스를 CONCURRENTLY 로 만든 뒤 예전 인덱스를 지움 (검색 공백 없음)
+ * - 빌드 실패로 남은 INVALID 인덱스는 지우고 다시 만듦
+ * - 필터 검색용 lecture_id / user_id btree 인덱스도 같이 보장
+ * - 키워드 검색(text ~* 'a|b')용 pg_trgm GIN 인덱스 (확장이 설치돼 있을 때만)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VectorIndexService {
+
+    private static final List<String> TABLES = List.of("lecture_chunk", "audio_chunk");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EmbeddingProvider embeddingProvider;
+
+    @Value("${app.vector.index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.vector.index.method:hnsw}")
+    private String method;
+
+    @Value("${app.vector.index.hnsw.m:16}")
+    private int m;
+
+    @Value("${app.vector.index.hnsw.ef-construction:64}")
+    private int efConstruction;
+
+    @Value("${app.vector.index.ivfflat.lists:100}")
+    private int lists;
+
+    @Value("${app.vector.precision:FULL}")
+    private VectorPrecision precision;
+
+    @Value("${app.vector.search.first-pass-dimensions:0}")
+    private int firstPassDimensions;
+
+    /**
+     * 기동 후 백그라운드(BACKGROUND 레인)에서 인덱스 보장 - CONCURRENTLY 라 쓰기를 막지 않음
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexesOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            ensureIndexes();
+        } catch (RuntimeException e) {
+            log.error("벡터 인덱스 준비 실패", e);
+        }
+    }
+
+    public void ensureIndexes() {
+        for (String table : TABLES) {
+            if (!tableExists(table)) {
+                log.info("벡터 인덱스 건너뜀 (테이블 없음): {}", table);
+                continue;
+            }
+            ensureBtreeIndex(table, "lecture_id");
+            ensureBtreeIndex(table, "user_id");
+            ensureTrigramIndex(table);
+            ensureVectorIndex(table);
+        }
+    }
+
+    /* ----- 내부 유틸 ----- */
+
+    private void ensureVectorIndex(String table) {
+        int dimensions = embeddingProvider.dimensions();
+        String definition = " using " + method
+                + " (" + precision.columnExpression(dimensions, firstPassDimensions) + " " + precision.operatorClass() + ")"
+                + " with (" + withClause() + ")"
+                + " where " + EmbeddingUtils.embeddingSpaceCondition(embeddingProvider.modelId(), dimensions);
+        String name = vectorIndexName(table, dimensions, definition);
+
+        // embedding 컬럼(또는 그 압축 식)에 걸린 ANN 인덱스 전부가 대상
+        List<Map<String, Object>> existing = jdbcTemplate.queryForList("""
+                select c.relname as name, i.indisvalid as valid
+                from pg_index i
+                join pg_class c on c.oid = i.indexrelid
+                join pg_class t on t.oid = i.indrelid
+                join pg_am am on am.oid = c.relam
+                where t.relname = ?
+                  and t.relnamespace = (select oid from pg_namespace where nspname = current_schema())
+                  and am.amname in ('hnsw', 'ivfflat')
+                  and pg_get_indexdef(i.indexrelid) like '%embedding%'
+                """, table);
+
+        boolean ready = false;
+        for (Map<String, Object> row : existing) {
+            if (name.equals(row.get("name"))) {
+                if (Boolean.TRUE.equals(row.get("valid"))) {
+                    ready = true;
+                } else {
+                    log.warn("INVALID 벡터 인덱스 재생성: {}", name);
+                    dropIndex(name);
+                }
+            }
+        }
+
+        if (!ready) {
+            long start = System.currentTimeMillis();
+            log.info("🧭 벡터 인덱스 생성 시작: {} on {}{}", name, table, definition);
+            jdbcTemplate.execute("create index concurrently if not exists " + name + " on " + table + definition);
+            log.info("🧭 벡터 인덱스 생성 완료: {} ({} ms)", name, System.currentTimeMillis() - start);
+        }
+
+        // 파라미터 / 정밀도가 다른 예전 인덱스 정리 (새 인덱스가 준비된 다음에)
+        for (Map<String, Object> row : existing) {
+            String old = (String) row.get("name");
+            if (!name.equals(old)) {
+                log.info("🧭 예전 벡터 인덱스 삭제: {}", old);
+                dropIndex(old);
+            }
+        }
+    }
+
+    private void ensureBtreeIndex(String table, String column) {
+        jdbcTemplate.execute("create index concurrently if not exists " + table + "_" + column + "_idx"
+                + " on " + table + " (" + column + ")");
+    }
+
+    private void ensureTrigramIndex(String table) {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "select exists (select 1 from pg_extension where extname = 'pg_trgm')", Boolean.class))) {
+            log.warn("pg_trgm 확장이 없어 키워드 검색 인덱스를 건너뜀: {}", table);
+            return;
+        }
+        jdbcTemplate.execute("create index concurrently if not exists " + table + "_text_trgm_idx"
+                + " on " + table + " using gin (text gin_trgm_ops)");
+    }
+
+    private void dropIndex(String name) {
+        jdbcTemplate.execute("drop index concurrently if exists " + name);
+    }
+
+    private boolean tableExists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "select to_regclass(?) is not null", Boolean.class, table));
+    }
+
+    // 예: lecture_chunk_embedding_d1536_hnsw_3fa91c_idx / lecture_chunk_embedding_halfvec_p256_d1536_ivfflat_0b17e2_idx
+    // (이름 길이 63자 제한 → 모델 / 빌드 파라미터는 정의 해시로만 구분)
+    private String vectorIndexName(String table, int dimensions, String definition) {
+        return table + "_embedding_"
+                + (precision == VectorPrecision.FULL ? "" : precision.name().toLowerCase() + "_")
+                + (VectorPrecision.isTruncated(dimensions, firstPassDimensions) ? "p" + firstPassDimensions + "_" : "")
+                + "d" + dimensions + "_" + method + "_"
+                + String.format("%06x", definition.hashCode() & 0xffffff) + "_idx";
+    }
+
+    private String withClause() {
+        return switch (method) {
+            case "hnsw" -> "m = " + m + ", ef_construction = " + efConstruction;
+            case "ivfflat" -> "lists = " + lists;
+            default -> throw new IllegalStateException("지원하지 않는 벡터 인덱스: " + method);
+        };
+    }
+}
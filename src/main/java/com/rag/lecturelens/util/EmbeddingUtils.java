@@ -1,5 +1,8 @@
 package com.rag.lecturelens.util;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
 public class EmbeddingUtils {
 
     // float[] → "[0.1,0.2,...]" 형태로
@@ -15,4 +18,23 @@ public class EmbeddingUtils {
         sb.append("]");
         return sb.toString();
     }
+
+    // 같은 임베딩 공간(모델 + 차원)의 행만 고르는 조건 - 다른 모델 / 차원 벡터끼리 비교하지 않도록
+    // 값을 SQL 에 직접 넣음 → 부분 인덱스(where embedding_model = ... and embedding_dims = ...) 조건과 맞아야 인덱스를 탐
+    public static String embeddingSpaceCondition(String model, int dimensions) {
+        return "embedding_model = '" + model.replace("'", "''") + "' and embedding_dims = " + dimensions;
+    }
+
+    // float[] → float32 little-endian 바이트 (캐시 저장용, 문자열보다 작고 파싱이 필요 없음)
+    public static byte[] toBytes(float[] vec) {
+        ByteBuffer buf = ByteBuffer.allocate(vec.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buf.asFloatBuffer().put(vec);
+        return buf.array();
+    }
+
+    public static float[] fromBytes(byte[] bytes) {
+        float[] vec = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(vec);
+        return vec;
+    }
 }
@@ -0,0 +1,123 @@
+package com.rag.lecturelens.vector;
+
+import com.rag.lecturelens.domain.ChunkSource;
+import com.rag.lecturelens.dto.RetrievedChunk;
+
+import java.util.*;
+
+/**
+ * 강의 하나의 청크 임베딩을 메모리에 올린 정확(brute-force) 벡터 인덱스 (불변)
+ * - 임베딩은 float[] 하나에 행 우선으로 연속 저장 (행 = 청크), 소스(슬라이드 / 음성)별로 연속 구간
+ *   → 청크마다 객체 / 텍스트 파싱 없이 커널이 배열을 순서대로 읽음
+ * - 순위는 pgvector 검색과 같은 L2 거리: |q - v|² = |q|² + |v|² - 2 q·v  (|v|² 는 적재 때 계산)
+ * - 결과 score = -|q - v|² (클수록 가까움), embedding 은 행 복사본
+ */
+public final class LectureVectorIndex {
+
+    // 청크 1개당 대략적인 객체 / 참조 오버헤드 (메모리 상한 계산용)
+    private static final int CHUNK_OVERHEAD_BYTES = 96;
+
+    private final String model;
+    private final int dimensions;
+    private final float[] vectors;
+    private final float[] squaredNorms;
+    private final RetrievedChunk[] chunks;          // embedding 은 비움 (vectors 에 있음)
+    private final Map<ChunkSource, int[]> ranges;   // 소스별 [from, to)
+    private final long estimatedBytes;
+    private final long loadedAt;
+
+    private LectureVectorIndex(String model, int dimensions, List<RetrievedChunk> sorted) {
+        this.model = model;
+        this.dimensions = dimensions;
+        int n = sorted.size();
+        this.vectors = new float[n * dimensions];
+        this.squaredNorms = new float[n];
+        this.chunks = new RetrievedChunk[n];
+        this.ranges = new EnumMap<>(ChunkSource.class);
+
+        long textBytes = 0;
+        for (int r = 0; r < n; r++) {
+            RetrievedChunk chunk = sorted.get(r);
+            float[] embedding = chunk.embedding();
+            System.arraycopy(embedding, 0, vectors, r * dimensions, dimensions);
+            squaredNorms[r] = VectorKernels.dotScalar(embedding, embedding, 0);
+            chunks[r] = new RetrievedChunk(chunk.source(), chunk.id(), chunk.lectureId(), chunk.text(),
+                    chunk.slideNo(), chunk.startSec(), chunk.endSec(), null, 0);
+            int row = r;
+            ranges.computeIfAbsent(chunk.source(), s -> new int[]{row, row})[1] = r + 1;
+            textBytes += chunk.text() == null ? 0 : chunk.text().length() * 2L;
+        }
+        this.estimatedBytes = (long) vectors.length * Float.BYTES + (long) n * Float.BYTES
+                + (long) n * CHUNK_OVERHEAD_BYTES + textBytes;
+        this.loadedAt = System.nanoTime();
+    }
+
+    /**
+     * 임베딩 길이가 dimensions 가 아닌 청크는 제외하고 적재
+     */
+    public static LectureVectorIndex build(String model, int dimensions, List<RetrievedChunk> chunks) {
+        List<RetrievedChunk> sorted = chunks.stream()
+                .filter(c -> c.embedding() != null && c.embedding().length == dimensions)
+                .sorted(Comparator.comparing(RetrievedChunk::source).thenComparing(RetrievedChunk::id))
+                .toList();
+        return new LectureVectorIndex(model, dimensions, sorted);
+    }
+
+    /**
+     * source 청크 중 query 와 가장 가까운 topN (거리 오름차순)
+     */
+    public List<RetrievedChunk> search(ChunkSource source, float[] query, int topN) {
+        if (query.length != dimensions) {
+            throw new IllegalArgumentException("질의 벡터 차원 불일치: " + query.length + " != " + dimensions);
+        }
+        int[] range = ranges.get(source);
+        if (range == null || topN <= 0) {
+            return List.of();
+        }
+
+        float[] scores = new float[chunks.length];
+        // 점수가 가장 낮은 것이 맨 앞 → topN 개만 유지
+        PriorityQueue<Integer> heap = new PriorityQueue<>(topN + 1, Comparator.comparingDouble(r -> scores[r]));
+        for (int r = range[0]; r < range[1]; r++) {
+            scores[r] = 2 * VectorKernels.dot(query, vectors, r * dimensions) - squaredNorms[r];
+            if (heap.size() < topN) {
+                heap.add(r);
+            } else if (scores[r] > scores[heap.peek()]) {
+                heap.poll();
+                heap.add(r);
+            }
+        }
+
+        float queryNorm = VectorKernels.dotScalar(query, query, 0);
+        RetrievedChunk[] result = new RetrievedChunk[heap.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            int r = heap.poll();
+            RetrievedChunk chunk = chunks[r];
+            result[i] = new RetrievedChunk(chunk.source(), chunk.id(), chunk.lectureId(), chunk.text(),
+                    chunk.slideNo(), chunk.startSec(), chunk.endSec(),
+                    Arrays.copyOfRange(vectors, r * dimensions, (r + 1) * dimensions),
+                    scores[r] - queryNorm);
+        }
+        return Arrays.asList(result);
+    }
+
+    public String model() {
+        return model;
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    public int size() {
+        return chunks.length;
+    }
+
+    public long estimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public long loadedAt() {
+        return loadedAt;
+    }
+}
@@ -0,0 +1,81 @@
+package com.rag.lecturelens.vector;
+
+import com.rag.lecturelens.dto.RetrievedChunk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maximal Marginal Relevance 재정렬 (후보 임베딩으로 JVM 안에서 계산)
+ * - 매 단계: argmax  λ · sim(q, d) - (1 - λ) · max sim(d, 이미 고른 것)
+ *   λ = 1 이면 관련도 순 그대로, 작을수록 이미 고른 청크와 비슷한 청크(문장 단위 음성 청크의 중복 등)를 밀어냄
+ * - sim 은 코사인 유사도. 임베딩이 없거나 차원이 다른 후보는 관련도 / 중복 모두 0 으로 봄
+ * - 결과 score = 선택 당시 MMR 점수
+ */
+public final class MmrReranker {
+
+    private MmrReranker() {
+    }
+
+    public static List<RetrievedChunk> rerank(float[] query, List<RetrievedChunk> candidates, int topN, double lambda) {
+        int n = candidates.size();
+        int k = Math.min(topN, n);
+        if (k <= 0) {
+            return List.of();
+        }
+
+        float[][] vectors = new float[n][];
+        double[] relevance = new double[n];
+        double queryNorm = Math.sqrt(VectorKernels.dotScalar(query, query, 0));
+        for (int i = 0; i < n; i++) {
+            float[] embedding = candidates.get(i).embedding();
+            if (embedding == null || embedding.length != query.length) {
+                continue;
+            }
+            double norm = Math.sqrt(VectorKernels.dotScalar(embedding, embedding, 0));
+            if (norm == 0 || queryNorm == 0) {
+                continue;
+            }
+            vectors[i] = scaled(embedding, (float) (1 / norm));    // 단위 벡터 → 내적 = 코사인
+            relevance[i] = VectorKernels.dot(query, vectors[i], 0) / queryNorm;
+        }
+
+        // redundancy[i] = max sim(i, 이미 고른 것) - 하나 고를 때마다 새로 고른 것과의 유사도만 반영
+        double[] redundancy = new double[n];
+        boolean[] selected = new boolean[n];
+        List<RetrievedChunk> result = new ArrayList<>(k);
+        for (int step = 0; step < k; step++) {
+            int best = -1;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                if (selected[i]) {
+                    continue;
+                }
+                double score = lambda * relevance[i] - (1 - lambda) * redundancy[i];
+                if (score > bestScore) {
+                    best = i;
+                    bestScore = score;
+                }
+            }
+            selected[best] = true;
+            result.add(candidates.get(best).withScore(bestScore));
+
+            if (vectors[best] != null) {
+                for (int i = 0; i < n; i++) {
+                    if (!selected[i] && vectors[i] != null) {
+                        redundancy[i] = Math.max(redundancy[i], VectorKernels.dot(vectors[best], vectors[i], 0));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static float[] scaled(float[] vector, float factor) {
+        float[] out = new float[vector.length];
+        for (int d = 0; d < vector.length; d++) {
+            out[d] = vector[d] * factor;
+        }
+        return out;
+    }
+}
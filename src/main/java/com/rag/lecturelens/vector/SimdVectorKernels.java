@@ -0,0 +1,34 @@
+package com.rag.lecturelens.vector;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API 내적 (CPU 가 지원하는 가장 넓은 레인: AVX2 = 8, AVX-512 = 16)
+ * - VectorKernels 를 통해서만 호출 (모듈이 없는 JVM 에서는 로드되지 않아야 함)
+ */
+final class SimdVectorKernels {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    private SimdVectorKernels() {
+    }
+
+    static float dot(float[] query, float[] matrix, int offset) {
+        int length = query.length;
+        int upper = SPECIES.loopBound(length);
+        FloatVector acc = FloatVector.zero(SPECIES);
+        int i = 0;
+        for (; i < upper; i += SPECIES.length()) {
+            FloatVector q = FloatVector.fromArray(SPECIES, query, i);
+            FloatVector v = FloatVector.fromArray(SPECIES, matrix, offset + i);
+            acc = q.fma(v, acc);
+        }
+        float sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum += query[i] * matrix[offset + i];
+        }
+        return sum;
+    }
+}
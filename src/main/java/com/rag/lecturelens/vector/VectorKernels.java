@@ -0,0 +1,43 @@
+package com.rag.lecturelens.vector;
+
+/**
+ * 내적 커널 (in-JVM 벡터 검색용)
+ * - jdk.incubator.vector 모듈이 있으면 (--add-modules jdk.incubator.vector) SIMD 커널, 없으면 스칼라
+ * - SIMD 커널 클래스는 여기서 호출할 때만 로드됨 → 모듈 없이 떠도 NoClassDefFoundError 없음
+ */
+public final class VectorKernels {
+
+    private static final boolean SIMD = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            && !Boolean.getBoolean("lecturelens.vector.simd.disabled");
+
+    private VectorKernels() {
+    }
+
+    public static boolean isSimdAvailable() {
+        return SIMD;
+    }
+
+    /**
+     * query · matrix[offset .. offset + query.length)
+     */
+    public static float dot(float[] query, float[] matrix, int offset) {
+        return SIMD ? SimdVectorKernels.dot(query, matrix, offset) : dotScalar(query, matrix, offset);
+    }
+
+    public static float dotScalar(float[] query, float[] matrix, int offset) {
+        // 누산기 4개로 나눠서 의존 체인을 끊음 (JIT 가 float 덧셈 순서를 바꾸지 않으므로)
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int length = query.length;
+        int i = 0;
+        for (; i + 3 < length; i += 4) {
+            s0 += query[i] * matrix[offset + i];
+            s1 += query[i + 1] * matrix[offset + i + 1];
+            s2 += query[i + 2] * matrix[offset + i + 2];
+            s3 += query[i + 3] * matrix[offset + i + 3];
+        }
+        for (; i < length; i++) {
+            s0 += query[i] * matrix[offset + i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+}
@@ -0,0 +1,67 @@
+-- 기본 스키마 (Flyway 도입 전 Hibernate ddl-auto 가 만들던 테이블)
+-- - 빈 DB: 여기서 만들고 V1 이후가 그 위에 적용됨 (chunk.embedding 은 이 시점에는 text, V1 / V2 에서 vector 로)
+-- - 기존 DB: 이미 있는 테이블은 건너뜀 (if not exists)
+create table if not exists app_user (
+    id                bigint generated by default as identity primary key,
+    user_id           varchar(100) not null unique,
+    email             varchar(255) not null unique,
+    password          varchar(255) not null,
+    name              varchar(100),
+    provider          varchar(30)  not null,
+    provider_id       varchar(255),
+    role              varchar(30)  not null,
+    created_at        timestamp(6) with time zone not null,
+    updated_at        timestamp(6) with time zone not null,
+    plan_type         varchar(30)  not null,
+    auto_billing      boolean      not null,
+    billing_info      jsonb,
+    daily_usage_limit integer      not null,
+    usage_limit       integer      not null
+);
+
+create table if not exists refresh_token (
+    id         bigint generated by default as identity primary key,
+    user_id    varchar(100) not null references app_user (user_id),
+    token      text         not null,
+    expired_at timestamp(6) with time zone not null,
+    created_at timestamp(6) with time zone not null
+);
+
+create table if not exists lecture (
+    id                  bigint generated by default as identity primary key,
+    user_id             varchar(100) not null references app_user (user_id),
+    title               varchar(255) not null,
+    description         text,
+    original_pdf_path   text,
+    original_audio_path text,
+    convert_pdf_path    text,
+    convert_audio_path  text,
+    status              varchar(20)  not null,
+    created_at          timestamp(6) with time zone not null,
+    updated_at          timestamp(6) with time zone not null,
+    summarization       text
+);
+
+create table if not exists lecture_chunk (
+    id               bigint generated by default as identity primary key,
+    lecture_id       bigint not null references lecture (id),
+    slide_no         integer,
+    start_sec        integer,
+    end_sec          integer,
+    text             text   not null,
+    importance_score real   not null,
+    embedding        text,
+    created_at       timestamp(6) with time zone not null,
+    user_id          varchar(255)
+);
+
+create table if not exists audio_chunk (
+    id               bigint generated by default as identity primary key,
+    lecture_id       bigint not null references lecture (id),
+    start_sec        integer,
+    end_sec          integer,
+    text             text,
+    importance_score real,
+    user_id          varchar(255),
+    embedding        text
+);
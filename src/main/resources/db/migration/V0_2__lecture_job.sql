@@ -0,0 +1,25 @@
+-- 강의 처리 작업 / 단계별 체크포인트 (LectureJob, LectureJobStage)
+create table if not exists lecture_job (
+    id         bigint generated by default as identity primary key,
+    lecture_id bigint       not null unique,
+    user_id    varchar(100) not null,
+    status     varchar(20)  not null,
+    attempts   integer      not null,
+    last_error text,
+    created_at timestamp(6) with time zone not null,
+    updated_at timestamp(6) with time zone not null
+);
+
+-- 복구 스케줄러: status 로 PENDING / RUNNING 작업 조회
+create index if not exists lecture_job_status_idx on lecture_job (status);
+
+create table if not exists lecture_job_stage (
+    id          bigint generated by default as identity primary key,
+    job_id      bigint      not null references lecture_job (id),
+    stage       varchar(30) not null,
+    status      varchar(20) not null,
+    output      jsonb,
+    started_at  timestamp(6) with time zone,
+    finished_at timestamp(6) with time zone,
+    unique (job_id, stage)
+);
@@ -0,0 +1,19 @@
+-- 업로드 파일 내용(SHA-256) 기준 산출물 레지스트리 (ContentArtifact) + 청크의 원본 해시
+create table if not exists content_artifact (
+    id               bigint generated by default as identity primary key,
+    content_hash     varchar(64) not null unique,
+    object_key       text        not null,
+    size_bytes       bigint,
+    converted_key    text,
+    transcript_key   text,
+    chunk_lecture_id bigint,
+    ref_count        integer     not null,
+    created_at       timestamp(6) with time zone not null,
+    updated_at       timestamp(6) with time zone not null
+);
+
+-- 원본 key 로 조회 (findByObjectKey)
+create index if not exists content_artifact_object_key_idx on content_artifact (object_key);
+
+alter table lecture_chunk add column if not exists content_hash varchar(64);
+alter table audio_chunk add column if not exists content_hash varchar(64);
@@ -0,0 +1,8 @@
+-- 임베딩 캐시 2차 저장소 (EmbeddingCacheEntry) - vector 는 float32 little-endian 바이트
+create table if not exists embedding_cache (
+    cache_key  varchar(64)  primary key,
+    model      varchar(100) not null,
+    dimensions integer      not null,
+    vector     bytea        not null,
+    created_at timestamp(6) with time zone not null
+);
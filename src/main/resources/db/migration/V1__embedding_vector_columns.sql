@@ -0,0 +1,26 @@
+-- lecture_chunk / audio_chunk.embedding : text('[0.1,0.2,...]') → vector(1536)
+-- 기존 행은 제자리에서 변환. 테이블이 없거나 이미 vector 면 아무것도 하지 않음
+create extension if not exists vector;
+
+do $$
+begin
+    if exists (select 1 from information_schema.columns
+               where table_schema = current_schema()
+                 and table_name = 'lecture_chunk'
+                 and column_name = 'embedding'
+                 and data_type = 'text') then
+        alter table lecture_chunk
+            alter column embedding type vector(1536)
+            using nullif(btrim(embedding), '')::vector(1536);
+    end if;
+
+    if exists (select 1 from information_schema.columns
+               where table_schema = current_schema()
+                 and table_name = 'audio_chunk'
+                 and column_name = 'embedding'
+                 and data_type = 'text') then
+        alter table audio_chunk
+            alter column embedding type vector(1536)
+            using nullif(btrim(embedding), '')::vector(1536);
+    end if;
+end $$;
@@ -0,0 +1,38 @@
+-- 임베딩 차원을 배포 설정으로 (app.embedding.dimensions)
+-- - embedding 컬럼: vector(1536) → vector (차원 고정 없음)
+-- - 행마다 embedding_model / embedding_dims 기록, 기존 행은 text-embedding-3-small / 실제 차원으로 채움
+-- - ANN 인덱스는 VectorIndexService 가 (모델, 차원) 부분 인덱스로 다시 만듦 → 여기서는 예전 인덱스만 정리
+--   (차원 고정 없는 컬럼에는 embedding 자체 인덱스를 걸 수 없음)
+do $$
+declare
+    t text;
+    idx record;
+begin
+    foreach t in array array['lecture_chunk', 'audio_chunk'] loop
+        if to_regclass(t) is null then
+            continue;
+        end if;
+
+        for idx in
+            select c.relname
+            from pg_index i
+            join pg_class c on c.oid = i.indexrelid
+            join pg_am am on am.oid = c.relam
+            where i.indrelid = to_regclass(t)
+              and am.amname in ('hnsw', 'ivfflat')
+        loop
+            execute format('drop index if exists %I', idx.relname);
+        end loop;
+
+        execute format('alter table %I add column if not exists embedding_model varchar(100)', t);
+        execute format('alter table %I add column if not exists embedding_dims integer', t);
+        execute format('alter table %I alter column embedding type vector', t);
+        execute format('update %I set embedding_model = %L, embedding_dims = vector_dims(embedding)'
+                       ' where embedding is not null and embedding_model is null', t, 'text-embedding-3-small');
+    end loop;
+
+    -- 예전에는 provider 출력을 1536 으로 0 패딩해서 캐시 → 캐시의 dimensions 와 길이가 다른 항목은 버림
+    if to_regclass('embedding_cache') is not null then
+        delete from embedding_cache where octet_length(vector) <> dimensions * 4;
+    end if;
+end $$;
@@ -0,0 +1,3 @@
+-- 청크 키워드 검색 (HybridRetrievalService) 용 pg_trgm
+-- 인덱스(lecture_chunk_text_trgm_idx / audio_chunk_text_trgm_idx)는 VectorIndexService 가 CONCURRENTLY 로 만듦
+create extension if not exists pg_trgm;
@@ -0,0 +1,20 @@
+-- 사용자 전체 강의 검색 (LibrarySearchService) 은 chunk.user_id 로 거름
+-- 예전에는 청크 저장 때 user_id 를 채우지 않았음 → 강의 소유자로 채움 (이후는 인제스트에서 채움)
+-- user_id btree 인덱스는 VectorIndexService 가 CONCURRENTLY 로 만듦
+do $$
+declare
+    t text;
+begin
+    if to_regclass('lecture') is null then
+        return;
+    end if;
+
+    foreach t in array array['lecture_chunk', 'audio_chunk'] loop
+        if to_regclass(t) is null then
+            continue;
+        end if;
+
+        execute format('update %I c set user_id = l.user_id from lecture l'
+                       ' where c.lecture_id = l.id and c.user_id is null', t);
+    end loop;
+end $$;
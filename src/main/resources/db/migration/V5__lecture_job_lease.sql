@@ -0,0 +1,5 @@
+-- 작업 선점을 lease 로 (실행 중인 인스턴스가 주기적으로 lease_until 을 연장, 만료된 것만 복구 대상)
+alter table lecture_job add column if not exists lease_owner varchar(100);
+alter table lecture_job add column if not exists lease_until timestamp(6) with time zone;
+
+create index if not exists lecture_job_lease_idx on lecture_job (status, lease_until);
@@ -0,0 +1,85 @@
+package com.rag.lecturelens.executor;
+
+import com.rag.lecturelens.domain.WorkloadType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PipelineExecutorsTest {
+
+	private PipelineExecutors executors;
+
+	@BeforeEach
+	void setUp() {
+		executors = new PipelineExecutors(new MockEnvironment(), new SimpleMeterRegistry());
+	}
+
+	@AfterEach
+	void tearDown() {
+		executors.shutdown();
+	}
+
+	@Test
+	void invokeAllReturnsResultsInInputOrder() {
+		List<Integer> results = executors.invokeAll(WorkloadType.BRANCH, List.<Callable<Integer>>of(
+				() -> {
+					Thread.sleep(50);
+					return 1;
+				},
+				() -> 2
+		));
+
+		assertThat(results).containsExactly(1, 2);
+	}
+
+	@Test
+	void invokeAllCancelsRemainingTasksOnFirstFailure() throws InterruptedException {
+		CountDownLatch slowStarted = new CountDownLatch(1);
+		CountDownLatch slowInterrupted = new CountDownLatch(1);
+		Callable<Void> slow = () -> {
+			slowStarted.countDown();
+			try {
+				Thread.sleep(30_000);
+			} catch (InterruptedException e) {
+				slowInterrupted.countDown();
+				throw e;
+			}
+			return null;
+		};
+		Callable<Void> failing = () -> {
+			slowStarted.await();
+			throw new IllegalStateException("branch failed");
+		};
+
+		long start = System.nanoTime();
+		assertThatThrownBy(() -> executors.invokeAll(WorkloadType.BRANCH, List.of(slow, failing)))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessage("branch failed");
+
+		// 느린 작업이 끝날 때까지 기다리지 않고 바로 실패 + 느린 작업은 interrupt
+		assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start)).isLessThan(5);
+		assertThat(slowInterrupted.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	void invokeAllRethrowsCheckedFailureWrapped() {
+		Callable<Void> failing = () -> {
+			throw new IOException("io");
+		};
+
+		assertThatThrownBy(() -> executors.invokeAll(WorkloadType.BRANCH, List.of(failing, () -> null)))
+				.isInstanceOf(IllegalStateException.class)
+				.hasCauseInstanceOf(IOException.class);
+	}
+}
@@ -0,0 +1,83 @@
+package com.rag.lecturelens.executor;
+
+import com.rag.lecturelens.domain.WorkloadType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StageExecutorTest {
+
+	@ParameterizedTest
+	@ValueSource(booleans = {false, true})
+	void runsAtMostThreadsTasksAtOnce(boolean virtual) throws Exception {
+		StageExecutor lane = new StageExecutor(WorkloadType.LLM, 2, 4, virtual);
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger peak = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			List<Future<Void>> futures = new ArrayList<>();
+			for (int i = 0; i < 6; i++) {
+				futures.add(lane.submit(() -> {
+					peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+					release.await();
+					running.decrementAndGet();
+					return null;
+				}));
+			}
+
+			// 2개 실행 + 4개 대기 → 허용량(6) 소진
+			waitUntil(() -> lane.getActiveCount() == 2 && lane.getQueueDepth() == 4);
+			assertThat(lane.trySubmit(() -> { })).isFalse();
+
+			release.countDown();
+			for (Future<Void> future : futures) {
+				future.get(5, TimeUnit.SECONDS);
+			}
+			assertThat(peak.get()).isEqualTo(2);
+		} finally {
+			release.countDown();
+			lane.shutdown();
+		}
+	}
+
+	@Test
+	void cancelledVirtualTaskWaitingForSlotFreesItsPermit() throws Exception {
+		StageExecutor lane = new StageExecutor(WorkloadType.LLM, 1, 1, true);
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			lane.submit(() -> {
+				release.await();
+				return null;
+			});
+			Future<Object> waiting = lane.submit(() -> "never");
+			waitUntil(() -> lane.getQueueDepth() == 1);
+
+			waiting.cancel(true);
+
+			assertThat(lane.trySubmit(() -> { })).isTrue();
+		} finally {
+			release.countDown();
+			lane.shutdown();
+		}
+	}
+
+	/* ----- 내부 유틸 ----- */
+
+	private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("조건 대기 시간 초과").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+}
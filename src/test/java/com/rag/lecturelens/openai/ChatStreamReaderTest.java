@@ -0,0 +1,106 @@
+package com.rag.lecturelens.openai;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChatStreamReaderTest {
+
+	// /chat/completions "stream": true 응답 기록 (keep-alive 주석, role 만 있는 첫 조각, content null, finish_reason 포함)
+	private static final String RECORDED = """
+			: keep-alive
+
+			data: {"id":"chatcmpl-1","object":"chat.completion.chunk","choices":[{"index":0,"delta":{"role":"assistant","content":""},"finish_reason":null}]}
+
+			data: {"id":"chatcmpl-1","object":"chat.completion.chunk","choices":[{"index":0,"delta":{"content":"페이지 교체는"},"finish_reason":null}]}
+
+			data: {"id":"chatcmpl-1","object":"chat.completion.chunk","choices":[{"index":0,"delta":{"content":null},"finish_reason":null}]}
+
+			data: {"id":"chatcmpl-1","object":"chat.completion.chunk","choices":[{"index":0,"delta":{"content":" (슬라이드 3)"},"finish_reason":null}]}
+
+			data: {"id":"chatcmpl-1","object":"chat.completion.chunk","choices":[{"index":0,"delta":{},"finish_reason":"stop"}]}
+
+			data: [DONE]
+
+			data: {"choices":[{"delta":{"content":"DONE 뒤"}}]}
+			""";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final List<String> deltas = new ArrayList<>();
+
+	@Test
+	void forwardsDeltasInOrderAndStopsAtDone() throws IOException {
+		String text = reader(() -> false).read(body(RECORDED));
+
+		assertThat(deltas).containsExactly("페이지 교체는", " (슬라이드 3)");
+		assertThat(text).isEqualTo("페이지 교체는 (슬라이드 3)");
+	}
+
+	@Test
+	void endOfStreamWithoutDoneReturnsTextSoFar() throws IOException {
+		String text = reader(() -> false).read(body("data: {\"choices\":[{\"delta\":{\"content\":\"a\"}}]}\n"));
+
+		assertThat(text).isEqualTo("a");
+	}
+
+	@Test
+	void connectionErrorBeforeFirstDeltaStaysRetryable() {
+		InputStream failing = new SequenceInputStream(body(": keep-alive\n\n"), brokenStream());
+
+		// IOException 그대로 → OpenAiClient 가 재시도
+		assertThatThrownBy(() -> reader(() -> false).read(failing))
+				.isInstanceOf(IOException.class);
+		assertThat(deltas).isEmpty();
+	}
+
+	@Test
+	void connectionErrorAfterDeltaIsNotRetried() {
+		InputStream failing = new SequenceInputStream(
+				body("data: {\"choices\":[{\"delta\":{\"content\":\"앞부분\"}}]}\n\n"), brokenStream());
+
+		// 이미 보낸 조각이 중복되지 않도록 재시도 대상이 아닌 UncheckedIOException
+		assertThatThrownBy(() -> reader(() -> false).read(failing))
+				.isInstanceOf(UncheckedIOException.class)
+				.hasCauseInstanceOf(IOException.class);
+		assertThat(deltas).containsExactly("앞부분");
+	}
+
+	@Test
+	void stopsWhenCancelled() {
+		assertThatThrownBy(() -> reader(() -> !deltas.isEmpty()).read(body(RECORDED)))
+				.isInstanceOf(CancellationException.class);
+		assertThat(deltas).containsExactly("페이지 교체는");
+	}
+
+	/* ----- 내부 유틸 ----- */
+
+	private ChatStreamReader reader(BooleanSupplier cancelled) {
+		return new ChatStreamReader(objectMapper, deltas::add, cancelled);
+	}
+
+	private static InputStream body(String text) {
+		return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static InputStream brokenStream() {
+		return new InputStream() {
+			@Override
+			public int read() throws IOException {
+				throw new IOException("Connection reset");
+			}
+		};
+	}
+}
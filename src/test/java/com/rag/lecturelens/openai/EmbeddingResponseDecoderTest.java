@@ -0,0 +1,78 @@
+package com.rag.lecturelens.openai;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.core.JsonParser;
+import tools.jackson.databind.ObjectMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmbeddingResponseDecoderTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void decodesVectorsByIndexAndSkipsOtherFields() {
+		String json = """
+				{
+				  "object": "list",
+				  "data": [
+				    {"object": "embedding", "index": 1, "embedding": [0.5, -1, 2.25]},
+				    {"embedding": [1.0, 2.0, 3.0], "index": 0, "extra": {"nested": [1, 2]}}
+				  ],
+				  "model": "text-embedding-3-small",
+				  "usage": {"prompt_tokens": 4, "total_tokens": 4}
+				}
+				""";
+
+		float[][] vectors = decode(json, 2, 3);
+
+		assertThat(vectors[0]).containsExactly(1.0f, 2.0f, 3.0f);
+		assertThat(vectors[1]).containsExactly(0.5f, -1.0f, 2.25f);
+	}
+
+	@Test
+	void growsBufferWhenVectorIsLongerThanHint() {
+		float[][] vectors = decode("{\"data\": [{\"index\": 0, \"embedding\": [1, 2, 3, 4, 5]}]}", 1, 2);
+
+		assertThat(vectors[0]).containsExactly(1f, 2f, 3f, 4f, 5f);
+	}
+
+	@Test
+	void trimsBufferWhenVectorIsShorterThanHint() {
+		float[][] vectors = decode("{\"data\": [{\"index\": 0, \"embedding\": [1, 2]}]}", 1, 8);
+
+		assertThat(vectors[0]).hasSize(2);
+	}
+
+	@Test
+	void failsWhenAnInputIsMissing() {
+		assertThatThrownBy(() -> decode("{\"data\": [{\"index\": 0, \"embedding\": [1]}]}", 2, 1))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("index=1");
+	}
+
+	@Test
+	void failsOnOutOfRangeIndex() {
+		assertThatThrownBy(() -> decode("{\"data\": [{\"index\": 3, \"embedding\": [1]}]}", 1, 1))
+				.isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void failsOnNonNumericValue() {
+		assertThatThrownBy(() -> decode("{\"data\": [{\"index\": 0, \"embedding\": [\"x\"]}]}", 1, 1))
+				.isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void failsWhenBodyIsNotAnObject() {
+		assertThatThrownBy(() -> decode("[]", 1, 1))
+				.isInstanceOf(IllegalStateException.class);
+	}
+
+	private float[][] decode(String json, int count, int dimensions) {
+		try (JsonParser parser = objectMapper.createParser(json)) {
+			return EmbeddingResponseDecoder.decode(parser, count, dimensions);
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package com.rag.lecturelens.openai;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OpenAiBudgetManagerTest {
+
+	private static final String CHAT = "chat";
+
+	@Test
+	void requestBucketAllowsBurstThenWaitsForRefill() {
+		// 120 RPM = 0.5초에 1건
+		OpenAiBudgetManager budget = manager("app.openai.limits.m.rpm", "120");
+		OpenAiCost cost = OpenAiCost.requestOnly("m");
+
+		long burst = millis(() -> {
+			for (int i = 0; i < 120; i++) {
+				budget.acquire(CHAT, cost);
+			}
+		});
+		long next = millis(() -> budget.acquire(CHAT, cost));
+
+		assertThat(burst).isLessThan(300);
+		assertThat(next).isBetween(200L, 2_000L);
+	}
+
+	@Test
+	void tokenBucketChargesEstimatedTokens() {
+		// 6,000 TPM = 초당 100 토큰
+		OpenAiBudgetManager budget = manager("app.openai.limits.m.rpm", "0", "app.openai.limits.m.tpm", "6000");
+
+		long first = millis(() -> budget.acquire(CHAT, OpenAiCost.of("m", 6_000)));
+		long second = millis(() -> budget.acquire(CHAT, OpenAiCost.of("m", 50)));
+
+		assertThat(first).isLessThan(100);
+		assertThat(second).isBetween(200L, 2_000L);
+	}
+
+	@Test
+	void zeroLimitMeansUnlimited() {
+		OpenAiBudgetManager budget = manager("app.openai.limits.m.rpm", "0", "app.openai.limits.m.tpm", "0");
+
+		long elapsed = millis(() -> {
+			for (int i = 0; i < 10_000; i++) {
+				budget.acquire(CHAT, OpenAiCost.of("m", 1_000));
+			}
+		});
+
+		assertThat(elapsed).isLessThan(1_000);
+	}
+
+	@Test
+	void retryAfterPausesTheWholeModelBudget() {
+		OpenAiBudgetManager budget = manager("app.openai.limits.m.rpm", "0", "app.openai.limits.other.rpm", "0");
+
+		budget.pause(OpenAiCost.requestOnly("m"), Duration.ofMillis(400));
+
+		assertThat(millis(() -> budget.acquire(CHAT, OpenAiCost.requestOnly("m")))).isGreaterThanOrEqualTo(300);
+		assertThat(millis(() -> budget.acquire(CHAT, OpenAiCost.requestOnly("other")))).isLessThan(100);
+	}
+
+	@Test
+	void backoffWaitsAtLeastRetryAfter() {
+		OpenAiBudgetManager budget = manager(
+				"app.openai.retry.base-backoff", "1ms",
+				"app.openai.retry.max-backoff", "1ms");
+
+		assertThat(millis(() -> budget.backoff(CHAT, 1, Duration.ofMillis(300), "429"))).isGreaterThanOrEqualTo(250);
+		assertThat(millis(() -> budget.backoff(CHAT, 1, null, "io"))).isLessThan(100);
+	}
+
+	@Test
+	void circuitOpensAfterConsecutiveFailuresAndRejects() {
+		OpenAiBudgetManager budget = manager(
+				"app.openai.circuit.failure-threshold", "3",
+				"app.openai.circuit.open-duration", "10m");
+
+		for (int i = 0; i < 3; i++) {
+			budget.onFailure(CHAT);
+		}
+
+		assertThat(budget.isOpen(CHAT)).isTrue();
+		assertThatThrownBy(() -> budget.acquire(CHAT, OpenAiCost.requestOnly("m")))
+				.isInstanceOf(OpenAiUnavailableException.class);
+		// 엔드포인트별 서킷
+		assertThat(budget.isOpen("embeddings")).isFalse();
+	}
+
+	@Test
+	void successResetsConsecutiveFailures() {
+		OpenAiBudgetManager budget = manager("app.openai.circuit.failure-threshold", "3");
+
+		budget.onFailure(CHAT);
+		budget.onFailure(CHAT);
+		budget.onSuccess(CHAT);
+		budget.onFailure(CHAT);
+		budget.onFailure(CHAT);
+
+		assertThat(budget.isOpen(CHAT)).isFalse();
+	}
+
+	@Test
+	void halfOpenAllowsSingleTrialThenClosesOnSuccess() throws InterruptedException {
+		OpenAiBudgetManager budget = openedCircuit();
+		OpenAiCost cost = OpenAiCost.requestOnly("m");
+		TimeUnit.MILLISECONDS.sleep(250);
+
+		budget.acquire(CHAT, cost);     // 시험 요청
+		assertThatThrownBy(() -> budget.acquire(CHAT, cost)).isInstanceOf(OpenAiUnavailableException.class);
+
+		budget.onSuccess(CHAT);
+		budget.acquire(CHAT, cost);
+		assertThat(budget.isOpen(CHAT)).isFalse();
+	}
+
+	@Test
+	void halfOpenTrialFailureReopens() throws InterruptedException {
+		OpenAiBudgetManager budget = openedCircuit();
+		TimeUnit.MILLISECONDS.sleep(250);
+
+		budget.acquire(CHAT, OpenAiCost.requestOnly("m"));
+		budget.onFailure(CHAT);
+
+		assertThat(budget.isOpen(CHAT)).isTrue();
+	}
+
+	private OpenAiBudgetManager openedCircuit() {
+		OpenAiBudgetManager budget = manager(
+				"app.openai.limits.m.rpm", "0",
+				"app.openai.circuit.failure-threshold", "1",
+				"app.openai.circuit.open-duration", "200ms");
+		budget.onFailure(CHAT);
+		assertThat(budget.isOpen(CHAT)).isTrue();
+		return budget;
+	}
+
+	private static OpenAiBudgetManager manager(String... properties) {
+		MockEnvironment env = new MockEnvironment();
+		env.setConversionService(new ApplicationConversionService());
+		for (int i = 0; i < properties.length; i += 2) {
+			env.setProperty(properties[i], properties[i + 1]);
+		}
+		return new OpenAiBudgetManager(env, new SimpleMeterRegistry());
+	}
+
+	private static long millis(Runnable action) {
+		long start = System.nanoTime();
+		action.run();
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+	}
+}
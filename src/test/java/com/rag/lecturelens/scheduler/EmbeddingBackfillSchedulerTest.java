@@ -0,0 +1,98 @@
+package com.rag.lecturelens.scheduler;
+
+import com.rag.lecturelens.entity.AudioChunk;
+import com.rag.lecturelens.entity.Lecture;
+import com.rag.lecturelens.entity.LectureChunk;
+import com.rag.lecturelens.repository.AudioChunkRepository;
+import com.rag.lecturelens.repository.LectureChunkRepository;
+import com.rag.lecturelens.service.EmbeddingService;
+import com.rag.lecturelens.service.LectureVectorCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EmbeddingBackfillSchedulerTest {
+
+	private static final String MODEL = "text-embedding-3-large";
+	private static final int DIMS = 3;
+
+	@Mock
+	private LectureChunkRepository lectureChunkRepository;
+
+	@Mock
+	private AudioChunkRepository audioChunkRepository;
+
+	@Mock
+	private EmbeddingService embeddingService;
+
+	@Mock
+	private LectureVectorCache lectureVectorCache;
+
+	@InjectMocks
+	private EmbeddingBackfillScheduler scheduler;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(scheduler, "enabled", true);
+		ReflectionTestUtils.setField(scheduler, "batchSize", 200);
+		when(embeddingService.modelId()).thenReturn(MODEL);
+		when(embeddingService.dimensions()).thenReturn(DIMS);
+	}
+
+	@Test
+	void invalidatesCachedLecturesAfterEachBatch() {
+		Lecture first = Lecture.builder().id(1L).build();
+		Lecture second = Lecture.builder().id(2L).build();
+		List<LectureChunk> slides = List.of(
+				LectureChunk.builder().id(10L).lecture(first).text("a").build(),
+				LectureChunk.builder().id(11L).lecture(first).text("b").build(),
+				LectureChunk.builder().id(12L).lecture(second).text("c").build());
+		List<AudioChunk> audios = List.of(AudioChunk.builder().id(20L).lecture(second).text("d").build());
+
+		when(lectureChunkRepository.findIdsOutsideEmbeddingSpace(MODEL, DIMS, 200)).thenReturn(List.of(10L, 11L, 12L));
+		when(lectureChunkRepository.findAllById(List.of(10L, 11L, 12L))).thenReturn(slides);
+		when(audioChunkRepository.findIdsOutsideEmbeddingSpace(MODEL, DIMS, 200)).thenReturn(List.of(20L));
+		when(audioChunkRepository.findAllById(List.of(20L))).thenReturn(audios);
+		when(embeddingService.embedAll(anyList())).thenAnswer(inv -> inv.<List<String>>getArgument(0).stream()
+				.map(t -> new float[DIMS]).toList());
+
+		scheduler.backfill();
+
+		assertThat(slides).allSatisfy(c -> assertThat(c.getEmbeddingModel()).isEqualTo(MODEL));
+		// 저장한 뒤에 무효화 (먼저 지우면 저장 전 상태로 다시 적재될 수 있음)
+		InOrder order = inOrder(lectureChunkRepository, audioChunkRepository, lectureVectorCache);
+		order.verify(lectureChunkRepository).saveAll(slides);
+		order.verify(lectureVectorCache).invalidate(1L);
+		order.verify(lectureVectorCache).invalidate(2L);
+		order.verify(audioChunkRepository).saveAll(audios);
+		order.verify(lectureVectorCache).invalidate(2L);
+		verify(lectureVectorCache, times(1)).invalidate(1L);
+	}
+
+	@Test
+	void nothingToBackfillKeepsCache() {
+		when(lectureChunkRepository.findIdsOutsideEmbeddingSpace(MODEL, DIMS, 200)).thenReturn(List.of());
+		when(audioChunkRepository.findIdsOutsideEmbeddingSpace(MODEL, DIMS, 200)).thenReturn(List.of());
+
+		scheduler.backfill();
+
+		verify(lectureVectorCache, never()).invalidate(anyLong());
+	}
+}
@@ -0,0 +1,129 @@
+package com.rag.lecturelens.service;
+
+import com.rag.lecturelens.dto.StoredObject;
+import com.rag.lecturelens.entity.ContentArtifact;
+import com.rag.lecturelens.entity.Lecture;
+import com.rag.lecturelens.entity.LectureChunk;
+import com.rag.lecturelens.repository.AudioChunkRepository;
+import com.rag.lecturelens.repository.ContentArtifactRepository;
+import com.rag.lecturelens.repository.LectureChunkRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ContentArtifactServiceTest {
+
+	private static final Long LECTURE_ID = 10L;
+	private static final String HASH = "a".repeat(64);
+	private static final String ORIGINAL_KEY = "user-1/3/original/slides.pdf";
+
+	@Mock
+	private ContentArtifactRepository contentArtifactRepository;
+
+	@Mock
+	private S3StorageService s3StorageService;
+
+	@Mock
+	private LectureChunkRepository lectureChunkRepository;
+
+	@Mock
+	private AudioChunkRepository audioChunkRepository;
+
+	@InjectMocks
+	private ContentArtifactService contentArtifactService;
+
+	@Test
+	void duplicateUploadDeletesNewCopyAndReturnsExistingKey() {
+		StoredObject uploaded = new StoredObject("user-2/10/original/slides.pdf", HASH, 100);
+		when(contentArtifactRepository.findByContentHash(HASH)).thenReturn(Optional.of(artifact(2, null)));
+
+		List<String> keys = contentArtifactService.register(List.of(uploaded));
+
+		assertThat(keys).containsExactly(ORIGINAL_KEY);
+		verify(contentArtifactRepository).upsertReference(eq(HASH), eq(uploaded.key()), eq(100L), any());
+		verify(s3StorageService).deleteObject(uploaded.key());
+	}
+
+	@Test
+	void firstUploadKeepsItsObject() {
+		StoredObject uploaded = new StoredObject(ORIGINAL_KEY, HASH, 100);
+		when(contentArtifactRepository.findByContentHash(HASH)).thenReturn(Optional.of(artifact(1, null)));
+
+		assertThat(contentArtifactService.register(List.of(uploaded))).containsExactly(ORIGINAL_KEY);
+		verify(s3StorageService, never()).deleteObject(anyString());
+	}
+
+	@Test
+	void releaseOfSharedArtifactDecrementsAndProtectsItsKeys() {
+		ContentArtifact artifact = artifact(2, 3L);
+		when(contentArtifactRepository.findForUpdateByObjectKey(ORIGINAL_KEY)).thenReturn(Optional.of(artifact));
+		when(contentArtifactRepository.save(artifact)).thenReturn(artifact);
+
+		Set<String> shared = contentArtifactService.release(lecture());
+
+		assertThat(artifact.getRefCount()).isEqualTo(1);
+		assertThat(artifact.getChunkLectureId()).isEqualTo(3L);
+		assertThat(shared).containsExactlyInAnyOrder(ORIGINAL_KEY, "converted.pdf", "transcript.txt");
+		verify(contentArtifactRepository, never()).delete(any());
+	}
+
+	@Test
+	void releaseOfLastReferenceDeletesArtifact() {
+		ContentArtifact artifact = artifact(1, LECTURE_ID);
+		when(contentArtifactRepository.findForUpdateByObjectKey(ORIGINAL_KEY)).thenReturn(Optional.of(artifact));
+
+		Set<String> shared = contentArtifactService.release(lecture());
+
+		assertThat(shared).isEmpty();
+		verify(contentArtifactRepository).delete(artifact);
+		verify(contentArtifactRepository, never()).save(any());
+	}
+
+	@Test
+	void releaseHandsChunkSourceToAnotherLecture() {
+		ContentArtifact artifact = artifact(2, LECTURE_ID);
+		when(contentArtifactRepository.findForUpdateByObjectKey(ORIGINAL_KEY)).thenReturn(Optional.of(artifact));
+		when(contentArtifactRepository.save(artifact)).thenReturn(artifact);
+		LectureChunk other = LectureChunk.builder().lecture(Lecture.builder().id(11L).build()).build();
+		when(lectureChunkRepository.findFirstByContentHashAndLecture_IdNot(HASH, LECTURE_ID)).thenReturn(Optional.of(other));
+
+		contentArtifactService.release(lecture());
+
+		assertThat(artifact.getRefCount()).isEqualTo(1);
+		assertThat(artifact.getChunkLectureId()).isEqualTo(11L);
+	}
+
+	private static Lecture lecture() {
+		return Lecture.builder()
+				.id(LECTURE_ID)
+				.originalPdfPath(List.of(ORIGINAL_KEY))
+				.build();
+	}
+
+	private static ContentArtifact artifact(int refCount, Long chunkLectureId) {
+		return ContentArtifact.builder()
+				.id(1L)
+				.contentHash(HASH)
+				.objectKey(ORIGINAL_KEY)
+				.convertedKey("converted.pdf")
+				.transcriptKey("transcript.txt")
+				.chunkLectureId(chunkLectureId)
+				.refCount(refCount)
+				.build();
+	}
+}
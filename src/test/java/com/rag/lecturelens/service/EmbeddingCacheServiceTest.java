@@ -0,0 +1,171 @@
+package com.rag.lecturelens.service;
+
+import com.rag.lecturelens.entity.LectureChunk;
+import com.rag.lecturelens.repository.EmbeddingCacheRepository;
+import com.rag.lecturelens.repository.LectureChunkRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.InvalidDataAccessResourceUsageException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.SmartTransactionObject;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmbeddingCacheServiceTest {
+
+	private static final String MODEL = "text-embedding-3-small";
+
+	private final EmbeddingCacheRepository embeddingCacheRepository = mock(EmbeddingCacheRepository.class);
+	private final LectureChunkRepository lectureChunkRepository = mock(LectureChunkRepository.class);
+	private final RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+
+	private EmbeddingCacheService cacheService;
+
+	@BeforeEach
+	void setUp() {
+		cacheService = new EmbeddingCacheService(embeddingCacheRepository, transactionManager, new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(cacheService, "enabled", true);
+		ReflectionTestUtils.setField(cacheService, "memoryMaxSize", DataSize.ofMegabytes(1));
+		cacheService.registerMetrics();
+	}
+
+	@Test
+	void failedCacheWriteDoesNotRollBackChunkSave() {
+		when(embeddingCacheRepository.insertIfAbsent(anyString(), anyString(), anyInt(), any(), any()))
+				.thenThrow(new InvalidDataAccessResourceUsageException("relation \"embedding_cache\" does not exist"));
+
+		// 청크 처리 서비스의 @Transactional 과 같은 바깥 트랜잭션
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			cacheService.putAll(MODEL, 2, Map.of("k1", new float[]{1f, 2f}));
+			lectureChunkRepository.saveAll(List.of(LectureChunk.builder().text("slide").build()));
+		});
+
+		// 바깥 시작 → 캐시용 새 트랜잭션 시작 → 캐시만 롤백 → 바깥(청크 저장)은 커밋
+		assertThat(transactionManager.events).containsExactly("begin", "begin", "rollback", "commit");
+		verify(lectureChunkRepository).saveAll(anyList());
+	}
+
+	@Test
+	void failedCacheReadIsMissAndKeepsCallerTransaction() {
+		when(embeddingCacheRepository.findAllById(anyList()))
+				.thenThrow(new InvalidDataAccessResourceUsageException("current transaction is aborted"));
+
+		Map<String, float[]> found = new TransactionTemplate(transactionManager).execute(status -> {
+			Map<String, float[]> result = cacheService.getAll(List.of("k1"));
+			lectureChunkRepository.saveAll(List.of(LectureChunk.builder().text("slide").build()));
+			return result;
+		});
+
+		assertThat(found).isEmpty();
+		assertThat(transactionManager.events).containsExactly("begin", "begin", "rollback", "commit");
+	}
+
+	@Test
+	void memoryTierServesVectorsWhenDbWriteFails() {
+		when(embeddingCacheRepository.insertIfAbsent(anyString(), anyString(), anyInt(), any(), any()))
+				.thenThrow(new InvalidDataAccessResourceUsageException("statement timeout"));
+
+		cacheService.putAll(MODEL, 2, Map.of("k1", new float[]{1f, 2f}));
+
+		assertThat(cacheService.getAll(List.of("k1"))).containsOnlyKeys("k1");
+	}
+
+	/**
+	 * 전파 규칙(REQUIRED 참여 / REQUIRES_NEW 보류)은 AbstractPlatformTransactionManager 그대로, 시작 / 커밋 / 롤백만 기록
+	 * - 참여한 트랜잭션이 롤백되면 바깥이 rollback-only → 바깥 커밋에서 UnexpectedRollbackException (JpaTransactionManager 와 같음)
+	 */
+	static class RecordingTransactionManager extends AbstractPlatformTransactionManager {
+
+		final List<String> events = new ArrayList<>();
+		private final ThreadLocal<Tx> current = new ThreadLocal<>();
+
+		static final class Tx {
+			boolean rollbackOnly;
+		}
+
+		static final class TxObject implements SmartTransactionObject {
+			Tx tx;
+
+			TxObject(Tx tx) {
+				this.tx = tx;
+			}
+
+			@Override
+			public boolean isRollbackOnly() {
+				return tx != null && tx.rollbackOnly;
+			}
+
+			@Override
+			public void flush() {
+			}
+		}
+
+		@Override
+		protected Object doGetTransaction() {
+			return new TxObject(current.get());
+		}
+
+		@Override
+		protected boolean isExistingTransaction(Object transaction) {
+			return ((TxObject) transaction).tx != null;
+		}
+
+		@Override
+		protected void doBegin(Object transaction, TransactionDefinition definition) {
+			Tx tx = new Tx();
+			((TxObject) transaction).tx = tx;
+			current.set(tx);
+			events.add("begin");
+		}
+
+		@Override
+		protected Object doSuspend(Object transaction) {
+			Tx suspended = current.get();
+			((TxObject) transaction).tx = null;
+			current.remove();
+			return suspended;
+		}
+
+		@Override
+		protected void doResume(Object transaction, Object suspendedResources) {
+			current.set((Tx) suspendedResources);
+		}
+
+		@Override
+		protected void doCommit(DefaultTransactionStatus status) {
+			events.add("commit");
+		}
+
+		@Override
+		protected void doRollback(DefaultTransactionStatus status) {
+			events.add("rollback");
+		}
+
+		@Override
+		protected void doSetRollbackOnly(DefaultTransactionStatus status) {
+			((TxObject) status.getTransaction()).tx.rollbackOnly = true;
+		}
+
+		@Override
+		protected void doCleanupAfterCompletion(Object transaction) {
+			current.remove();
+		}
+	}
+}
@@ -0,0 +1,152 @@
+package com.rag.lecturelens.service;
+
+import com.rag.lecturelens.domain.ChunkSource;
+import com.rag.lecturelens.dto.RetrievedChunk;
+import com.rag.lecturelens.entity.Lecture;
+import com.rag.lecturelens.entity.LectureChunk;
+import com.rag.lecturelens.executor.PipelineExecutors;
+import com.rag.lecturelens.repository.AudioChunkRepository;
+import com.rag.lecturelens.repository.LectureChunkRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HybridRetrievalServiceTest {
+
+	private static final Long LECTURE_ID = 3L;
+	private static final float[] QUERY = {1f, 0f};
+	private static final String QUERY_TEXT = "페이지 교체 알고리즘";
+
+	private final LectureChunkRepository lectureChunkRepository = mock(LectureChunkRepository.class);
+	private final AudioChunkRepository audioChunkRepository = mock(AudioChunkRepository.class);
+	private final LectureVectorCache lectureVectorCache = mock(LectureVectorCache.class);
+	private final Lecture lecture = Lecture.builder().id(LECTURE_ID).build();
+
+	private PipelineExecutors executors;
+	private HybridRetrievalService service;
+
+	@BeforeEach
+	void setUp() {
+		executors = new PipelineExecutors(new MockEnvironment(), new SimpleMeterRegistry());
+		service = new HybridRetrievalService(lectureChunkRepository, audioChunkRepository, lectureVectorCache,
+				executors, new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(service, "timeout", Duration.ofSeconds(5));
+		ReflectionTestUtils.setField(service, "maxCandidates", 120);
+		ReflectionTestUtils.setField(service, "rrfK", 60);
+		ReflectionTestUtils.setField(service, "lexicalEnabled", true);
+		ReflectionTestUtils.setField(service, "maxTerms", 12);
+		when(lectureVectorCache.isEnabled()).thenReturn(true);
+	}
+
+	@AfterEach
+	void tearDown() {
+		executors.shutdown();
+	}
+
+	@Test
+	void lexicalPatternOrdersTermsByFrequency() {
+		String pattern = HybridRetrievalService.lexicalPattern("스택 큐 스택 힙 스택 힙 그리고 그리고", 12);
+
+		// 1글자 "큐" 와 불용어 "그리고" 는 빠짐
+		assertThat(pattern).isEqualTo("스택|힙");
+	}
+
+	@Test
+	void lexicalPatternKeepsOnlyLettersAndDigits() {
+		String pattern = HybridRetrievalService.lexicalPattern("O(n^2) 정렬 [QuickSort] a+b", 12);
+
+		assertThat(pattern).isEqualTo("정렬|quicksort");
+	}
+
+	@Test
+	void lexicalPatternLimitsTerms() {
+		assertThat(HybridRetrievalService.lexicalPattern("alpha beta gamma delta", 2)).isEqualTo("alpha|beta");
+	}
+
+	@Test
+	void lexicalPatternIsNullWithoutTerms() {
+		assertThat(HybridRetrievalService.lexicalPattern(null, 12)).isNull();
+		assertThat(HybridRetrievalService.lexicalPattern("  ", 12)).isNull();
+		assertThat(HybridRetrievalService.lexicalPattern("그리고 이제 a 1", 12)).isNull();
+		assertThat(HybridRetrievalService.lexicalPattern("스택", 0)).isNull();
+	}
+
+	@Test
+	void fusesVectorAndLexicalRanksWithRrf() {
+		when(lectureVectorCache.search(eq(LECTURE_ID), eq(ChunkSource.SLIDE), eq(QUERY), anyInt()))
+				.thenReturn(List.of(retrieved(1L), retrieved(2L)));
+		when(lectureChunkRepository.searchLexical(eq(LECTURE_ID), isNull(), eq("페이지|교체|알고리즘"), anyInt(), any()))
+				.thenReturn(List.of(chunk(2L), chunk(3L)));
+
+		List<RetrievedChunk> result = retrieve(10);
+
+		// 2번은 두 검색 모두에 나와서 1위, 1번(벡터 1위)과 3번(키워드 2위)이 뒤
+		assertThat(result).extracting(RetrievedChunk::id).containsExactly(2L, 1L, 3L);
+		assertThat(result.get(0).score()).isCloseTo(1.0 / 62 + 1.0 / 61, within(1e-12));
+		assertThat(result.get(1).score()).isCloseTo(1.0 / 61, within(1e-12));
+		assertThat(result.get(2).score()).isCloseTo(1.0 / 62, within(1e-12));
+	}
+
+	@Test
+	void limitsFusedResultToTopN() {
+		when(lectureVectorCache.search(eq(LECTURE_ID), eq(ChunkSource.SLIDE), eq(QUERY), anyInt()))
+				.thenReturn(List.of(retrieved(1L), retrieved(2L)));
+		when(lectureChunkRepository.searchLexical(eq(LECTURE_ID), isNull(), any(), anyInt(), any()))
+				.thenReturn(List.of(chunk(2L), chunk(3L)));
+
+		assertThat(retrieve(1)).extracting(RetrievedChunk::id).containsExactly(2L);
+	}
+
+	@Test
+	void failedLegIsLeftOutOfFusion() {
+		when(lectureVectorCache.search(eq(LECTURE_ID), eq(ChunkSource.SLIDE), eq(QUERY), anyInt()))
+				.thenReturn(List.of(retrieved(1L), retrieved(2L)));
+		when(lectureChunkRepository.searchLexical(eq(LECTURE_ID), isNull(), any(), anyInt(), any()))
+				.thenThrow(new IllegalStateException("statement timeout"));
+
+		assertThat(retrieve(10)).extracting(RetrievedChunk::id).containsExactly(1L, 2L);
+	}
+
+	@Test
+	void failsWhenEveryLegFails() {
+		when(lectureVectorCache.search(eq(LECTURE_ID), eq(ChunkSource.SLIDE), eq(QUERY), anyInt()))
+				.thenThrow(new IllegalStateException("load failed"));
+		when(lectureChunkRepository.searchLexical(eq(LECTURE_ID), isNull(), any(), anyInt(), any()))
+				.thenThrow(new IllegalStateException("statement timeout"));
+
+		assertThatThrownBy(() -> retrieve(10))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("모든 검색 실패");
+	}
+
+	/* ----- 내부 유틸 ----- */
+
+	private List<RetrievedChunk> retrieve(int topN) {
+		return service.retrieve(LECTURE_ID, QUERY_TEXT, QUERY, topN, EnumSet.of(ChunkSource.SLIDE));
+	}
+
+	private LectureChunk chunk(Long id) {
+		return LectureChunk.builder().id(id).lecture(lecture).slideNo(id.intValue()).text("slide " + id).build();
+	}
+
+	private RetrievedChunk retrieved(Long id) {
+		return RetrievedChunk.of(chunk(id));
+	}
+}
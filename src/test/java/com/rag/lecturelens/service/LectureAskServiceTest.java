@@ -0,0 +1,122 @@
+package com.rag.lecturelens.service;
+
+import com.rag.lecturelens.domain.ChunkSource;
+import com.rag.lecturelens.domain.WorkloadType;
+import com.rag.lecturelens.dto.RetrievedChunk;
+import com.rag.lecturelens.entity.Lecture;
+import com.rag.lecturelens.executor.PipelineExecutors;
+import com.rag.lecturelens.openai.OpenAiClient;
+import com.rag.lecturelens.repository.LectureRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LectureAskServiceTest {
+
+	private static final Long LECTURE_ID = 9L;
+	private static final String USER = "user-1";
+	private static final String QUESTION = "페이지 교체 알고리즘은?";
+	private static final float[] QUERY = {1f, 0f};
+
+	private static final String STREAM = """
+			data: {"choices":[{"delta":{"role":"assistant","content":""}}]}
+
+			data: {"choices":[{"delta":{"content":"LRU 는"}}]}
+
+			data: {"choices":[{"delta":{"content":" 가장 오래 안 쓴 페이지를 교체"}}]}
+
+			data: [DONE]
+			""";
+
+	private final LectureRepository lectureRepository = mock(LectureRepository.class);
+	private final EmbeddingService embeddingService = mock(EmbeddingService.class);
+	private final HybridRetrievalService hybridRetrievalService = mock(HybridRetrievalService.class);
+	private final OpenAiClient openAiClient = mock(OpenAiClient.class);
+	private final PipelineExecutors pipelineExecutors = mock(PipelineExecutors.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private LectureAskService askService;
+
+	@BeforeEach
+	void setUp() {
+		askService = new LectureAskService(lectureRepository, embeddingService, hybridRetrievalService,
+				openAiClient, pipelineExecutors, new ObjectMapper(), meterRegistry);
+		ReflectionTestUtils.setField(askService, "model", "gpt-4.1-mini");
+		ReflectionTestUtils.setField(askService, "maxTokens", 1000);
+		ReflectionTestUtils.setField(askService, "candidates", 40);
+		ReflectionTestUtils.setField(askService, "contextChunks", 8);
+		ReflectionTestUtils.setField(askService, "mmrLambda", 0.7);
+
+		when(lectureRepository.findByIdAndUser_UserId(LECTURE_ID, USER)).thenReturn(Optional.of(Lecture.builder().build()));
+		when(embeddingService.embed(QUESTION)).thenReturn(QUERY);
+		when(hybridRetrievalService.retrieve(eq(LECTURE_ID), eq(QUESTION), eq(QUERY), anyInt(), any())).thenReturn(List.of(
+				new RetrievedChunk(ChunkSource.SLIDE, 1L, LECTURE_ID, "LRU 설명", 3, null, null, new float[]{1f, 0f}, 0)));
+		// ASK 레인 대신 호출 스레드에서 바로 실행
+		when(pipelineExecutors.submit(eq(WorkloadType.ASK), any())).thenAnswer(inv -> {
+			FutureTask<Object> task = new FutureTask<>(inv.<Callable<Object>>getArgument(1));
+			task.run();
+			return task;
+		});
+	}
+
+	@Test
+	void streamsSourcesThenTokensThenDone() {
+		when(openAiClient.postJson(eq("/chat/completions"), eq("chat-ask"), any(), anyString(), any()))
+				.thenAnswer(inv -> inv.<OpenAiClient.BodyReader<?>>getArgument(4)
+						.read(new ByteArrayInputStream(STREAM.getBytes(StandardCharsets.UTF_8))));
+
+		List<ServerSentEvent<String>> events = askService.ask(LECTURE_ID, USER, QUESTION).collectList().block();
+
+		assertThat(events).extracting(ServerSentEvent::event).containsExactly("sources", "token", "token", "done");
+		assertThat(events.get(0).data()).contains("\"slideNo\":3");
+		assertThat(events).extracting(ServerSentEvent::data)
+				.containsSubsequence("LRU 는", " 가장 오래 안 쓴 페이지를 교체");
+		// 첫 토큰에서 한 번만 기록
+		assertThat(meterRegistry.get("lecturelens.ask.ttft").timer().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("lecturelens.ask.duration").timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	void failureBeforeAnswerEndsStreamWithError() {
+		when(openAiClient.postJson(eq("/chat/completions"), eq("chat-ask"), any(), anyString(), any()))
+				.thenThrow(new IllegalArgumentException("400 bad request"));
+		List<String> events = new ArrayList<>();
+		List<Throwable> errors = new ArrayList<>();
+
+		askService.ask(LECTURE_ID, USER, QUESTION).subscribe(e -> events.add(e.event()), errors::add);
+
+		assertThat(events).containsExactly("sources");
+		assertThat(errors).singleElement().isInstanceOf(IllegalArgumentException.class);
+		assertThat(meterRegistry.find("lecturelens.ask.ttft").timer()).isNull();
+	}
+
+	@Test
+	void interruptedPermitWaitIsTreatedAsCancellation() {
+		when(openAiClient.postJson(eq("/chat/completions"), eq("chat-ask"), any(), anyString(), any()))
+				.thenThrow(new IllegalStateException("OpenAI 요청 대기 중 인터럽트: chat-ask", new InterruptedException()));
+		List<Throwable> errors = new ArrayList<>();
+
+		askService.ask(LECTURE_ID, USER, QUESTION).subscribe(e -> { }, errors::add);
+
+		assertThat(errors).isEmpty();
+	}
+}
@@ -0,0 +1,111 @@
+package com.rag.lecturelens.service;
+
+import com.rag.lecturelens.dto.DownloadFile;
+import com.rag.lecturelens.entity.Lecture;
+import com.rag.lecturelens.exceptionHandler.RangeNotSatisfiableException;
+import com.rag.lecturelens.repository.LectureRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LectureServiceDownloadTest {
+
+	private static final String USER = "user-1";
+	private static final Long LECTURE_ID = 7L;
+	private static final String TITLE = "운영체제";
+	private static final String KEY = "user-1/7/result/summary.pdf";
+	private static final long LENGTH = 1000;
+
+	@Mock
+	private LectureRepository lectureRepository;
+
+	@Mock
+	private S3StorageService s3StorageService;
+
+	@InjectMocks
+	private LectureService lectureService;
+
+	@BeforeEach
+	void setUp() {
+		Lecture lecture = Lecture.builder().build();
+		lecture.setSummarizationKey(KEY);
+		when(lectureRepository.findByIdAndUser_UserIdAndTitle(LECTURE_ID, USER, TITLE)).thenReturn(Optional.of(lecture));
+		when(s3StorageService.getObjectLength(KEY)).thenReturn(LENGTH);
+	}
+
+	@Test
+	void withoutRangeStreamsWholeObject() {
+		DownloadFile file = download(null);
+
+		assertThat(file.isPartial()).isFalse();
+		assertThat(file.getRangeStart()).isZero();
+		assertThat(file.getRangeEnd()).isEqualTo(LENGTH - 1);
+		assertThat(file.getContentLength()).isEqualTo(LENGTH);
+		assertThat(file.getFileName()).isEqualTo("summary.pdf");
+		verify(s3StorageService).getObjectStream(KEY);
+		verify(s3StorageService, never()).getObjectRangeStream(anyString(), anyLong(), anyLong());
+	}
+
+	@Test
+	void closedRange() {
+		DownloadFile file = download("bytes=100-199");
+
+		assertPartial(file, 100, 199);
+		assertThat(file.getContentLength()).isEqualTo(100);
+	}
+
+	@Test
+	void openEndedRangeRunsToLastByte() {
+		assertPartial(download("bytes=900-"), 900, LENGTH - 1);
+	}
+
+	@Test
+	void suffixRangeReturnsLastBytes() {
+		assertPartial(download("bytes=-100"), 900, LENGTH - 1);
+	}
+
+	@Test
+	void endPastObjectIsClamped() {
+		assertPartial(download("bytes=500-5000"), 500, LENGTH - 1);
+	}
+
+	@Test
+	void startPastObjectIsNotSatisfiable() {
+		assertThatThrownBy(() -> download("bytes=1000-"))
+				.isInstanceOf(RangeNotSatisfiableException.class)
+				.satisfies(e -> assertThat(((RangeNotSatisfiableException) e).getTotalLength()).isEqualTo(LENGTH));
+	}
+
+	@Test
+	void multipleRangesAreRejected() {
+		assertThatThrownBy(() -> download("bytes=0-9,20-29"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.isNotInstanceOf(RangeNotSatisfiableException.class);
+	}
+
+	private DownloadFile download(String range) {
+		return lectureService.downloadS3File(USER, LECTURE_ID, TITLE, range);
+	}
+
+	private void assertPartial(DownloadFile file, long start, long end) {
+		assertThat(file.isPartial()).isTrue();
+		assertThat(file.getRangeStart()).isEqualTo(start);
+		assertThat(file.getRangeEnd()).isEqualTo(end);
+		assertThat(file.getTotalLength()).isEqualTo(LENGTH);
+		verify(s3StorageService).getObjectRangeStream(KEY, start, end);
+	}
+}
@@ -0,0 +1,95 @@
+package com.rag.lecturelens.service;
+
+import com.rag.lecturelens.domain.ChunkSource;
+import com.rag.lecturelens.dto.LibrarySearchResult;
+import com.rag.lecturelens.dto.RetrievedChunk;
+import com.rag.lecturelens.entity.Lecture;
+import com.rag.lecturelens.repository.LectureRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LibrarySearchServiceTest {
+
+	private static final String USER = "user-1";
+	private static final String QUERY = "페이지 교체";
+	private static final float[] QUERY_VEC = {1f, 0f};
+
+	@Mock
+	private EmbeddingService embeddingService;
+
+	@Mock
+	private HybridRetrievalService hybridRetrievalService;
+
+	@Mock
+	private LectureRepository lectureRepository;
+
+	@InjectMocks
+	private LibrarySearchService librarySearchService;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(librarySearchService, "maxLimit", 50);
+	}
+
+	@Test
+	void excludesChunksOfOtherUsersLectures() {
+		when(embeddingService.embed(QUERY)).thenReturn(QUERY_VEC);
+		when(hybridRetrievalService.retrieveForUser(eq(USER), eq(QUERY), eq(QUERY_VEC), eq(10), any())).thenReturn(List.of(
+				chunk(ChunkSource.SLIDE, 11L, 1L, 0.9),
+				chunk(ChunkSource.AUDIO, 21L, 2L, 0.8),    // 다른 사용자의 강의
+				chunk(ChunkSource.AUDIO, 12L, 1L, 0.7)
+		));
+		// 소유자 조건으로 조회 → 2번 강의는 나오지 않음
+		when(lectureRepository.findByIdInAndUser_UserId(List.of(1L, 2L), USER))
+				.thenReturn(List.of(Lecture.builder().id(1L).title("운영체제").build()));
+
+		List<LibrarySearchResult> results = librarySearchService.search(USER, QUERY, 10);
+
+		assertThat(results).extracting(LibrarySearchResult::chunkId).containsExactly(11L, 12L);
+		assertThat(results).extracting(LibrarySearchResult::lectureTitle).containsOnly("운영체제");
+		assertThat(results).extracting(LibrarySearchResult::lectureId).doesNotContain(2L);
+	}
+
+	@Test
+	void clampsLimit() {
+		when(embeddingService.embed(QUERY)).thenReturn(QUERY_VEC);
+		when(hybridRetrievalService.retrieveForUser(eq(USER), eq(QUERY), eq(QUERY_VEC), anyInt(), any())).thenReturn(List.of());
+		when(lectureRepository.findByIdInAndUser_UserId(List.of(), USER)).thenReturn(List.of());
+
+		assertThat(librarySearchService.search(USER, QUERY, 500)).isEmpty();
+
+		verify(hybridRetrievalService).retrieveForUser(eq(USER), eq(QUERY), eq(QUERY_VEC), eq(50), any());
+	}
+
+	@Test
+	void rejectsBlankQuery() {
+		assertThatThrownBy(() -> librarySearchService.search(USER, " ", 10))
+				.isInstanceOf(IllegalArgumentException.class);
+		verify(embeddingService, never()).embed(anyString());
+	}
+
+	/* ----- 내부 유틸 ----- */
+
+	private static RetrievedChunk chunk(ChunkSource source, Long id, Long lectureId, double score) {
+		return new RetrievedChunk(source, id, lectureId, "chunk " + id,
+				source == ChunkSource.SLIDE ? 1 : null, null, null, null, score);
+	}
+}
@@ -0,0 +1,188 @@
+package com.rag.lecturelens.service;
+
+import com.rag.lecturelens.executor.PipelineExecutors;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class S3MultipartUploaderTest {
+
+	private static final long MB = DataSize.ofMegabytes(1).toBytes();
+
+	private FakeS3 s3;
+	private PipelineExecutors executors;
+	private S3MultipartUploader uploader;
+
+	@BeforeEach
+	void setUp() {
+		s3 = new FakeS3();
+		executors = new PipelineExecutors(new MockEnvironment(), new SimpleMeterRegistry());
+		uploader = new S3MultipartUploader(s3, executors);
+		ReflectionTestUtils.setField(uploader, "bucket", "bucket");
+		ReflectionTestUtils.setField(uploader, "threshold", DataSize.ofMegabytes(64));
+		ReflectionTestUtils.setField(uploader, "partSize", DataSize.ofMegabytes(5));
+		ReflectionTestUtils.setField(uploader, "concurrency", 1);
+		ReflectionTestUtils.setField(uploader, "maxAttempts", 2);
+		ReflectionTestUtils.setField(uploader, "maxBuffer", DataSize.ofMegabytes(16));
+		uploader.initBufferBudget();
+	}
+
+	@AfterEach
+	void tearDown() {
+		executors.shutdown();
+	}
+
+	@Test
+	void splitsStreamIntoPartsAndCompletesInOrder() {
+		ReflectionTestUtils.setField(uploader, "concurrency", 3);
+		long size = 12 * MB;
+
+		uploader.upload("a/b.wav", "audio/wav", new ZeroStream(size), size);
+
+		assertThat(s3.partSizes).containsExactlyInAnyOrderEntriesOf(Map.of(1, 5 * MB, 2, 5 * MB, 3, 2 * MB));
+		assertThat(s3.completedParts).extracting(CompletedPart::partNumber).containsExactly(1, 2, 3);
+		assertThat(s3.aborted.get()).isZero();
+	}
+
+	@Test
+	void retriesFailedPart() {
+		s3.failuresBeforeSuccess.set(1);
+		long size = 6 * MB;
+
+		uploader.upload("a/b.wav", "audio/wav", new ZeroStream(size), size);
+
+		assertThat(s3.completedParts).hasSize(2);
+		assertThat(s3.aborted.get()).isZero();
+	}
+
+	@Test
+	void failedPartAbortsWithoutReadingRestOfStream() {
+		s3.failuresBeforeSuccess.set(Integer.MAX_VALUE);
+		long size = 50 * MB;
+		ZeroStream in = new ZeroStream(size);
+
+		assertThatThrownBy(() -> uploader.upload("a/b.wav", "audio/wav", in, size))
+				.isInstanceOf(RuntimeException.class);
+
+		assertThat(s3.aborted.get()).isEqualTo(1);
+		assertThat(s3.completedParts).isNull();
+		// 첫 파트 실패를 보고 바로 중단 (concurrency=1 → 다음 파트를 읽기 전)
+		assertThat(in.read).isEqualTo(5 * MB);
+	}
+
+	@Test
+	void bufferBudgetIsReturnedAfterFailure() {
+		// 예산 = 파트 하나 → 실패한 업로드가 예산을 돌려주지 않으면 다음 업로드가 멈춤
+		ReflectionTestUtils.setField(uploader, "maxBuffer", DataSize.ofMegabytes(5));
+		uploader.initBufferBudget();
+		s3.failuresBeforeSuccess.set(Integer.MAX_VALUE);
+		long size = 20 * MB;
+		assertThatThrownBy(() -> uploader.upload("a/b.wav", "audio/wav", new ZeroStream(size), size))
+				.isInstanceOf(RuntimeException.class);
+
+		s3.failuresBeforeSuccess.set(0);
+		assertTimeoutPreemptively(Duration.ofSeconds(10),
+				() -> uploader.upload("a/c.wav", "audio/wav", new ZeroStream(size), size));
+
+		assertThat(s3.completedParts).hasSize(4);
+	}
+
+	/**
+	 * 멀티파트 API 만 흉내 (나머지는 S3Client 기본 구현 = UnsupportedOperationException)
+	 */
+	private static final class FakeS3 implements S3Client {
+
+		final Map<Integer, Long> partSizes = new ConcurrentHashMap<>();
+		final AtomicInteger failuresBeforeSuccess = new AtomicInteger();
+		final AtomicInteger aborted = new AtomicInteger();
+		volatile List<CompletedPart> completedParts;
+
+		@Override
+		public CreateMultipartUploadResponse createMultipartUpload(CreateMultipartUploadRequest request) {
+			completedParts = null;
+			return CreateMultipartUploadResponse.builder().uploadId("upload-1").build();
+		}
+
+		@Override
+		public UploadPartResponse uploadPart(UploadPartRequest request, RequestBody body) {
+			if (failuresBeforeSuccess.getAndUpdate(n -> n == Integer.MAX_VALUE ? n : Math.max(0, n - 1)) > 0) {
+				throw S3Exception.builder().message("part failed").statusCode(500).build();
+			}
+			partSizes.put(request.partNumber(), request.contentLength());
+			return UploadPartResponse.builder().eTag("etag-" + request.partNumber()).build();
+		}
+
+		@Override
+		public CompleteMultipartUploadResponse completeMultipartUpload(CompleteMultipartUploadRequest request) {
+			completedParts = request.multipartUpload().parts();
+			return CompleteMultipartUploadResponse.builder().build();
+		}
+
+		@Override
+		public AbortMultipartUploadResponse abortMultipartUpload(AbortMultipartUploadRequest request) {
+			aborted.incrementAndGet();
+			return AbortMultipartUploadResponse.builder().build();
+		}
+
+		@Override
+		public String serviceName() {
+			return "s3";
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	/**
+	 * size 바이트의 0 을 만들어 내는 스트림 (읽은 양을 기록)
+	 */
+	private static final class ZeroStream extends InputStream {
+
+		private final long size;
+		volatile long read;
+
+		ZeroStream(long size) {
+			this.size = size;
+		}
+
+		@Override
+		public int read() {
+			if (read >= size) {
+				return -1;
+			}
+			read++;
+			return 0;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (read >= size) {
+				return -1;
+			}
+			int n = (int) Math.min(len, size - read);
+			Arrays.fill(b, off, off + n, (byte) 0);
+			read += n;
+			return n;
+		}
+	}
+}
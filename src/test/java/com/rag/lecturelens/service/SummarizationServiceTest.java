@@ -0,0 +1,122 @@
+package com.rag.lecturelens.service;
+
+import com.rag.lecturelens.domain.ChunkSource;
+import com.rag.lecturelens.domain.WorkloadType;
+import com.rag.lecturelens.dto.RetrievedChunk;
+import com.rag.lecturelens.entity.AudioChunk;
+import com.rag.lecturelens.entity.Lecture;
+import com.rag.lecturelens.entity.LectureChunk;
+import com.rag.lecturelens.executor.PipelineExecutors;
+import com.rag.lecturelens.openai.OpenAiClient;
+import com.rag.lecturelens.repository.AudioChunkRepository;
+import com.rag.lecturelens.repository.LectureChunkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SummarizationServiceTest {
+
+	private static final Long LECTURE_ID = 5L;
+	private static final String TOPIC = "운영체제\n메모리 관리";
+	private static final String RESPONSE = """
+			{"choices": [{"message": {"content": "요약 노트"}}]}
+			""";
+
+	private final LectureChunkRepository chunkRepository = mock(LectureChunkRepository.class);
+	private final AudioChunkRepository audioChunkRepository = mock(AudioChunkRepository.class);
+	private final EmbeddingService embeddingService = mock(EmbeddingService.class);
+	private final HybridRetrievalService hybridRetrievalService = mock(HybridRetrievalService.class);
+	private final OpenAiClient openAiClient = mock(OpenAiClient.class);
+	private final PipelineExecutors pipelineExecutors = mock(PipelineExecutors.class);
+	private final Lecture lecture = Lecture.builder().id(LECTURE_ID).build();
+
+	private SummarizationService service;
+
+	@BeforeEach
+	void setUp() {
+		service = new SummarizationService(chunkRepository, audioChunkRepository, embeddingService,
+				hybridRetrievalService, openAiClient, new ObjectMapper(), pipelineExecutors);
+		ReflectionTestUtils.setField(service, "candidates", 120);
+		ReflectionTestUtils.setField(service, "contextChunks", 2);
+		ReflectionTestUtils.setField(service, "mmrLambda", 0.7);
+
+		when(pipelineExecutors.call(eq(WorkloadType.LLM), any()))
+				.thenAnswer(inv -> inv.<Callable<?>>getArgument(1).call());
+		when(openAiClient.postJson(eq("/chat/completions"), any(), anyString())).thenReturn(RESPONSE);
+	}
+
+	@Test
+	void summarizesMmrSelectedChunksInLectureOrder() {
+		float[] query = {1f, 1f, 0f};
+		when(embeddingService.embed(TOPIC)).thenReturn(query);
+		when(hybridRetrievalService.retrieve(eq(LECTURE_ID), eq(TOPIC), eq(query), eq(120), any())).thenReturn(List.of(
+				audio(2L, 40, "audio two", 1f, 0.01f, 0f),
+				audio(1L, 20, "audio one", 1f, 0f, 0f),     // 2번과 거의 같은 내용 → MMR 에서 빠짐
+				slide(3L, 4, "slide four", 0f, 1f, 0f)
+		));
+
+		assertThat(service.summarizeLecture(LECTURE_ID, TOPIC)).isEqualTo("요약 노트");
+
+		String payload = sentPayload();
+		assertThat(payload).contains("slide four", "audio two").doesNotContain("audio one");
+		assertThat(payload.indexOf("slide four")).isLessThan(payload.indexOf("audio two"));
+	}
+
+	@Test
+	void fallsBackToLectureOrderWhenRetrievalFindsNothing() {
+		when(embeddingService.embed(TOPIC)).thenReturn(new float[]{1f, 0f});
+		when(hybridRetrievalService.retrieve(eq(LECTURE_ID), eq(TOPIC), any(), anyInt(), any())).thenReturn(List.of());
+		when(chunkRepository.findTop20ByLectureIdOrderBySlideNoAsc(LECTURE_ID)).thenReturn(List.of(
+				LectureChunk.builder().id(1L).lecture(lecture).slideNo(1).text("first slide").build()));
+		when(audioChunkRepository.findTop30ByLectureIdOrderByStartSecAsc(LECTURE_ID)).thenReturn(List.of(
+				AudioChunk.builder().id(2L).lecture(lecture).startSec(0).text("first sentence").build(),
+				AudioChunk.builder().id(3L).lecture(lecture).startSec(5).text("second sentence").build()));
+
+		service.summarizeLecture(LECTURE_ID, TOPIC);
+
+		// context-chunks = 2 → 슬라이드 1 + 음성 1
+		assertThat(sentPayload()).contains("first slide", "first sentence").doesNotContain("second sentence");
+	}
+
+	@Test
+	void failsWithoutAnyChunk() {
+		when(chunkRepository.findTop20ByLectureIdOrderBySlideNoAsc(LECTURE_ID)).thenReturn(List.of());
+		when(audioChunkRepository.findTop30ByLectureIdOrderByStartSecAsc(LECTURE_ID)).thenReturn(List.of());
+
+		assertThatThrownBy(() -> service.summarizeLecture(LECTURE_ID, " "))
+				.isInstanceOf(IllegalStateException.class);
+		verify(openAiClient, never()).postJson(anyString(), any(), anyString());
+	}
+
+	/* ----- 내부 유틸 ----- */
+
+	private String sentPayload() {
+		ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+		verify(openAiClient).postJson(eq("/chat/completions"), any(), payload.capture());
+		return payload.getValue();
+	}
+
+	private static RetrievedChunk audio(Long id, int startSec, String text, float... embedding) {
+		return new RetrievedChunk(ChunkSource.AUDIO, id, LECTURE_ID, text, null, startSec, startSec + 5, embedding, 0);
+	}
+
+	private static RetrievedChunk slide(Long id, int slideNo, String text, float... embedding) {
+		return new RetrievedChunk(ChunkSource.SLIDE, id, LECTURE_ID, text, slideNo, null, null, embedding, 0);
+	}
+}
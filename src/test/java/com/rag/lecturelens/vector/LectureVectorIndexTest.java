@@ -0,0 +1,106 @@
+package com.rag.lecturelens.vector;
+
+import com.rag.lecturelens.domain.ChunkSource;
+import com.rag.lecturelens.dto.RetrievedChunk;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class LectureVectorIndexTest {
+
+	private static final int DIMENSIONS = 37;
+	private static final int CHUNKS = 300;
+
+	private final SplittableRandom random = new SplittableRandom(11);
+	private final List<RetrievedChunk> rows = new ArrayList<>();
+
+	private LectureVectorIndex index;
+
+	@BeforeEach
+	void setUp() {
+		for (int r = 0; r < CHUNKS; r++) {
+			ChunkSource source = r % 3 == 0 ? ChunkSource.SLIDE : ChunkSource.AUDIO;
+			rows.add(new RetrievedChunk(source, (long) r + 1, 1L, "chunk " + r,
+					source == ChunkSource.SLIDE ? r + 1 : null, null, null, random(DIMENSIONS), 0));
+		}
+		index = LectureVectorIndex.build("text-embedding-3-small", DIMENSIONS, rows);
+	}
+
+	@Test
+	void topNMatchesBruteForce() {
+		for (ChunkSource source : ChunkSource.values()) {
+			for (int q = 0; q < 20; q++) {
+				float[] query = random(DIMENSIONS);
+				List<RetrievedChunk> expected = bruteForce(source, query, 10);
+
+				List<RetrievedChunk> result = index.search(source, query, 10);
+
+				assertThat(result).extracting(RetrievedChunk::id)
+						.containsExactlyElementsOf(expected.stream().map(RetrievedChunk::id).toList());
+				for (int i = 0; i < result.size(); i++) {
+					assertThat(result.get(i).score()).isCloseTo(expected.get(i).score(), within(1e-3));
+					assertThat(result.get(i).embedding()).containsExactly(expected.get(i).embedding());
+				}
+			}
+		}
+	}
+
+	@Test
+	void topNLargerThanSourceReturnsAllRows() {
+		long slides = rows.stream().filter(c -> c.source() == ChunkSource.SLIDE).count();
+
+		assertThat(index.search(ChunkSource.SLIDE, random(DIMENSIONS), CHUNKS)).hasSize((int) slides);
+		assertThat(index.search(ChunkSource.SLIDE, random(DIMENSIONS), 0)).isEmpty();
+	}
+
+	@Test
+	void skipsChunksWithOtherDimensions() {
+		LectureVectorIndex mixed = LectureVectorIndex.build("m", 2, List.of(
+				new RetrievedChunk(ChunkSource.AUDIO, 1L, 1L, "a", null, null, null, new float[]{1f, 0f}, 0),
+				new RetrievedChunk(ChunkSource.AUDIO, 2L, 1L, "b", null, null, null, new float[]{1f, 0f, 0f}, 0),
+				new RetrievedChunk(ChunkSource.AUDIO, 3L, 1L, "c", null, null, null, null, 0)
+		));
+
+		assertThat(mixed.size()).isEqualTo(1);
+		assertThat(mixed.search(ChunkSource.SLIDE, new float[]{1f, 0f}, 5)).isEmpty();
+		assertThatThrownBy(() -> mixed.search(ChunkSource.AUDIO, new float[]{1f}, 5))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	/* ----- 내부 유틸 ----- */
+
+	// score = -|q - v|² (double 로 계산), 가까운 순
+	private List<RetrievedChunk> bruteForce(ChunkSource source, float[] query, int topN) {
+		return rows.stream()
+				.filter(c -> c.source() == source)
+				.map(c -> c.withScore(-squaredDistance(query, c.embedding())))
+				.sorted(Comparator.comparingDouble(RetrievedChunk::score).reversed())
+				.limit(topN)
+				.toList();
+	}
+
+	private static double squaredDistance(float[] a, float[] b) {
+		double sum = 0;
+		for (int i = 0; i < a.length; i++) {
+			double d = (double) a[i] - b[i];
+			sum += d * d;
+		}
+		return sum;
+	}
+
+	private float[] random(int length) {
+		float[] v = new float[length];
+		for (int i = 0; i < length; i++) {
+			v[i] = (float) (random.nextDouble() * 2 - 1);
+		}
+		return v;
+	}
+}
@@ -0,0 +1,74 @@
+package com.rag.lecturelens.vector;
+
+import com.rag.lecturelens.domain.ChunkSource;
+import com.rag.lecturelens.dto.RetrievedChunk;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MmrRerankerTest {
+
+	@Test
+	void lambdaOneKeepsRelevanceOrder() {
+		float[] query = {1f, 0f};
+		List<RetrievedChunk> candidates = List.of(
+				chunk(1, 0.5f, 0.5f),
+				chunk(2, 1f, 0.1f),
+				chunk(3, 0f, 1f),
+				chunk(4, 1f, -0.5f),
+				chunk(5, 1f, 0.1f)      // 2번과 같은 벡터 - λ = 1 이면 중복도 그대로 남음
+		);
+
+		List<RetrievedChunk> result = MmrReranker.rerank(query, candidates, 5, 1.0);
+
+		assertThat(result).extracting(RetrievedChunk::id).containsExactly(2L, 5L, 4L, 1L, 3L);
+		assertThat(result.get(0).score()).isGreaterThan(result.get(4).score());
+	}
+
+	@Test
+	void skipsNearDuplicateOfSelectedChunk() {
+		float[] query = {1f, 1f, 0f};
+		List<RetrievedChunk> candidates = List.of(
+				chunk(1, 1f, 0f, 0f),
+				chunk(2, 1f, 0.01f, 0f),    // 1번과 거의 같고 관련도는 조금 더 높음
+				chunk(3, 0f, 1f, 0f)        // 관련도는 1번과 같지만 내용이 다름
+		);
+
+		List<RetrievedChunk> result = MmrReranker.rerank(query, candidates, 2, 0.7);
+
+		assertThat(result).extracting(RetrievedChunk::id).containsExactly(2L, 3L);
+	}
+
+	@Test
+	void candidatesWithoutEmbeddingComeLast() {
+		float[] query = {1f, 0f};
+		List<RetrievedChunk> candidates = List.of(
+				chunk(1, null),
+				chunk(2, 1f, 0.2f),
+				chunk(3, new float[]{1f, 0f, 0f})   // 차원이 다름
+		);
+
+		List<RetrievedChunk> result = MmrReranker.rerank(query, candidates, 3, 0.7);
+
+		assertThat(result.get(0).id()).isEqualTo(2L);
+		assertThat(result).extracting(RetrievedChunk::id).containsExactlyInAnyOrder(1L, 2L, 3L);
+	}
+
+	@Test
+	void returnsAtMostTopN() {
+		float[] query = {1f, 0f};
+		List<RetrievedChunk> candidates = List.of(chunk(1, 1f, 0f), chunk(2, 0f, 1f));
+
+		assertThat(MmrReranker.rerank(query, candidates, 10, 0.7)).hasSize(2);
+		assertThat(MmrReranker.rerank(query, candidates, 0, 0.7)).isEmpty();
+		assertThat(MmrReranker.rerank(query, List.of(), 5, 0.7)).isEmpty();
+	}
+
+	/* ----- 내부 유틸 ----- */
+
+	private static RetrievedChunk chunk(long id, float... embedding) {
+		return new RetrievedChunk(ChunkSource.AUDIO, id, 1L, "chunk " + id, null, null, null, embedding, 0);
+	}
+}
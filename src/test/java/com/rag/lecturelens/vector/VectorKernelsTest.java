@@ -0,0 +1,79 @@
+package com.rag.lecturelens.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VectorKernelsTest {
+
+	// 레인 수(8 / 16)의 배수가 아닌 길이도 포함 (꼬리 처리)
+	private static final int[] LENGTHS = {1, 3, 7, 8, 15, 16, 17, 100, 1536};
+
+	private final SplittableRandom random = new SplittableRandom(42);
+
+	@Test
+	void scalarMatchesDoubleReference() {
+		for (int length : LENGTHS) {
+			float[] query = random(length);
+			float[] matrix = random(length * 3);
+			for (int row = 0; row < 3; row++) {
+				int offset = row * length;
+				assertThat(VectorKernels.dotScalar(query, matrix, offset))
+						.isCloseTo((float) reference(query, matrix, offset), within(tolerance(query, matrix, offset)));
+			}
+		}
+	}
+
+	@Test
+	void simdMatchesScalar() {
+		assumeTrue(VectorKernels.isSimdAvailable(), "jdk.incubator.vector 모듈 없음");
+		for (int length : LENGTHS) {
+			float[] query = random(length);
+			float[] matrix = random(length * 3 + 5);
+			for (int offset : new int[]{0, length, 2 * length + 5}) {
+				assertThat(SimdVectorKernels.dot(query, matrix, offset))
+						.isCloseTo(VectorKernels.dotScalar(query, matrix, offset), within(tolerance(query, matrix, offset)));
+			}
+		}
+	}
+
+	@Test
+	void dispatchMatchesScalar() {
+		float[] query = random(1536);
+		float[] matrix = random(1536);
+
+		assertThat(VectorKernels.dot(query, matrix, 0))
+				.isCloseTo(VectorKernels.dotScalar(query, matrix, 0), within(tolerance(query, matrix, 0)));
+	}
+
+	/* ----- 내부 유틸 ----- */
+
+	private float[] random(int length) {
+		float[] v = new float[length];
+		for (int i = 0; i < length; i++) {
+			v[i] = (float) (random.nextDouble() * 2 - 1);
+		}
+		return v;
+	}
+
+	private static double reference(float[] query, float[] matrix, int offset) {
+		double sum = 0;
+		for (int i = 0; i < query.length; i++) {
+			sum += (double) query[i] * matrix[offset + i];
+		}
+		return sum;
+	}
+
+	// 덧셈 순서가 달라서 생기는 float 오차 한도: 항 크기 합에 비례
+	private static float tolerance(float[] query, float[] matrix, int offset) {
+		double magnitude = 0;
+		for (int i = 0; i < query.length; i++) {
+			magnitude += Math.abs((double) query[i] * matrix[offset + i]);
+		}
+		return (float) (magnitude * 1e-5 + 1e-6);
+	}
+}